@@ -0,0 +1,189 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The data every benchmark runs over, held in memory in binary, text and
+ * DOM form so that only the library is measured.
+ * <p>
+ * The {@code corpus} parameter is either {@value #GENERATED}, for a
+ * synthetic stream of records, or a comma-separated list of Ion files and
+ * directories, such as those under {@code ion-tests/iontestdata}.
+ * Directories are searched recursively for {@code .ion} and {@code .10n}
+ * files, and every value found is concatenated into a single stream.
+ */
+@State(Scope.Benchmark)
+public class Corpus
+{
+    static final String GENERATED = "generated";
+
+    static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    @Param(GENERATED)
+    public String corpus;
+
+    /** The number of records in the generated corpus. */
+    @Param("10000")
+    public int records;
+
+    byte[] binary;
+    byte[] text;
+    IonDatagram datagram;
+
+    @Setup
+    public void load() throws IOException
+    {
+        ByteArrayOutputStream binaryOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream textOut = new ByteArrayOutputStream();
+        IonWriter binaryWriter = IonBinaryWriterBuilder.standard().build(binaryOut);
+        IonWriter textWriter = IonTextWriterBuilder.standard().build(textOut);
+        if (GENERATED.equals(corpus)) {
+            generate(binaryWriter, records);
+            generate(textWriter, records);
+        }
+        else {
+            for (File file : files()) {
+                copy(file, binaryWriter);
+                copy(file, textWriter);
+            }
+        }
+        binaryWriter.close();
+        textWriter.close();
+        binary = binaryOut.toByteArray();
+        text = textOut.toByteArray();
+        datagram = SYSTEM.getLoader().load(binary);
+    }
+
+    private List<File> files() throws IOException
+    {
+        List<File> files = new ArrayList<File>();
+        for (String path : corpus.split(",")) {
+            File file = new File(path.trim());
+            if (!file.exists()) {
+                throw new IOException("No such corpus file: " + file);
+            }
+            collect(file, files);
+        }
+        if (files.isEmpty()) {
+            throw new IOException("No Ion files found in " + corpus);
+        }
+        return files;
+    }
+
+    private static void collect(File file, List<File> files)
+    {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) return;
+            List<File> sorted = new ArrayList<File>();
+            Collections.addAll(sorted, children);
+            Collections.sort(sorted);
+            for (File child : sorted) {
+                collect(child, files);
+            }
+        }
+        else if (file.getName().endsWith(".ion")
+                 || file.getName().endsWith(".10n")) {
+            files.add(file);
+        }
+    }
+
+    private static void copy(File file, IonWriter writer) throws IOException
+    {
+        InputStream in = new FileInputStream(file);
+        try {
+            IonReader reader = IonReaderBuilder.standard().build(in);
+            try {
+                writer.writeValues(reader);
+            }
+            catch (RuntimeException e) {
+                throw new IOException("Unable to read corpus file " + file, e);
+            }
+            finally {
+                reader.close();
+            }
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Writes records shaped like typical service data: a handful of
+     * repeated field names, short strings and symbols, and a mix of
+     * numeric and timestamp scalars.  The seed is fixed so that every run
+     * sees the same bytes.
+     */
+    static void generate(IonWriter writer, int count) throws IOException
+    {
+        Random random = new Random(42);
+        String[] tags = { "red", "green", "blue", "sale", "new", "used" };
+        byte[] blob = new byte[32];
+        for (int i = 0; i < count; i++) {
+            writer.setTypeAnnotations("record");
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("id");
+            writer.writeInt(i);
+            writer.setFieldName("name");
+            writer.writeString("item-" + random.nextInt(100000));
+            writer.setFieldName("price");
+            writer.writeDecimal(BigDecimal.valueOf(random.nextInt(1000000), 2));
+            writer.setFieldName("ratio");
+            writer.writeFloat(random.nextDouble());
+            writer.setFieldName("created");
+            writer.writeTimestamp(
+                Timestamp.forMillis(1500000000000L + random.nextInt(1000000000), 0));
+            writer.setFieldName("active");
+            writer.writeBool(random.nextBoolean());
+            writer.setFieldName("tags");
+            writer.stepIn(IonType.LIST);
+            int tagCount = random.nextInt(4);
+            for (int t = 0; t < tagCount; t++) {
+                writer.writeSymbol(tags[random.nextInt(tags.length)]);
+            }
+            writer.stepOut();
+            writer.setFieldName("payload");
+            random.nextBytes(blob);
+            writer.writeBlob(blob);
+            writer.stepOut();
+        }
+    }
+}
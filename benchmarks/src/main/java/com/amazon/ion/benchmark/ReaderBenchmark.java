@@ -0,0 +1,122 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Fully traverses the corpus with the streaming readers, materializing
+ * every field name, annotation and scalar.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ReaderBenchmark
+{
+    private static final IonReaderBuilder BUILDER = IonReaderBuilder.standard();
+
+    /** Measures {@code IonReaderBinaryUserX}. */
+    @Benchmark
+    public void readBinary(Corpus corpus, Blackhole bh) throws IOException
+    {
+        IonReader reader = BUILDER.build(corpus.binary);
+        traverse(reader, bh);
+        reader.close();
+    }
+
+    /** Measures {@code IonReaderTextUserX}. */
+    @Benchmark
+    public void readText(Corpus corpus, Blackhole bh) throws IOException
+    {
+        IonReader reader = BUILDER.build(corpus.text);
+        traverse(reader, bh);
+        reader.close();
+    }
+
+    static void traverse(IonReader reader, Blackhole bh)
+    {
+        IonType type;
+        while ((type = reader.next()) != null) {
+            bh.consume(reader.getTypeAnnotations());
+            if (reader.isInStruct()) {
+                bh.consume(reader.getFieldName());
+            }
+            if (reader.isNullValue()) {
+                continue;
+            }
+            switch (type) {
+                case BOOL:
+                    bh.consume(reader.booleanValue());
+                    break;
+                case INT:
+                    switch (reader.getIntegerSize()) {
+                        case INT:
+                            bh.consume(reader.intValue());
+                            break;
+                        case LONG:
+                            bh.consume(reader.longValue());
+                            break;
+                        default:
+                            bh.consume(reader.bigIntegerValue());
+                            break;
+                    }
+                    break;
+                case FLOAT:
+                    bh.consume(reader.doubleValue());
+                    break;
+                case DECIMAL:
+                    bh.consume(reader.decimalValue());
+                    break;
+                case TIMESTAMP:
+                    bh.consume(reader.timestampValue());
+                    break;
+                case SYMBOL:
+                    bh.consume(reader.symbolValue());
+                    break;
+                case STRING:
+                    bh.consume(reader.stringValue());
+                    break;
+                case CLOB:
+                case BLOB:
+                    bh.consume(reader.newBytes());
+                    break;
+                case LIST:
+                case SEXP:
+                case STRUCT:
+                    reader.stepIn();
+                    traverse(reader, bh);
+                    reader.stepOut();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes the corpus from its DOM form, so the source costs the same for
+ * both encodings.  Output goes to a buffer that is reused across
+ * invocations, so its growth isn't counted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class WriterBenchmark
+{
+    private static final IonBinaryWriterBuilder BINARY =
+        IonBinaryWriterBuilder.standard().immutable();
+
+    private static final IonTextWriterBuilder TEXT =
+        IonTextWriterBuilder.standard().immutable();
+
+    private ByteArrayOutputStream myOut;
+
+    @Setup(Level.Trial)
+    public void allocate(Corpus corpus)
+    {
+        myOut = new ByteArrayOutputStream(
+            Math.max(corpus.binary.length, corpus.text.length));
+    }
+
+    /** Measures {@code IonManagedBinaryWriter}. */
+    @Benchmark
+    public int writeBinary(Corpus corpus) throws IOException
+    {
+        myOut.reset();
+        IonWriter writer = BINARY.build(myOut);
+        write(corpus, writer);
+        return myOut.size();
+    }
+
+    /** Measures {@code IonWriterSystemText}. */
+    @Benchmark
+    public int writeText(Corpus corpus) throws IOException
+    {
+        myOut.reset();
+        IonWriter writer = TEXT.build(myOut);
+        write(corpus, writer);
+        return myOut.size();
+    }
+
+    private static void write(Corpus corpus, IonWriter writer)
+        throws IOException
+    {
+        for (IonValue value : corpus.datagram) {
+            value.writeTo(writer);
+        }
+        writer.close();
+    }
+}
@@ -92,6 +92,11 @@ import java.util.Iterator;
  * It allows the user to reposition the reader to a {@link Span} over the
  * same reader instance or another reader with the same source.
  *
+ * <h3>The {@link TextValueReader} Facet</h3>
+ * This facet is available on readers of Ion binary data.
+ * It provides the text of strings and symbols, and the IDs of symbols and
+ * field names, without allocating objects for each value.
+ *
  * <h2>Span Facets</h2>
  * Readers that support the {@link SpanProvider} facet vend {@link Span}s that
  * are also faceted.
@@ -399,7 +399,9 @@ public interface IonValue
      * Marks this instance and its children to be immutable.
      * In addition, read-only values are safe for simultaneous use
      * from multiple threads.  This may require materializing the Java
-     * forms of the values.
+     * forms of the values: any children not yet loaded, such as those of
+     * lazily-loaded or cloned containers, are loaded now, so that reading a
+     * read-only value never changes its state.
      * <p>
      * After this method completes, any attempt to change the state of this
      * instance, or of any contained value, will trigger a
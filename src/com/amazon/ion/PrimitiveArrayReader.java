@@ -0,0 +1,91 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * An {@link IonReader} facet that decodes runs of numeric values directly
+ * into primitive arrays, without positioning the reader on each value.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * The methods apply inside a list or sexp. They read the values that
+ * follow the current one (or, right after {@link IonReader#stepIn()}, the
+ * first values of the container), skipping the current value if it hasn't
+ * been read. They stop when the array portion is full, at the end of the
+ * container, or before a value that can't be decoded into the array
+ * type: one of another type, a null, an annotated value, or a number out
+ * of range. They may also stop early where the reader's input has to be
+ * refilled. Afterwards the reader isn't positioned on a value, and
+ * {@link IonReader#next()} continues with the value after the run.
+ * <p>
+ * So a caller reads a numeric list of unknown length as follows:
+ * <pre>
+ *    reader.stepIn();
+ *    while (true) {
+ *        count += arrays.readLongs(values, count, values.length - count);
+ *        if (count == values.length) {
+ *            values = Arrays.copyOf(values, count * 2);
+ *        }
+ *        else if (reader.next() == null) {
+ *            break;
+ *        }
+ *        else {
+ *            values[count++] = reader.longValue();
+ *        }
+ *    }
+ *    reader.stepOut();
+ * </pre>
+ * <p>
+ * This facet is available on readers of Ion binary data. The facet is the
+ * reader itself, so it may be retrieved once and used for the life of the
+ * reader.
+ */
+public interface PrimitiveArrayReader
+{
+    /**
+     * Decodes the following {@code int} values into the given array.
+     *
+     * @return the number of values read, which is zero if the next value
+     *  isn't an {@code int} that fits in a Java {@code int}.
+     *
+     * @throws IllegalStateException if the reader isn't in a list or sexp.
+     * @throws IndexOutOfBoundsException if the portion is outside the array.
+     */
+    public int readInts(int[] dst, int offset, int length);
+
+    /**
+     * Decodes the following {@code int} values into the given array.
+     *
+     * @return the number of values read, which is zero if the next value
+     *  isn't an {@code int} that fits in a Java {@code long}.
+     *
+     * @throws IllegalStateException if the reader isn't in a list or sexp.
+     * @throws IndexOutOfBoundsException if the portion is outside the array.
+     */
+    public int readLongs(long[] dst, int offset, int length);
+
+    /**
+     * Decodes the following {@code float} values into the given array.
+     *
+     * @return the number of values read, which is zero if the next value
+     *  isn't a {@code float}.
+     *
+     * @throws IllegalStateException if the reader isn't in a list or sexp.
+     * @throws IndexOutOfBoundsException if the portion is outside the array.
+     */
+    public int readDoubles(double[] dst, int offset, int length);
+}
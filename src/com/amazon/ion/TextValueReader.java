@@ -0,0 +1,104 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+import java.nio.CharBuffer;
+
+/**
+ * An {@link IonReader} facet providing access to the text of the current
+ * value, and to symbol IDs, without allocating {@link String}s or
+ * {@link SymbolToken}s.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * The text methods apply to the current value, which must be a non-null
+ * string or symbol. A string's UTF-8 bytes are read once into space owned by
+ * the reader, after which they may be decoded or compared any number of
+ * times, including by {@link IonReader#stringValue()}.
+ * <p>
+ * Symbol IDs allow dispatching on field names and symbol values by integer
+ * comparison. Their text can be found through
+ * {@link SymbolTable#findKnownSymbol(int)} on the reader's
+ * {@linkplain IonReader#getSymbolTable() current symbol table}, which
+ * returns the same {@code String} instance each time for a given ID, so
+ * callers can cache per-table lookups keyed on symbol ID.
+ * <p>
+ * This facet is available on readers of Ion binary data. The facet is the
+ * reader itself, so it may be retrieved once and used for the life of the
+ * reader.
+ */
+public interface TextValueReader
+{
+    /**
+     * Gets the symbol ID of the current symbol value.
+     *
+     * @throws IllegalStateException if the current value isn't a symbol.
+     * @throws NullValueException if the current value is {@code null.symbol}.
+     */
+    public int getSymbolValueId();
+
+    /**
+     * Gets the symbol ID of the current field name, or
+     * {@link SymbolTable#UNKNOWN_SYMBOL_ID} if the reader isn't in a struct.
+     */
+    public int getFieldNameId();
+
+    /**
+     * Gets the length in bytes of the UTF-8 encoding of the current text
+     * value. This is an upper bound on the number of chars that
+     * {@link #getTextChars(char[], int)} will produce.
+     *
+     * @throws IllegalStateException if the current value isn't text.
+     * @throws NullValueException if the current value is null.
+     */
+    public int getTextUtf8Length();
+
+    /**
+     * Decodes the text of the current value into the given array.
+     *
+     * @param dst must have room for at least {@link #getTextUtf8Length()}
+     *  chars after {@code offset}, unless the caller knows the text needs
+     *  fewer.
+     *
+     * @return the number of chars written.
+     *
+     * @throws IndexOutOfBoundsException if the array is too small.
+     * @throws IllegalStateException if the current value isn't text.
+     * @throws NullValueException if the current value is null.
+     */
+    public int getTextChars(char[] dst, int offset);
+
+    /**
+     * Decodes the text of the current value into the given buffer, starting
+     * at its position and advancing it past the decoded text.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has too little
+     *  room, in which case its position is unchanged.
+     * @throws IllegalStateException if the current value isn't text.
+     * @throws NullValueException if the current value is null.
+     */
+    public void getTextChars(CharBuffer dst);
+
+    /**
+     * Determines whether the text of the current value equals the given
+     * UTF-8 encoded text, without decoding either.
+     *
+     * @throws IllegalStateException if the current value isn't text.
+     * @throws NullValueException if the current value is null.
+     */
+    public boolean textEquals(byte[] utf8, int offset, int length);
+}
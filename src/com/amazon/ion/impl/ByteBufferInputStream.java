@@ -0,0 +1,80 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link InputStream} that reads directly out of a
+ * {@link ByteBuffer}, which may be direct (off-heap).
+ * <p>
+ * Data is moved with bulk {@link ByteBuffer#get(byte[], int, int)}
+ * calls straight into the caller's array, so the only copy made is the one
+ * into the page buffers of the {@link UnifiedInputStreamX} consuming this
+ * stream.  The stream reads between the buffer's position and limit at the
+ * time it was created and never modifies the caller's buffer state.
+ */
+final class ByteBufferInputStream
+    extends InputStream
+{
+    private final ByteBuffer _buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer)
+    {
+        _buffer = buffer.duplicate();
+    }
+
+    @Override
+    public int read()
+    {
+        if (!_buffer.hasRemaining()) {
+            return -1;
+        }
+        return _buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] dst, int offset, int length)
+    {
+        int remaining = _buffer.remaining();
+        if (remaining == 0) {
+            return length == 0 ? 0 : -1;
+        }
+        if (length > remaining) {
+            length = remaining;
+        }
+        _buffer.get(dst, offset, length);
+        return length;
+    }
+
+    @Override
+    public long skip(long n)
+    {
+        if (n <= 0) {
+            return 0;
+        }
+        int skipped = (int) Math.min(n, _buffer.remaining());
+        _buffer.position(_buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available()
+    {
+        return _buffer.remaining();
+    }
+}
@@ -0,0 +1,602 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.SystemSymbols.ION_1_0_SID;
+import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
+
+import com.amazon.ion.Decimal;
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.UnexpectedEofException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.Iterator;
+
+/**
+ * A binary reader over an {@link InputStream} whose data may arrive a
+ * piece at a time, as from a socket.
+ * <p>
+ * At depth zero this reader only positions itself on a value once every
+ * byte of that value (and of any system values preceding it) has been
+ * buffered.  When the next top-level value is incomplete, {@link #next()}
+ * returns null instead of blocking or failing; calling it again after more
+ * data has arrived resumes where the reader left off.  The stream is read
+ * until enough data is present or it returns {@code -1}, which this reader
+ * treats as "no more data available right now" rather than as the end of
+ * the stream.
+ * <p>
+ * The parsing itself is delegated to an {@link IonReaderBinaryUserX} which
+ * consumes the buffered bytes through a gate that only releases complete
+ * top-level values, so that reader never sees a partial value.
+ * <p>
+ * Whether the stream is binary isn't decided until its first bytes either
+ * complete a binary version marker or diverge from one; until then
+ * {@link #next()} returns null like it does for any incomplete value.  A
+ * stream that turns out to be text is handed to an ordinary text reader,
+ * since text values cannot be delimited without parsing them.
+ */
+final class IonReaderBinaryIncrementalX
+    implements IonReader, _Private_ReaderWriter
+{
+    private static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
+
+    private final IonCatalog                       _catalog;
+    private final _Private_LocalSymbolTableFactory _lstFactory;
+    private final InputStream                      _in;
+
+    /**
+     * Buffered bytes not yet consumed by the delegate.  Index 0 corresponds
+     * to stream position {@link #_buffer_start}.
+     */
+    private byte[]  _buffer;
+    private long    _buffer_start;
+    /** Buffer index of the next byte the delegate will read. */
+    private int     _read_pos;
+    /**
+     * Buffer index just past the last complete top-level value, which is
+     * also where scanning for the next one begins.
+     */
+    private int     _released;
+    /** Buffer index just past the last byte read from {@link #_in}. */
+    private int     _filled;
+    private boolean _user_value_ready;
+    /** Whether enough of the stream has arrived to tell binary from text. */
+    private boolean _format_known;
+    private boolean _is_text;
+
+    /** Null until the format is known and, if binary, a value is ready. */
+    private IonReader            _reader;
+    /** Handed to the delegate once it exists. */
+    TextInterningCache           _text_cache;
+
+    IonReaderBinaryIncrementalX(IonCatalog catalog,
+                                _Private_LocalSymbolTableFactory lstFactory,
+                                InputStream in)
+    {
+        _catalog = catalog;
+        _lstFactory = lstFactory;
+        _in = in;
+        _buffer = new byte[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Exposes only the released bytes of the buffer to the delegate reader.
+     */
+    private final class ReleasedBytes
+        extends InputStream
+    {
+        @Override
+        public int read()
+        {
+            if (_read_pos >= _released) {
+                return -1;
+            }
+            return _buffer[_read_pos++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] dst, int offset, int length)
+        {
+            int available = _released - _read_pos;
+            if (available <= 0) {
+                return -1;
+            }
+            if (length > available) {
+                length = available;
+            }
+            System.arraycopy(_buffer, _read_pos, dst, offset, length);
+            _read_pos += length;
+            return length;
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            _in.close();
+        }
+    }
+
+    //========================================================================
+    // Buffering
+
+    /**
+     * Attempts to make at least {@code needed} bytes available starting at
+     * the first unreleased byte, reading from the stream as necessary.
+     *
+     * @return true if the bytes are available.
+     */
+    private boolean fill(int needed)
+        throws IOException
+    {
+        while (_filled - _released < needed) {
+            if (_filled == _buffer.length) {
+                make_room(_released + needed);
+            }
+            int read = _in.read(_buffer, _filled, _buffer.length - _filled);
+            if (read <= 0) {
+                return false;
+            }
+            _filled += read;
+        }
+        return true;
+    }
+
+    /**
+     * Discards bytes the delegate has already consumed, growing the buffer
+     * if that doesn't leave room for {@code required} bytes.
+     */
+    private void make_room(int required)
+    {
+        int shift = _read_pos;
+        int length = _filled - shift;
+        byte[] dst = _buffer;
+        if (required - shift > _buffer.length) {
+            dst = new byte[Math.max(_buffer.length * 2, required - shift)];
+        }
+        System.arraycopy(_buffer, shift, dst, 0, length);
+        _buffer = dst;
+        _buffer_start += shift;
+        _read_pos = 0;
+        _released -= shift;
+        _filled = length;
+    }
+
+    /**
+     * Reads until the stream's first bytes either form a complete binary
+     * version marker or differ from one.  A text stream is then handed to
+     * a text reader along with the bytes already buffered.
+     *
+     * @return true if the format is known.
+     */
+    private boolean detect_format()
+        throws IOException
+    {
+        boolean complete = fill(_Private_IonConstants.BINARY_VERSION_MARKER_SIZE);
+        int length = Math.min(_filled, _Private_IonConstants.BINARY_VERSION_MARKER_SIZE);
+        for (int ii = 0; ii < length; ii++) {
+            if (_buffer[ii] != _Private_IonConstants.BINARY_VERSION_MARKER_1_0[ii]) {
+                InputStream text =
+                    new SequenceInputStream(new ByteArrayInputStream(_buffer, 0, _filled), _in);
+                IonReaderTextUserX reader =
+                    new IonReaderTextUserX(_catalog, _lstFactory,
+                                           UnifiedInputStreamX.makeStream(text));
+                reader._text_cache = _text_cache;
+                _reader = reader;
+                _is_text = true;
+                _format_known = true;
+                return true;
+            }
+        }
+        _format_known = complete;
+        return complete;
+    }
+
+    //========================================================================
+    // Top-level value scanning
+
+    /** Value of the last VarUInt decoded by {@link #read_var_uint(int)}. */
+    private long _var_uint;
+
+    /**
+     * Decodes a VarUInt at {@code offset} bytes past the first unreleased
+     * byte, storing it in {@link #_var_uint}.
+     *
+     * @return the offset just past the VarUInt, or -1 if more data is needed.
+     */
+    private int read_var_uint(int offset)
+        throws IOException
+    {
+        long value = 0;
+        for (;;) {
+            if (!fill(offset + 1)) {
+                return -1;
+            }
+            int b = _buffer[_released + offset++] & 0xff;
+            value = (value << 7) | (b & 0x7f);
+            if (value > Integer.MAX_VALUE) {
+                throw new IonException("VarUInt length exceeds the maximum supported value size");
+            }
+            if ((b & 0x80) != 0) {
+                break;
+            }
+        }
+        _var_uint = value;
+        return offset;
+    }
+
+    /**
+     * Scans forward over complete top-level values until one that will be
+     * presented to the user is found, releasing everything up to and
+     * including that value.
+     *
+     * @return true if a complete user value has been released.
+     */
+    private boolean scan_for_user_value()
+        throws IOException
+    {
+        for (;;) {
+            if (!fill(1)) {
+                return false;
+            }
+            int td = _buffer[_released] & 0xff;
+            int tid = _Private_IonConstants.getTypeCode(td);
+            int ln = _Private_IonConstants.getLowNibble(td);
+
+            if (td == (_Private_IonConstants.BINARY_VERSION_MARKER_1_0[0] & 0xff)) {
+                if (!fill(_Private_IonConstants.BINARY_VERSION_MARKER_SIZE)) {
+                    return false;
+                }
+                for (int ii = 1; ii < _Private_IonConstants.BINARY_VERSION_MARKER_SIZE; ii++) {
+                    if (_buffer[_released + ii] != _Private_IonConstants.BINARY_VERSION_MARKER_1_0[ii]) {
+                        throw new IonException("invalid binary image");
+                    }
+                }
+                _released += _Private_IonConstants.BINARY_VERSION_MARKER_SIZE;
+                continue;
+            }
+
+            int header = 1;
+            long length;
+            if (ln == _Private_IonConstants.lnIsNull
+                || tid == _Private_IonConstants.tidBoolean) {
+                length = 0;
+            }
+            else if (ln == _Private_IonConstants.lnIsVarLen
+                     || (tid == _Private_IonConstants.tidStruct && ln == 1)) {
+                header = read_var_uint(1);
+                if (header < 0) {
+                    return false;
+                }
+                length = _var_uint;
+            }
+            else {
+                length = ln;
+            }
+            int total = (int) (header + length);
+            if (!fill(total)) {
+                return false;
+            }
+
+            boolean is_system;
+            if (tid == _Private_IonConstants.tidNull) {
+                // NOP padding is system data; null.null is a user value
+                is_system = (ln != _Private_IonConstants.lnIsNull);
+            }
+            else if (tid == _Private_IonConstants.tidSymbol
+                     && ln != _Private_IonConstants.lnIsNull) {
+                is_system = (symbol_id(header, total) == ION_1_0_SID);
+            }
+            else if (tid == _Private_IonConstants.tidTypedecl) {
+                is_system = is_symbol_table(header);
+            }
+            else {
+                is_system = false;
+            }
+
+            _released += total;
+            if (!is_system) {
+                return true;
+            }
+        }
+    }
+
+    private long symbol_id(int offset, int end)
+    {
+        long sid = 0;
+        while (offset < end) {
+            sid = (sid << 8) | (_buffer[_released + offset++] & 0xff);
+        }
+        return sid;
+    }
+
+    /**
+     * Determines whether the buffered annotation wrapper whose content
+     * starts at {@code offset} holds a local symbol table.
+     */
+    private boolean is_symbol_table(int offset)
+        throws IOException
+    {
+        offset = read_var_uint(offset); // annotations length
+        int annotations_end = offset + (int) _var_uint;
+        read_var_uint(offset);          // first annotation
+        if (_var_uint != ION_SYMBOL_TABLE_SID) {
+            return false;
+        }
+        int td = _buffer[_released + annotations_end] & 0xff;
+        return _Private_IonConstants.getTypeCode(td) == _Private_IonConstants.tidStruct
+            && _Private_IonConstants.getLowNibble(td) != _Private_IonConstants.lnIsNull;
+    }
+
+    //========================================================================
+    // Navigation
+
+    @Deprecated
+    public boolean hasNext()
+    {
+        if (!_is_text && (_reader == null || _reader.getDepth() == 0)) {
+            if (!top_level_value_ready()) {
+                return false;
+            }
+        }
+        return _reader.hasNext();
+    }
+
+    public IonType next()
+    {
+        if (!_is_text && (_reader == null || _reader.getDepth() == 0)) {
+            if (!top_level_value_ready()) {
+                return null;
+            }
+            _user_value_ready = false;
+        }
+        return _reader.next();
+    }
+
+    private boolean top_level_value_ready()
+    {
+        if (!_user_value_ready) {
+            try {
+                if (!_format_known && !detect_format()) {
+                    return false;
+                }
+                if (_is_text) {
+                    // the text reader does its own reading
+                    return true;
+                }
+                _user_value_ready = scan_for_user_value();
+            }
+            catch (IOException e) {
+                throw new IonException(e);
+            }
+            if (_user_value_ready && _reader == null) {
+                UnifiedInputStreamX uis;
+                try {
+                    uis = UnifiedInputStreamX.makeStream(new ReleasedBytes());
+                }
+                catch (IOException e) {
+                    throw new IonException(e);
+                }
+                IonReaderBinaryUserX reader =
+                    new IonReaderBinaryUserX(_catalog, _lstFactory, uis, 0);
+                reader._text_cache = _text_cache;
+                _reader = reader;
+            }
+        }
+        return _user_value_ready;
+    }
+
+    public void stepIn()
+    {
+        current().stepIn();
+    }
+
+    public void stepOut()
+    {
+        current().stepOut();
+    }
+
+    public int getDepth()
+    {
+        return _reader == null ? 0 : _reader.getDepth();
+    }
+
+    private IonReader current()
+    {
+        if (_reader == null) {
+            throw new IllegalStateException("IonReader isn't positioned on a value");
+        }
+        return _reader;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws UnexpectedEofException if the stream ended partway through a
+     * top-level value.
+     */
+    public void close()
+        throws IOException
+    {
+        if (_reader != null) {
+            _reader.close();
+        }
+        else {
+            _in.close();
+        }
+        if (!_is_text && _released < _filled) {
+            throw new UnexpectedEofException(
+                "stream ended partway through a top-level value at position "
+                + (_buffer_start + _released));
+        }
+    }
+
+    public <T> T asFacet(Class<T> facetType)
+    {
+        return _reader == null ? null : _reader.asFacet(facetType);
+    }
+
+    public SymbolTable pop_passed_symbol_table()
+    {
+        return _reader == null
+            ? null
+            : ((_Private_ReaderWriter) _reader).pop_passed_symbol_table();
+    }
+
+    //========================================================================
+    // Current value accessors
+
+    public SymbolTable getSymbolTable()
+    {
+        if (_reader == null) {
+            return SharedSymbolTable.getSystemSymbolTable(1);
+        }
+        return _reader.getSymbolTable();
+    }
+
+    public IonType getType()
+    {
+        return _reader == null ? null : _reader.getType();
+    }
+
+    public IntegerSize getIntegerSize()
+    {
+        return _reader == null ? null : _reader.getIntegerSize();
+    }
+
+    public String[] getTypeAnnotations()
+    {
+        return current().getTypeAnnotations();
+    }
+
+    public SymbolToken[] getTypeAnnotationSymbols()
+    {
+        return current().getTypeAnnotationSymbols();
+    }
+
+    public Iterator<String> iterateTypeAnnotations()
+    {
+        return current().iterateTypeAnnotations();
+    }
+
+    @Deprecated
+    public int getFieldId()
+    {
+        return current().getFieldId();
+    }
+
+    public String getFieldName()
+    {
+        return _reader == null ? null : _reader.getFieldName();
+    }
+
+    public SymbolToken getFieldNameSymbol()
+    {
+        return _reader == null ? null : _reader.getFieldNameSymbol();
+    }
+
+    public boolean isNullValue()
+    {
+        return current().isNullValue();
+    }
+
+    public boolean isInStruct()
+    {
+        return _reader != null && _reader.isInStruct();
+    }
+
+    public boolean booleanValue()
+    {
+        return current().booleanValue();
+    }
+
+    public int intValue()
+    {
+        return current().intValue();
+    }
+
+    public long longValue()
+    {
+        return current().longValue();
+    }
+
+    public BigInteger bigIntegerValue()
+    {
+        return current().bigIntegerValue();
+    }
+
+    public double doubleValue()
+    {
+        return current().doubleValue();
+    }
+
+    public BigDecimal bigDecimalValue()
+    {
+        return current().bigDecimalValue();
+    }
+
+    public Decimal decimalValue()
+    {
+        return current().decimalValue();
+    }
+
+    public Date dateValue()
+    {
+        return current().dateValue();
+    }
+
+    public Timestamp timestampValue()
+    {
+        return current().timestampValue();
+    }
+
+    public String stringValue()
+    {
+        return current().stringValue();
+    }
+
+    public SymbolToken symbolValue()
+    {
+        return current().symbolValue();
+    }
+
+    public int byteSize()
+    {
+        return current().byteSize();
+    }
+
+    public byte[] newBytes()
+    {
+        return current().newBytes();
+    }
+
+    public int getBytes(byte[] buffer, int offset, int len)
+    {
+        return current().getBytes(buffer, offset, len);
+    }
+}
@@ -51,6 +51,9 @@ abstract class IonReaderBinaryRawX
 {
     static final int DEFAULT_CONTAINER_STACK_SIZE = 12; // a multiple of 3
     static final int DEFAULT_ANNOTATION_SIZE = 10;
+    static final int DEFAULT_TEXT_SIZE = 64;
+    /** Text longer than this gets transient arrays rather than reader-lifetime scratch. */
+    static final int MAX_TEXT_SCRATCH_SIZE = 16 * DEFAULT_TEXT_SIZE;
     static final int NO_LIMIT = Integer.MIN_VALUE;
     protected enum State {
         S_INVALID,
@@ -81,6 +84,15 @@ abstract class IonReaderBinaryRawX
     int                 _value_lob_remaining;
     boolean             _value_lob_is_ready;
 
+    // reusable space for the UTF-8 and decoded text of string values, kept
+    // only while no larger than MAX_TEXT_SCRATCH_SIZE
+    byte[]              _text_bytes;
+    char[]              _text_chars;
+    /** The length of the current value's text in _text_bytes, or -1 if it hasn't been read. */
+    int                 _text_len;
+    /** Canonicalizes short strings; null unless enabled. */
+    TextInterningCache  _text_cache;
+
     long                _position_start;
     long                _position_len;
 
@@ -135,6 +147,7 @@ abstract class IonReaderBinaryRawX
         _value_start = 0;
         _value_lob_remaining = 0;
         _value_lob_is_ready = false;
+        _text_len = -1;
 
         _annotation_count = 0;
 
@@ -428,6 +441,11 @@ abstract class IonReaderBinaryRawX
         _value_tid  = -1;
         _value_is_null = false;
         _value_lob_is_ready = false;
+        _text_len = -1;
+        if (_text_bytes != null && _text_bytes.length > MAX_TEXT_SCRATCH_SIZE) {
+            // don't hold on to a long string once we've moved past it
+            _text_bytes = null;
+        }
         _annotations.clear();
         _v.clear();
         _annotation_count = 0;
@@ -667,6 +685,146 @@ abstract class IonReaderBinaryRawX
         assert(next_position == getPosition());
         _local_remaining = local_remaining;
     }
+    //
+    //  runs of numeric values, decoded in place for the PrimitiveArrayReader facet
+    //
+
+    /**
+     * Moves past the current value of a list or sexp, so that a run of the
+     * following values can be decoded from the current page of the input.
+     *
+     * @return the limit of the run in the page.
+     */
+    private final int start_run()
+    {
+        if (_parent_tid != _Private_IonConstants.tidList && _parent_tid != _Private_IonConstants.tidSexp) {
+            throw new IllegalStateException("Runs of values can only be read from a list or sexp");
+        }
+        if (!_has_next_needed) {
+            throw new IllegalStateException("hasNext() must be followed by next() before reading a run of values");
+        }
+        if (_eof) {
+            return _input._pos;
+        }
+        switch (_state) {
+        case S_BEFORE_VALUE:
+            try {
+                skip(_value_len);
+            }
+            catch (IOException e) {
+                error(e);
+            }
+            break;
+        case S_AFTER_VALUE:
+        case S_BEFORE_TID:
+            break;
+        default:
+            error("internal error: raw binary reader in invalid state!");
+        }
+        _state = State.S_BEFORE_TID;
+        clear_value();
+        return (int) Math.min(_input._limit, (long) _input._pos + _local_remaining);
+    }
+
+    private final void finish_run(int pos)
+    {
+        _local_remaining -= pos - _input._pos;
+        _input._pos = pos;
+    }
+
+    private static void check_run_bounds(int arrayLength, int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Decodes a run of ints in {@code [min, max]} into whichever of the
+     * arrays isn't null.
+     */
+    protected final int read_int_run(long[] longs, int[] ints, int offset, int length, long min, long max)
+    {
+        check_run_bounds(longs != null ? longs.length : ints.length, offset, length);
+        final int limit = start_run();
+        final byte[] bytes = _input._bytes;
+        int pos = _input._pos;
+        int count = 0;
+        while (count < length && pos < limit) {
+            int td = bytes[pos] & 0xff;
+            int tid = _Private_IonConstants.getTypeCode(td);
+            int len = _Private_IonConstants.getLowNibble(td);
+            if (tid == _Private_IonConstants.tidNull && len < _Private_IonConstants.lnIsVarLen) {
+                // NOP padding
+                if (pos + 1 + len > limit) break;
+                pos += 1 + len;
+                continue;
+            }
+            // this excludes nulls and ints too long for a long
+            if ((tid != _Private_IonConstants.tidPosInt && tid != _Private_IonConstants.tidNegInt)
+                || len > 8 || pos + 1 + len > limit) {
+                break;
+            }
+            long magnitude = 0;
+            for (int ii = 1; ii <= len; ii++) {
+                magnitude = (magnitude << 8) | (bytes[pos + ii] & 0xff);
+            }
+            // the magnitude of Long.MIN_VALUE overflows to itself, any
+            // other overflow (or a negative zero) leaves the wrong sign
+            long value = (tid == _Private_IonConstants.tidPosInt) ? magnitude : -magnitude;
+            if ((tid == _Private_IonConstants.tidPosInt) ? value < 0 : value >= 0) break;
+            if (value < min || value > max) break;
+            if (longs != null) {
+                longs[offset + count] = value;
+            }
+            else {
+                ints[offset + count] = (int) value;
+            }
+            count++;
+            pos += 1 + len;
+        }
+        finish_run(pos);
+        return count;
+    }
+
+    protected final int read_double_run(double[] dst, int offset, int length)
+    {
+        check_run_bounds(dst.length, offset, length);
+        final int limit = start_run();
+        final byte[] bytes = _input._bytes;
+        int pos = _input._pos;
+        int count = 0;
+        while (count < length && pos < limit) {
+            int td = bytes[pos] & 0xff;
+            int tid = _Private_IonConstants.getTypeCode(td);
+            int len = _Private_IonConstants.getLowNibble(td);
+            if (tid == _Private_IonConstants.tidNull && len < _Private_IonConstants.lnIsVarLen) {
+                // NOP padding
+                if (pos + 1 + len > limit) break;
+                pos += 1 + len;
+                continue;
+            }
+            if (tid != _Private_IonConstants.tidFloat || (len != 0 && len != 4 && len != 8)
+                || pos + 1 + len > limit) {
+                break;
+            }
+            long bits = 0;
+            for (int ii = 1; ii <= len; ii++) {
+                bits = (bits << 8) | (bytes[pos + ii] & 0xff);
+            }
+            if (len == 4) {
+                dst[offset + count] = Float.intBitsToFloat((int) bits);
+            }
+            else {
+                dst[offset + count] = Double.longBitsToDouble(bits);
+            }
+            count++;
+            pos += 1 + len;
+        }
+        finish_run(pos);
+        return count;
+    }
+
     public int byteSize()
     {
         int len;
@@ -1181,77 +1339,141 @@ abstract class IonReaderBinaryRawX
         }
     }
 
-    protected final String readString(int len) throws IOException
+    protected final String readString() throws IOException
     {
+        int len = load_text_bytes();
         // len is bytes, which is greater than or equal to java
         // chars even after utf8 to utf16 decoding nonsense
-        // the char array is way faster than using string buffer
-        char[] chars = new char[len];
-        int    c, ii = 0;
-        int    save_limit = NO_LIMIT;
-        if (_local_remaining != NO_LIMIT) {
-            save_limit = _local_remaining - len;
+        char[] chars = text_chars(len);
+        int count = decode_text_chars(chars, 0);
+        if (_text_cache != null) {
+            return _text_cache.intern(chars, 0, count);
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Returns space for at least {@code len} decoded chars: the reusable
+     * {@link #_text_chars} if the text is short, otherwise a transient array.
+     */
+    protected final char[] text_chars(int len)
+    {
+        if (len > MAX_TEXT_SCRATCH_SIZE) {
+            return new char[len];
+        }
+        if (_text_chars == null || _text_chars.length < len) {
+            _text_chars = new char[Math.max(len, DEFAULT_TEXT_SIZE)];
+        }
+        return _text_chars;
+    }
+
+    /**
+     * Reads the UTF-8 bytes of the current string value into
+     * {@link #_text_bytes}, where they stay until the reader moves on.
+     * Text longer than {@link #MAX_TEXT_SCRATCH_SIZE} gets an array of its
+     * own, which is dropped when the reader moves on.
+     *
+     * @return the number of bytes.
+     */
+    protected final int load_text_bytes() throws IOException
+    {
+        if (_text_len < 0) {
+            int len = _value_len;
+            if (_text_bytes == null || _text_bytes.length < len) {
+                _text_bytes = new byte[Math.max(len, DEFAULT_TEXT_SIZE)];
+            }
+            int save_limit = NO_LIMIT;
+            if (_local_remaining != NO_LIMIT) {
+                save_limit = _local_remaining - len;
+            }
+            _local_remaining = len;
+            readAll(_text_bytes, 0, len);
+            _local_remaining = save_limit;
+            _text_len = len;
+            _state = State.S_AFTER_VALUE;
         }
-        _local_remaining = len;
-        while (!isEOF()) {
-            c = readUnicodeScalar();
-            if (c < 0) throwUnexpectedEOFException();
+        return _text_len;
+    }
+
+    /**
+     * Decodes the text loaded by {@link #load_text_bytes()}.
+     *
+     * @return the number of chars written.
+     */
+    protected final int decode_text_chars(char[] dst, int offset) throws IOException
+    {
+        byte[] bytes = _text_bytes;
+        int    end = _text_len;
+        int    pos = 0, ii = offset;
+        int    c, b, b2, b3, b4;
+        while (pos < end) {
+            b = bytes[pos++] & 0xff;
+            // ascii is all good
+            if (IonUTF8.isOneByteUTF8(b)) {
+                dst[ii++] = (char)b;
+                continue;
+            }
+            switch (IonUTF8.getUTF8LengthFromFirstByte(b)) {
+            case 2:
+                // for values from 0x80 to 0x7FF (all legal)
+                if (pos + 1 > end) throwUTF8Exception();
+                b2 = bytes[pos++] & 0xff;
+                if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
+                c = IonUTF8.twoByteScalar(b, b2);
+                break;
+            case 3:
+                // for values from 0x800 to 0xFFFFF (NOT all legal)
+                if (pos + 2 > end) throwUTF8Exception();
+                b2 = bytes[pos++] & 0xff;
+                if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
+                b3 = bytes[pos++] & 0xff;
+                if (!IonUTF8.isContinueByteUTF8(b3)) throwUTF8Exception();
+                c = IonUTF8.threeByteScalar(b, b2, b3);
+                break;
+            case 4:
+                // for values from 0x010000 to 0x1FFFFF (NOT all legal)
+                if (pos + 3 > end) throwUTF8Exception();
+                b2 = bytes[pos++] & 0xff;
+                if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
+                b3 = bytes[pos++] & 0xff;
+                if (!IonUTF8.isContinueByteUTF8(b3)) throwUTF8Exception();
+                b4 = bytes[pos++] & 0xff;
+                if (!IonUTF8.isContinueByteUTF8(b4)) throwUTF8Exception();
+                c = IonUTF8.fourByteScalar(b, b2, b3, b4);
+                if (c > 0x10FFFF) {
+                    throw new IonException("illegal utf value encountered in input utf-8 stream");
+                }
+                break;
+            default:
+                throwUTF8Exception();
+                return -1; // not reached
+            }
             if (c < 0x10000) {
-                chars[ii++] = (char)c;
+                dst[ii++] = (char)c;
             }
             else { // when c is >= 0x10000 we need surrogate encoding
-                chars[ii++] = (char)_Private_IonConstants.makeHighSurrogate(c);
-                chars[ii++] = (char)_Private_IonConstants.makeLowSurrogate(c);
+                dst[ii++] = (char)_Private_IonConstants.makeHighSurrogate(c);
+                dst[ii++] = (char)_Private_IonConstants.makeLowSurrogate(c);
             }
         }
-        _local_remaining = save_limit;
-        return new String(chars, 0, ii);
+        return ii - offset;
     }
-    private final int readUnicodeScalar() throws IOException
+
+    /**
+     * Compares the text loaded by {@link #load_text_bytes()} with other
+     * UTF-8 text. Valid UTF-8 has a single encoding of any text, so this is
+     * a byte comparison.
+     */
+    protected final boolean text_bytes_equal(byte[] utf8, int offset, int length)
     {
-        int c = -1, b;
-        b = read();
-        // ascii is all good, even -1 (eof)
-        if (IonUTF8.isOneByteUTF8(b)) {
-            return b;
+        if (length != _text_len) return false;
+        byte[] bytes = _text_bytes;
+        for (int ii = 0; ii < length; ii++) {
+            if (bytes[ii] != utf8[offset + ii]) return false;
         }
-        switch(IonUTF8.getUTF8LengthFromFirstByte(b)) {
-        case 2:
-            // now we start gluing the multi-byte value together
-            assert((b & 0xe0) == 0xc0);
-            // for values from 0x80 to 0x7FF (all legal)
-            int b2 = read();
-            if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
-            c = IonUTF8.twoByteScalar(b, b2);
-            break;
-        case 3:
-            assert((b & 0xf0) == 0xe0);
-            // for values from 0x800 to 0xFFFFF (NOT all legal)
-            b2 = read();
-            if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
-            int b3 = read();
-            if (!IonUTF8.isContinueByteUTF8(b3)) throwUTF8Exception();
-            c = IonUTF8.threeByteScalar(b, b2, b3);
-            break;
-        case 4:
-            assert((b & 0xf8) == 0xf0);
-            // for values from 0x010000 to 0x1FFFFF (NOT all legal)
-            b2 = read();
-            if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
-            b3 = read();
-            if (!IonUTF8.isContinueByteUTF8(b3)) throwUTF8Exception();
-            int b4 = read();
-            if (!IonUTF8.isContinueByteUTF8(b4)) throwUTF8Exception();
-            c = IonUTF8.fourByteScalar(b, b2, b3, b4);
-            if (c > 0x10FFFF) {
-                throw new IonException("illegal utf value encountered in input utf-8 stream");
-            }
-            break;
-        default:
-            throwUTF8Exception();
-        }
-        return c;
+        return true;
     }
+
     private final void throwUTF8Exception() throws IOException
     {
         throwErrorAt("Invalid UTF-8 character encounter in a string at position ");
@@ -22,8 +22,10 @@ import com.amazon.ion.Decimal;
 import com.amazon.ion.IntegerSize;
 import com.amazon.ion.IonType;
 import com.amazon.ion.NullValueException;
+import com.amazon.ion.PrimitiveArrayReader;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
+import com.amazon.ion.TextValueReader;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.UnknownSymbolException;
 import com.amazon.ion.impl._Private_ScalarConversions.AS_TYPE;
@@ -31,13 +33,15 @@ import com.amazon.ion.impl._Private_ScalarConversions.ValueVariant;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
 import java.util.Date;
 import java.util.Iterator;
 
 
 class IonReaderBinarySystemX
     extends IonReaderBinaryRawX
-    implements _Private_ReaderWriter
+    implements _Private_ReaderWriter, TextValueReader, PrimitiveArrayReader
 {
     SymbolTable _symbols;
 
@@ -265,7 +269,7 @@ class IonReaderBinarySystemX
             _v.setAuthoritativeType(AS_TYPE.int_value);
             break;
         case STRING:
-            String s = readString(_value_len);
+            String s = readString();
             _v.setValue(s);
             _v.setAuthoritativeType(AS_TYPE.string_value);
             break;
@@ -420,6 +424,134 @@ class IonReaderBinarySystemX
         return _v.getInt();
     }
 
+    //
+    // TextValueReader and PrimitiveArrayReader facets
+    //
+
+    @Override
+    public <T> T asFacet(Class<T> facetType)
+    {
+        if (facetType == TextValueReader.class
+            || facetType == PrimitiveArrayReader.class) {
+            return facetType.cast(this);
+        }
+        return super.asFacet(facetType);
+    }
+
+    public int readInts(int[] dst, int offset, int length)
+    {
+        return read_int_run(null, dst, offset, length, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public int readLongs(long[] dst, int offset, int length)
+    {
+        return read_int_run(dst, null, offset, length, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public int readDoubles(double[] dst, int offset, int length)
+    {
+        return read_double_run(dst, offset, length);
+    }
+
+    public int getSymbolValueId()
+    {
+        return getSymbolId();
+    }
+
+    public int getFieldNameId()
+    {
+        return _value_field_id;
+    }
+
+    /**
+     * Ensures the current value is non-null text, loading the bytes of a
+     * string.
+     *
+     * @return the text of a symbol, or null for a string.
+     */
+    private String prepare_text()
+    {
+        if (! IonType.isText(_value_type)) throw new IllegalStateException("Unexpected value type: " + _value_type);
+        if (_value_is_null) throw new NullValueException();
+
+        if (_value_type == SYMBOL) {
+            int sid = getSymbolId();
+            String name = _symbols.findKnownSymbol(sid);
+            if (name == null) {
+                throw new UnknownSymbolException(sid);
+            }
+            return name;
+        }
+        try {
+            load_text_bytes();
+        }
+        catch (IOException e) {
+            error(e);
+        }
+        return null;
+    }
+
+    public int getTextUtf8Length()
+    {
+        String name = prepare_text();
+        if (name != null) {
+            return IonUTF8.getUTF8Length(name);
+        }
+        return _text_len;
+    }
+
+    public int getTextChars(char[] dst, int offset)
+    {
+        String name = prepare_text();
+        if (name != null) {
+            name.getChars(0, name.length(), dst, offset);
+            return name.length();
+        }
+        try {
+            return decode_text_chars(dst, offset);
+        }
+        catch (ArrayIndexOutOfBoundsException e) {
+            throw new IndexOutOfBoundsException("Too little room for text in array");
+        }
+        catch (IOException e) {
+            error(e);
+            return -1;
+        }
+    }
+
+    public void getTextChars(CharBuffer dst)
+    {
+        String name = prepare_text();
+        if (name != null) {
+            dst.put(name);
+            return;
+        }
+        if (dst.hasArray()) {
+            int start = dst.arrayOffset() + dst.position();
+            if (dst.remaining() >= _text_len) {
+                int count = getTextChars(dst.array(), start);
+                dst.position(dst.position() + count);
+                return;
+            }
+        }
+        // decode into our own space first, so that overflow leaves dst alone
+        char[] chars = text_chars(_text_len);
+        int count = getTextChars(chars, 0);
+        if (dst.remaining() < count) {
+            throw new BufferOverflowException();
+        }
+        dst.put(chars, 0, count);
+    }
+
+    public boolean textEquals(byte[] utf8, int offset, int length)
+    {
+        String name = prepare_text();
+        if (name != null) {
+            return IonUTF8.equalsUTF8(name, utf8, offset, length);
+        }
+        return text_bytes_equal(utf8, offset, length);
+    }
+
     //
     // unsupported public methods that require a symbol table
     // to operate - which is only supported on a user reader
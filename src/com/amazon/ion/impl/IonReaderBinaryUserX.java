@@ -21,6 +21,7 @@ import static com.amazon.ion.SystemSymbols.ION_1_0_SID;
 import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
 
 import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
 import com.amazon.ion.IonType;
 import com.amazon.ion.OffsetSpan;
 import com.amazon.ion.RawValueSpanProvider;
@@ -31,6 +32,7 @@ import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.UnknownSymbolException;
 import com.amazon.ion.impl.UnifiedInputStreamX.FromByteArray;
+import com.amazon.ion.impl.UnifiedInputStreamX.FromMappedFile;
 import com.amazon.ion.impl.UnifiedSavePointManagerX.SavePoint;
 import com.amazon.ion.impl._Private_ScalarConversions.AS_TYPE;
 import java.io.IOException;
@@ -138,6 +140,45 @@ final class IonReaderBinaryUserX
         return pos;
     }
 
+    /**
+     * Creates a seekable span that starts at the same position and with the
+     * same symbol table as {@code start}, but extends to
+     * {@code finishOffset}.  A reader hoisted to it reads every top-level
+     * value in between.
+     *
+     * @param start must be a seekable span from a binary reader.
+     */
+    static Span extendSpan(Span start, long finishOffset)
+    {
+        if (! (start instanceof IonReaderBinarySpan) || !((IonReaderBinarySpan)start).isSeekable())
+        {
+            throw new IllegalArgumentException("Span isn't a seekable binary span.");
+        }
+        IonReaderBinarySpan from = (IonReaderBinarySpan) start;
+        IonReaderBinarySpan pos =
+            (IonReaderBinarySpan) newSpan(from._offset, finishOffset, from._symbol_table);
+        pos._state = from._state;
+        return pos;
+    }
+
+    /**
+     * Creates a seekable span over the top-level values between the given
+     * offsets, which must be value boundaries, to be read with the given
+     * symbol table.
+     */
+    static Span newSpan(long startOffset, long finishOffset, SymbolTable symbols)
+    {
+        if (finishOffset < startOffset)
+        {
+            throw new IllegalArgumentException("finishOffset precedes startOffset");
+        }
+        IonReaderBinarySpan pos = new IonReaderBinarySpan(true);
+        pos._offset = startOffset;
+        pos._limit = finishOffset;
+        pos._symbol_table = symbols;
+        return pos;
+    }
+
     public byte[] getCurrentBuffer()
     {
         return _input._bytes;
@@ -152,26 +193,40 @@ final class IonReaderBinaryUserX
         {
             throw new IllegalArgumentException("Position invalid for binary reader");
         }
-        if (!(_input instanceof FromByteArray))
+        if (_input instanceof FromMappedFile)
+        {
+            try
+            {
+                ((FromMappedFile)_input).seek(pos._offset + _physical_start_offset,
+                                              pos._limit  + _physical_start_offset);
+            }
+            catch (IOException e)
+            {
+                throw new IonException(e);
+            }
+        }
+        else if (!(_input instanceof FromByteArray))
         {
             throw new UnsupportedOperationException("Binary seek not implemented for non-byte array backed sources");
         }
-
-        // TODO test that span is within the bounds of the input byte[]
-
-        // manually reset the input specific type of input stream
-        FromByteArray input = (FromByteArray)_input;
-        input._pos   = (int) (pos._offset + _physical_start_offset);
-        input._limit = (int) (pos._limit  + _physical_start_offset);
-
-        // TODO: these (eof and save points) should be put into
-        //       a re-init method on the input stream
-        input._eof = false;
-        for (;;) {
-            SavePoint sp = input._save_points._active_stack;
-            if (sp == null) break;
-            input._save_points.savePointPopActive(sp);
-            sp.free();
+        else
+        {
+            // TODO test that span is within the bounds of the input byte[]
+
+            // manually reset the input specific type of input stream
+            FromByteArray input = (FromByteArray)_input;
+            input._pos   = (int) (pos._offset + _physical_start_offset);
+            input._limit = (int) (pos._limit  + _physical_start_offset);
+
+            // TODO: these (eof and save points) should be put into
+            //       a re-init method on the input stream
+            input._eof = false;
+            for (;;) {
+                SavePoint sp = input._save_points._active_stack;
+                if (sp == null) break;
+                input._save_points.savePointPopActive(sp);
+                sp.free();
+            }
         }
 
         // reset the raw reader
@@ -344,6 +399,10 @@ final class IonReaderBinaryUserX
         }
 
         // TODO amzn/ion-java/issues/17 support seeking over InputStream
+        if (_input instanceof FromMappedFile && facetType == SeekableReader.class)
+        {
+            return facetType.cast(new SeekableReaderFacet());
+        }
         if (_input instanceof FromByteArray)
         {
             if (facetType == SeekableReader.class)
@@ -354,6 +413,10 @@ final class IonReaderBinaryUserX
             {
                 return facetType.cast(new RawValueSpanProviderFacet());
             }
+            if (facetType == _Private_RawValueReader.class)
+            {
+                return facetType.cast(new RawValueReaderFacet());
+            }
         }
 
         if (facetType == _Private_ByteTransferReader.class)
@@ -401,6 +464,32 @@ final class IonReaderBinaryUserX
 
     }
 
+    private class RawValueReaderFacet implements _Private_RawValueReader
+    {
+        public byte[] getRawValueBuffer()
+        {
+            return _input._bytes;
+        }
+
+        public int getRawValueOffset()
+        {
+            if (getType() == null)
+            {
+                throw new IllegalStateException("IonReader isn't positioned on a value");
+            }
+            return (int) _position_start;
+        }
+
+        public int getRawValueLength()
+        {
+            if (getType() == null)
+            {
+                throw new IllegalStateException("IonReader isn't positioned on a value");
+            }
+            return (int) _position_len;
+        }
+    }
+
     private class SeekableReaderFacet
         extends SpanProviderFacet
         implements SeekableReader
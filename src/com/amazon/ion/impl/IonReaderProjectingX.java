@@ -0,0 +1,427 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.Decimal;
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.TextValueReader;
+import com.amazon.ion.Timestamp;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A reader that only surfaces the values on a set of projected paths,
+ * silently passing over everything else.
+ * <p>
+ * A path is a series of steps from a top-level value (or from the depth the
+ * underlying reader starts at), separated by dots: a field name steps into a
+ * struct field and {@code [*]} steps into every element of a list or sexp,
+ * so {@code a.b} and {@code c[*].d} select
+ * <code>{a:{b:<i>here</i>}, c:[{d:<i>here</i>}]}</code>.
+ * A value on a path is surfaced along with everything inside it, and the
+ * containers leading to it are surfaced so they can be stepped into.
+ * Top-level values are always surfaced.
+ * <p>
+ * Values that aren't selected are passed over by the underlying reader's
+ * {@link IonReader#next()} without ever being materialized: binary readers
+ * skip them by their length prefix, without reading their annotations, and
+ * text readers skip their tokens without decoding them.
+ */
+class IonReaderProjectingX
+    implements IonReader
+{
+    /**
+     * A node in the trie of projected paths, describing which children of a
+     * value are selected.
+     */
+    static final class PathNode
+    {
+        /** Every descendant is selected. */
+        static final PathNode ALL = new PathNode();
+
+        Map<String, PathNode> _fields;
+        PathNode              _elements;
+
+        PathNode field(String name)
+        {
+            if (this == ALL) return ALL;
+            return (_fields == null ? null : _fields.get(name));
+        }
+
+        PathNode elements()
+        {
+            if (this == ALL) return ALL;
+            return _elements;
+        }
+    }
+
+    /**
+     * Parses projection paths into a trie.
+     *
+     * @throws IllegalArgumentException if any path is malformed.
+     */
+    static PathNode parse_paths(Collection<String> paths)
+    {
+        PathNode root = new PathNode();
+        for (String path : paths) {
+            add_path(root, path);
+        }
+        return root;
+    }
+
+    private static void add_path(PathNode root, String path)
+    {
+        if (path.length() == 0) {
+            throw new IllegalArgumentException("Empty projection path");
+        }
+
+        // Each step is held as the parent node and the key that reaches the
+        // child from it; null keys are element steps.
+        PathNode parent = null;
+        String key = null;
+        PathNode node = root;
+        int pos = 0;
+        int len = path.length();
+        while (pos < len) {
+            if (node == PathNode.ALL) {
+                // a shorter path already selects everything below here
+                return;
+            }
+            char c = path.charAt(pos);
+            if (c == '[') {
+                if (!path.startsWith("[*]", pos)) {
+                    throw bad_path(path);
+                }
+                pos += 3;
+                if (node._elements == null) {
+                    node._elements = new PathNode();
+                }
+                parent = node;
+                key = null;
+                node = node._elements;
+            }
+            else {
+                if (c == '.') {
+                    if (pos == 0) throw bad_path(path);
+                    pos++;
+                }
+                else if (pos != 0) {
+                    throw bad_path(path);
+                }
+                int end = pos;
+                while (end < len && path.charAt(end) != '.'
+                       && path.charAt(end) != '[') {
+                    end++;
+                }
+                if (end == pos) throw bad_path(path);
+                String name = path.substring(pos, end);
+                pos = end;
+                if (node._fields == null) {
+                    node._fields = new HashMap<String, PathNode>();
+                }
+                PathNode child = node._fields.get(name);
+                if (child == null) {
+                    child = new PathNode();
+                    node._fields.put(name, child);
+                }
+                parent = node;
+                key = name;
+                node = child;
+            }
+        }
+
+        // The path ends here, so everything below it is selected.
+        if (key == null) {
+            parent._elements = PathNode.ALL;
+        }
+        else {
+            parent._fields.put(key, PathNode.ALL);
+        }
+    }
+
+    private static IllegalArgumentException bad_path(String path)
+    {
+        return new IllegalArgumentException("Malformed projection path: "
+                                            + path);
+    }
+
+
+    //=========================================================================
+
+    private final IonReader _reader;
+
+    /** The selection within each container stepped into; index 0 is the root. */
+    private PathNode[] _parents;
+    private int        _top;
+    /** The selection within the current value; null when there is none. */
+    private PathNode   _current;
+    /** Set by {@link #hasNext()}, which has to move onto the next value. */
+    private boolean    _has_next_type;
+    private IonType    _next_type;
+
+    IonReaderProjectingX(IonReader reader, PathNode root)
+    {
+        _reader = reader;
+        _parents = new PathNode[8];
+        _parents[0] = root;
+    }
+
+    public <T> T asFacet(Class<T> facetType)
+    {
+        // These only concern the current value, but hoisting would
+        // bypass the projection's view of the current depth.
+        if (facetType == SpanProvider.class
+            || facetType == TextValueReader.class) {
+            return _reader.asFacet(facetType);
+        }
+        return null;
+    }
+
+    @Deprecated
+    public boolean hasNext()
+    {
+        // Finding out means moving past any unselected values.
+        if (!_has_next_type) {
+            _next_type = next_selected();
+            _has_next_type = true;
+        }
+        return _next_type != null;
+    }
+
+    public IonType next()
+    {
+        if (_has_next_type) {
+            _has_next_type = false;
+            return _next_type;
+        }
+        return next_selected();
+    }
+
+    private IonType next_selected()
+    {
+        PathNode parent = _parents[_top];
+        for (;;) {
+            IonType t = _reader.next();
+            if (t == null) {
+                _current = null;
+                return null;
+            }
+            if (_top == 0) {
+                // top-level values are always surfaced
+                _current = parent;
+                return t;
+            }
+            PathNode child = (_reader.isInStruct()
+                              ? parent.field(_reader.getFieldName())
+                              : parent.elements());
+            if (child != null) {
+                _current = child;
+                return t;
+            }
+        }
+    }
+
+    public void stepIn()
+    {
+        PathNode current = _current;
+        if (current == null) {
+            throw new IllegalStateException("No current value to step into");
+        }
+        _reader.stepIn();
+        if (++_top == _parents.length) {
+            PathNode[] temp = new PathNode[_top * 2];
+            System.arraycopy(_parents, 0, temp, 0, _top);
+            _parents = temp;
+        }
+        _parents[_top] = current;
+        _current = null;
+        _has_next_type = false;
+    }
+
+    public void stepOut()
+    {
+        _reader.stepOut();
+        _parents[_top--] = null;
+        _current = null;
+        _has_next_type = false;
+    }
+
+    public int getDepth()
+    {
+        return _reader.getDepth();
+    }
+
+    public SymbolTable getSymbolTable()
+    {
+        return _reader.getSymbolTable();
+    }
+
+    public IonType getType()
+    {
+        return _reader.getType();
+    }
+
+    public IntegerSize getIntegerSize()
+    {
+        return _reader.getIntegerSize();
+    }
+
+    public String[] getTypeAnnotations()
+    {
+        return _reader.getTypeAnnotations();
+    }
+
+    public SymbolToken[] getTypeAnnotationSymbols()
+    {
+        return _reader.getTypeAnnotationSymbols();
+    }
+
+    public Iterator<String> iterateTypeAnnotations()
+    {
+        return _reader.iterateTypeAnnotations();
+    }
+
+    @Deprecated
+    public int getFieldId()
+    {
+        return _reader.getFieldId();
+    }
+
+    public String getFieldName()
+    {
+        return _reader.getFieldName();
+    }
+
+    public SymbolToken getFieldNameSymbol()
+    {
+        return _reader.getFieldNameSymbol();
+    }
+
+    public boolean isNullValue()
+    {
+        return _reader.isNullValue();
+    }
+
+    public boolean isInStruct()
+    {
+        return _reader.isInStruct();
+    }
+
+    public boolean booleanValue()
+    {
+        return _reader.booleanValue();
+    }
+
+    public int intValue()
+    {
+        return _reader.intValue();
+    }
+
+    public long longValue()
+    {
+        return _reader.longValue();
+    }
+
+    public BigInteger bigIntegerValue()
+    {
+        return _reader.bigIntegerValue();
+    }
+
+    public double doubleValue()
+    {
+        return _reader.doubleValue();
+    }
+
+    public BigDecimal bigDecimalValue()
+    {
+        return _reader.bigDecimalValue();
+    }
+
+    public Decimal decimalValue()
+    {
+        return _reader.decimalValue();
+    }
+
+    public Date dateValue()
+    {
+        return _reader.dateValue();
+    }
+
+    public Timestamp timestampValue()
+    {
+        return _reader.timestampValue();
+    }
+
+    public String stringValue()
+    {
+        return _reader.stringValue();
+    }
+
+    public SymbolToken symbolValue()
+    {
+        return _reader.symbolValue();
+    }
+
+    public int byteSize()
+    {
+        return _reader.byteSize();
+    }
+
+    public byte[] newBytes()
+    {
+        return _reader.newBytes();
+    }
+
+    public int getBytes(byte[] buffer, int offset, int len)
+    {
+        return _reader.getBytes(buffer, offset, len);
+    }
+
+    public void close()
+        throws IOException
+    {
+        _reader.close();
+    }
+
+
+    //=========================================================================
+
+    /**
+     * Projects a text reader, preserving its
+     * {@link com.amazon.ion.IonTextReader} type.
+     */
+    @SuppressWarnings("deprecation")
+    static final class Text
+        extends IonReaderProjectingX
+        implements com.amazon.ion.IonTextReader
+    {
+        Text(com.amazon.ion.IonTextReader reader, PathNode root)
+        {
+            super(reader, root);
+        }
+    }
+}
@@ -279,6 +279,8 @@ abstract class IonReaderTextRawX
     SavePoint           _current_value_save_point;
     boolean             _current_value_buffer_loaded;
     StringBuilder       _current_value_buffer;
+    /** Canonicalizes symbol text and short strings; null unless enabled. */
+    TextInterningCache  _text_cache;
 
     ValueVariant        _v = new ValueVariant();
 
@@ -733,6 +735,15 @@ abstract class IonReaderTextRawX
     }
 
 
+    /** Gets the text of a token, through the interning cache if enabled. */
+    protected final String token_text(CharSequence token)
+    {
+        if (_text_cache != null) {
+            return _text_cache.intern(token);
+        }
+        return token.toString();
+    }
+
     private final SymbolToken parseSymbolToken(String context,
                                                   StringBuilder sb,
                                                   int t)
@@ -758,13 +769,13 @@ abstract class IonReaderTextRawX
                     sid = IonTokenConstsX.decodeSid(sb);
                     break;
                 default:
-                    text = sb.toString();
+                    text = token_text(sb);
                     sid = UNKNOWN_SYMBOL_ID;
                     break;
             }
         }
         else {
-            text = sb.toString();
+            text = token_text(sb);
             sid = UNKNOWN_SYMBOL_ID;
         }
 
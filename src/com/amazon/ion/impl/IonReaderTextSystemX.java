@@ -250,7 +250,19 @@ class IonReaderTextSystemX
 
 
         int          len = cs.length();
-        String       s  = cs.toString();
+        String       s;
+        switch (token_type) {
+        case IonTokenConstsX.TOKEN_SYMBOL_IDENTIFIER:
+        case IonTokenConstsX.TOKEN_SYMBOL_QUOTED:
+        case IonTokenConstsX.TOKEN_SYMBOL_OPERATOR:
+        case IonTokenConstsX.TOKEN_STRING_DOUBLE_QUOTE:
+        case IonTokenConstsX.TOKEN_STRING_TRIPLE_QUOTE:
+            s = token_text(cs);
+            break;
+        default:
+            s = cs.toString();
+            break;
+        }
 
         clear_current_value_buffer();
 
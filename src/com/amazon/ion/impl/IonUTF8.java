@@ -403,6 +403,66 @@ class IonUTF8 {
         return scalar;
     }
 
+    /** Returns the next scalar in text starting at ii, combining surrogate pairs. */
+    private final static int getScalar(CharSequence text, int ii, int len) {
+        int c = text.charAt(ii);
+        if (isHighSurrogate(c) && ii + 1 < len && isLowSurrogate(text.charAt(ii + 1))) {
+            c = getUnicodeScalarFromSurrogates(c, text.charAt(ii + 1));
+        }
+        return c;
+    }
+
+    /**
+     * Gets the number of bytes in the UTF-8 encoding of the text, without
+     * encoding it.
+     */
+    public final static int getUTF8Length(CharSequence text) {
+        int len = text.length();
+        int utf8len = 0;
+        for (int ii = 0; ii < len; ) {
+            int c = getScalar(text, ii, len);
+            ii += (c > MAXIMUM_UTF16_1_CHAR_CODE_POINT ? 2 : 1);
+            utf8len += getUTF8ByteCount(c);
+        }
+        return utf8len;
+    }
+
+    /**
+     * Determines whether the text equals the given UTF-8 bytes, without
+     * encoding or decoding either.
+     */
+    public final static boolean equalsUTF8(CharSequence text, byte[] utf8, int offset, int length) {
+        int len = text.length();
+        int pos = offset;
+        int end = offset + length;
+        for (int ii = 0; ii < len; ) {
+            int c = getScalar(text, ii, len);
+            ii += (c > MAXIMUM_UTF16_1_CHAR_CODE_POINT ? 2 : 1);
+            if (isOneByteScalar(c)) {
+                if (pos >= end || utf8[pos++] != (byte)c) return false;
+            }
+            else if (isTwoByteScalar(c)) {
+                if (pos + 2 > end
+                    || utf8[pos++] != getByte1Of2(c)
+                    || utf8[pos++] != getByte2Of2(c)) return false;
+            }
+            else if (isThreeByteScalar(c)) {
+                if (pos + 3 > end
+                    || utf8[pos++] != getByte1Of3(c)
+                    || utf8[pos++] != getByte2Of3(c)
+                    || utf8[pos++] != getByte3Of3(c)) return false;
+            }
+            else {
+                if (pos + 4 > end
+                    || utf8[pos++] != getByte1Of4(c)
+                    || utf8[pos++] != getByte2Of4(c)
+                    || utf8[pos++] != getByte3Of4(c)
+                    || utf8[pos++] != getByte4Of4(c)) return false;
+            }
+        }
+        return pos == end;
+    }
+
     public static class InvalidUnicodeCodePoint extends IonException
     {
         private static final long serialVersionUID = -3200811216940328945L;
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * An {@link InputStream} over a file that reads through read-only memory
+ * mappings of the file rather than through read system calls.
+ * <p>
+ * A single mapping is limited to 2 GB, so the file is mapped as a chain of
+ * fixed-size segments, each mapped the first time it's read.  The stream
+ * can be repositioned anywhere in the file with {@link #seek(long, long)},
+ * which costs no I/O.
+ * <p>
+ * This is not zero-copy: {@link #read(byte[], int, int)} copies from the
+ * mapping into the caller's array, and the reader copies each page it
+ * parses this way.  That's deliberate, since the binary reader parses from
+ * {@code byte[]} pages; what the mapping saves is the read system calls and
+ * the kernel-to-user copy they'd make into an intermediate buffer.
+ * <p>
+ * Closing this stream does not close the channel; the mappings themselves
+ * stay valid until they're garbage collected.
+ */
+final class MappedFileInputStream
+    extends InputStream
+{
+    /** Segments are 1 GB, leaving plenty of headroom under the 2 GB limit. */
+    static final int DEFAULT_SEGMENT_SHIFT = 30;
+
+    private final int                 _segment_shift;
+    private final long                _segment_mask;
+    private final FileChannel         _channel;
+    private final long                _size;
+    private final MappedByteBuffer[]  _segments;
+
+    private long _position;
+    private long _limit;
+
+    MappedFileInputStream(FileChannel channel)
+        throws IOException
+    {
+        this(channel, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * @param segmentShift the base-2 logarithm of the segment size.
+     */
+    MappedFileInputStream(FileChannel channel, int segmentShift)
+        throws IOException
+    {
+        if (segmentShift < 0 || segmentShift > DEFAULT_SEGMENT_SHIFT) {
+            throw new IllegalArgumentException("invalid segment shift: " + segmentShift);
+        }
+        long segmentSize = 1L << segmentShift;
+        _segment_shift = segmentShift;
+        _segment_mask = segmentSize - 1;
+        _channel = channel;
+        _size = channel.size();
+        _segments = new MappedByteBuffer[(int) ((_size + segmentSize - 1) >>> segmentShift)];
+        _limit = _size;
+    }
+
+    /** @return the size of the underlying file when this stream was opened. */
+    long size()
+    {
+        return _size;
+    }
+
+    /** @return the file offset of the next byte to be read. */
+    long position()
+    {
+        return _position;
+    }
+
+    /**
+     * Repositions this stream so that it reads the bytes from
+     * {@code position} (inclusive) to {@code limit} (exclusive).
+     */
+    void seek(long position, long limit)
+    {
+        if (position < 0 || position > limit || limit > _size) {
+            throw new IllegalArgumentException("invalid file range: "
+                                               + position + " to " + limit);
+        }
+        _position = position;
+        _limit = limit;
+    }
+
+    private MappedByteBuffer segment(int index)
+        throws IOException
+    {
+        MappedByteBuffer segment = _segments[index];
+        if (segment == null) {
+            long start = ((long) index) << _segment_shift;
+            long length = Math.min(_segment_mask + 1, _size - start);
+            segment = _channel.map(MapMode.READ_ONLY, start, length);
+            _segments[index] = segment;
+        }
+        return segment;
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        if (_position >= _limit) {
+            return -1;
+        }
+        int offset = (int) (_position & _segment_mask);
+        int b = segment((int) (_position >>> _segment_shift)).get(offset) & 0xff;
+        _position++;
+        return b;
+    }
+
+    /**
+     * Reads from at most one segment; a read that reaches the end of a
+     * segment returns early and the next read continues from the next one.
+     */
+    @Override
+    public int read(byte[] dst, int offset, int length)
+        throws IOException
+    {
+        long remaining = _limit - _position;
+        if (remaining <= 0) {
+            return length == 0 ? 0 : -1;
+        }
+        int segmentOffset = (int) (_position & _segment_mask);
+        MappedByteBuffer segment = segment((int) (_position >>> _segment_shift));
+        int count = (int) Math.min(length,
+                                   Math.min(remaining, segment.capacity() - segmentOffset));
+        segment.position(segmentOffset);
+        segment.get(dst, offset, count);
+        _position += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long n)
+    {
+        if (n <= 0) {
+            return 0;
+        }
+        long skipped = Math.min(n, _limit - _position);
+        _position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available()
+    {
+        return (int) Math.min(Integer.MAX_VALUE, _limit - _position);
+    }
+}
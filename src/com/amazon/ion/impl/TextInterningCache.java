@@ -0,0 +1,138 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+/**
+ * A bounded cache mapping decoded text to canonical {@link String}s, so
+ * that a reader returns the same instance each time it sees the same field
+ * name, symbol or short string.
+ * <p>
+ * Lookups hash the characters in place, so a hit allocates nothing.  The
+ * cache is two-way set associative: each text hashes to a pair of slots,
+ * and a miss demotes the pair's newer entry to its second slot, evicting
+ * the older one.  This keeps it bounded with no bookkeeping,
+ * while two frequent texts that hash to the same pair can both stay.
+ * <p>
+ * Instances are owned by a single reader and are not thread-safe.
+ */
+final class TextInterningCache
+{
+    /** Longer text is rarely repeated, so it isn't worth comparing. */
+    static final int MAX_INTERNED_LENGTH = 64;
+
+    private final String[] _entries;
+    private final int      _mask;
+
+    /**
+     * @param size the maximum number of entries, which is rounded up to a
+     *  power of two.
+     */
+    TextInterningCache(int size)
+    {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        int capacity = Integer.highestOneBit(size);
+        if (capacity < size) {
+            capacity <<= 1;
+        }
+        capacity = Math.max(capacity, 2);
+        _entries = new String[capacity];
+        _mask = capacity - 1;
+    }
+
+    private static int spread(int hash)
+    {
+        // mix the high bits down, since the mask keeps only the low ones
+        return hash ^ (hash >>> 16);
+    }
+
+    String intern(CharSequence text)
+    {
+        int len = text.length();
+        if (len > MAX_INTERNED_LENGTH) {
+            return text.toString();
+        }
+        int hash = 0;
+        for (int ii = 0; ii < len; ii++) {
+            hash = 31 * hash + text.charAt(ii);
+        }
+        int slot = spread(hash) & _mask & ~1;
+        String entry = _entries[slot];
+        if (matches(entry, hash, text, len)) {
+            return entry;
+        }
+        String other = _entries[slot + 1];
+        if (matches(other, hash, text, len)) {
+            return other;
+        }
+        return insert(slot, text.toString());
+    }
+
+    String intern(char[] chars, int offset, int len)
+    {
+        if (len > MAX_INTERNED_LENGTH) {
+            return new String(chars, offset, len);
+        }
+        int end = offset + len;
+        int hash = 0;
+        for (int ii = offset; ii < end; ii++) {
+            hash = 31 * hash + chars[ii];
+        }
+        int slot = spread(hash) & _mask & ~1;
+        String entry = _entries[slot];
+        if (matches(entry, hash, chars, offset, len)) {
+            return entry;
+        }
+        String other = _entries[slot + 1];
+        if (matches(other, hash, chars, offset, len)) {
+            return other;
+        }
+        return insert(slot, new String(chars, offset, len));
+    }
+
+    /** The first slot of each pair holds the newer entry. */
+    private String insert(int slot, String entry)
+    {
+        _entries[slot + 1] = _entries[slot];
+        _entries[slot] = entry;
+        return entry;
+    }
+
+    private static boolean matches(String entry, int hash,
+                                   CharSequence text, int len)
+    {
+        if (entry == null || entry.length() != len || entry.hashCode() != hash) {
+            return false;
+        }
+        for (int ii = 0; ii < len; ii++) {
+            if (entry.charAt(ii) != text.charAt(ii)) return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(String entry, int hash,
+                                   char[] chars, int offset, int len)
+    {
+        if (entry == null || entry.length() != len || entry.hashCode() != hash) {
+            return false;
+        }
+        for (int ii = 0; ii < len; ii++) {
+            if (entry.charAt(ii) != chars[offset + ii]) return false;
+        }
+        return true;
+    }
+}
@@ -117,6 +117,7 @@ abstract class UnifiedInputStreamX
     public static UnifiedInputStreamX makeStream(InputStream stream) throws IOException {
         return new FromByteStream(stream);
     }
+
     public final InputStream getInputStream() { return _stream; }
     public final Reader      getReader()      { return _reader; }
     public final byte[]      getByteArray()   { return _bytes; }
@@ -614,4 +615,60 @@ static class FromByteArray extends UnifiedInputStreamX
             _stream.close();
         }
     }
+
+    /**
+     * Reads a file through memory mappings.  Unlike other stream sources
+     * this one can be repositioned, since the whole file is addressable.
+     * Pages are still filled by copying from the mapping, because the
+     * reader parses from {@code byte[]} pages.
+     */
+    static final class FromMappedFile extends UnifiedInputStreamX
+    {
+        private final MappedFileInputStream _mapped;
+
+        FromMappedFile(MappedFileInputStream mapped) throws IOException
+        {
+            _is_byte_data = true;
+            _is_stream = true;
+            _stream = mapped;
+            _mapped = mapped;
+            _buffer = UnifiedInputBufferX.makePageBuffer(UnifiedInputBufferX.BufferType.BYTES, DEFAULT_PAGE_SIZE);
+            super.init();
+            _limit = refill();
+        }
+
+        /**
+         * Discards all buffered data and save points and restarts reading
+         * at file offset {@code position}, stopping at {@code limit}.
+         * The current page is reused, so no buffers are allocated, but the
+         * page is refilled by copying from the mapping at the new position.
+         */
+        void seek(long position, long limit) throws IOException
+        {
+            for (;;) {
+                SavePoint sp = _save_points._active_stack;
+                if (sp == null) break;
+                _save_points.savePointPopActive(sp);
+                sp.free();
+            }
+            _mapped.seek(position, limit);
+            _buffer.clear();
+            _eof = false;
+
+            UnifiedDataPageX curr = _buffer.getCurrentPage();
+            if (curr == null) {
+                curr = _buffer.getEmptyPageIdx();
+            }
+            int read = load(curr, 0, position);
+            if (read < 1) {
+                curr.reset(0);
+                curr.setFilePosition(position, 0);
+                make_page_current(curr, 0, 0, 0);
+                _eof = true;
+                _limit = -1;
+                return;
+            }
+            make_page_current(curr, 0, 0, curr.getBufferLimit());
+        }
+    }
 }
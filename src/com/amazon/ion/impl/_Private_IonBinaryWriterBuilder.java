@@ -30,8 +30,11 @@ import com.amazon.ion.impl.bin._Private_IonManagedBinaryWriterBuilder;
 import com.amazon.ion.impl.bin._Private_IonManagedBinaryWriterBuilder.AllocatorMode;
 import com.amazon.ion.system.IonBinaryWriterBuilder;
 import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.IonValueIndex;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * NOT FOR APPLICATION USE!
@@ -243,6 +246,38 @@ public class _Private_IonBinaryWriterBuilder
         myBinaryWriterBuilder.withStreamCopyOptimization(optimized);
     }
 
+    @Override
+    public void setDirectBuffersEnabled(final boolean enabled)
+    {
+        boolean changed = enabled != isDirectBuffersEnabled();
+        super.setDirectBuffersEnabled(enabled);
+        if (changed)
+        {
+            myBinaryWriterBuilder.withAllocatorMode(enabled ? AllocatorMode.DIRECT : AllocatorMode.POOLED);
+        }
+    }
+
+    @Override
+    public void setLocalSymbolTableAppendEnabled(final boolean enabled)
+    {
+        super.setLocalSymbolTableAppendEnabled(enabled);
+        if (enabled)
+        {
+            myBinaryWriterBuilder.withLocalSymbolTableAppendEnabled();
+        }
+        else
+        {
+            myBinaryWriterBuilder.withLocalSymbolTableAppendDisabled();
+        }
+    }
+
+    @Override
+    public void setSpillThreshold(final int threshold)
+    {
+        super.setSpillThreshold(threshold);
+        myBinaryWriterBuilder.withSpillThreshold(threshold);
+    }
+
     //=========================================================================
 
 
@@ -342,6 +377,55 @@ public class _Private_IonBinaryWriterBuilder
     }
 
 
+    @Override
+    public final IonWriter build(WritableByteChannel channel)
+    {
+        _Private_IonBinaryWriterBuilder b = fillDefaults();
+        try
+        {
+            return b.myBinaryWriterBuilder.newWriter(channel);
+        }
+        catch (final IOException e)
+        {
+            throw new IonException("I/O Error", e);
+        }
+    }
+
+
+    @Override
+    public final IonWriter build(ByteBuffer buffer)
+    {
+        _Private_IonBinaryWriterBuilder b = fillDefaults();
+        try
+        {
+            return b.myBinaryWriterBuilder.newWriter(buffer);
+        }
+        catch (final IOException e)
+        {
+            throw new IonException("I/O Error", e);
+        }
+    }
+
+
+    @Override
+    public final IonWriter build(OutputStream out,
+                                 IonValueIndex.Recorder recorder)
+    {
+        recorder.getClass(); // Force NPE
+        _Private_IonBinaryWriterBuilder b = fillDefaults();
+        try
+        {
+            return b.myBinaryWriterBuilder.newWriter(
+                out,
+                com.amazon.ion.system._Private_IonValueIndexUtils.offsetListener(recorder));
+        }
+        catch (final IOException e)
+        {
+            throw new IonException("I/O Error", e);
+        }
+    }
+
+
     @Deprecated
     public final IonBinaryWriter buildLegacy()
     {
@@ -25,11 +25,16 @@ import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonTextReader;
 import com.amazon.ion.IonValue;
+import com.amazon.ion.Span;
+import com.amazon.ion.SymbolTable;
 import com.amazon.ion.util.IonStreamUtils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -196,6 +201,31 @@ public final class _Private_IonReaderFactory
         }
     }
 
+    public static final IonReader makeIncrementalReader(IonCatalog catalog,
+                                                        InputStream is)
+    {
+        return makeIncrementalReader(catalog, is, LocalSymbolTable.DEFAULT_LST_FACTORY);
+    }
+
+    /**
+     * Creates a reader over a stream whose data may arrive incrementally.
+     * The stream is read by an {@link IonReaderBinaryIncrementalX}, which
+     * hands text data to a text reader once it can tell binary from text.
+     */
+    public static final IonReader makeIncrementalReader(IonCatalog catalog,
+                                                        InputStream is,
+                                                        _Private_LocalSymbolTableFactory lstFactory)
+    {
+        try {
+            is.getClass(); // Force NPE
+            is = IonStreamUtils.unGzip(is);
+            return new IonReaderBinaryIncrementalX(catalog, lstFactory, is);
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
     public static IonReader makeSystemReader(InputStream is)
     {
         try {
@@ -238,6 +268,156 @@ public final class _Private_IonReaderFactory
         }
     }
 
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             ByteBuffer buffer)
+    {
+        return makeReader(catalog, buffer, LocalSymbolTable.DEFAULT_LST_FACTORY);
+    }
+
+    /**
+     * Creates a reader over the remaining bytes of the given buffer without
+     * copying them into an intermediate array. Buffers backed by an
+     * accessible array are read in place; direct and read-only buffers are
+     * streamed page by page straight out of the buffer.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             ByteBuffer buffer,
+                                             _Private_LocalSymbolTableFactory lstFactory)
+    {
+        if (buffer.hasArray()) {
+            return makeReader(catalog,
+                              buffer.array(),
+                              buffer.arrayOffset() + buffer.position(),
+                              buffer.remaining(),
+                              lstFactory);
+        }
+        try {
+            InputStream in = new ByteBufferInputStream(buffer);
+            byte[] header = new byte[Math.min(buffer.remaining(), BINARY_VERSION_MARKER_SIZE)];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = buffer.get(buffer.position() + i);
+            }
+            if (IonStreamUtils.isGzip(header, 0, header.length)) {
+                in = new GZIPInputStream(in);
+            }
+            UnifiedInputStreamX uis = UnifiedInputStreamX.makeStream(in);
+            return makeReader(catalog, uis, 0, lstFactory);
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             FileChannel channel)
+    {
+        return makeReader(catalog, channel, LocalSymbolTable.DEFAULT_LST_FACTORY);
+    }
+
+    /**
+     * Creates a reader over the entire file behind the given channel, reading
+     * through read-only memory mappings. Binary readers over uncompressed
+     * files support the {@link com.amazon.ion.SeekableReader} facet.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             FileChannel channel,
+                                             _Private_LocalSymbolTableFactory lstFactory)
+    {
+        try {
+            MappedFileInputStream mapped = new MappedFileInputStream(channel);
+            byte[] header = new byte[BINARY_VERSION_MARKER_SIZE];
+            int len = 0;
+            while (len < header.length) {
+                int b = mapped.read();
+                if (b < 0) break;
+                header[len++] = (byte) b;
+            }
+            mapped.seek(0, mapped.size());
+
+            UnifiedInputStreamX uis;
+            if (IonStreamUtils.isGzip(header, 0, len)) {
+                uis = UnifiedInputStreamX.makeStream(new GZIPInputStream(mapped));
+            }
+            else {
+                uis = new UnifiedInputStreamX.FromMappedFile(mapped);
+            }
+            return makeReader(catalog, uis, 0, lstFactory);
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
+    /**
+     * Extends a seekable span from a binary reader so that hoisting to it
+     * reads all top-level values up to {@code finishOffset}, starting with
+     * the symbol table that was active at the start of the span.
+     */
+    public static Span makeExtendedSpan(Span start, long finishOffset)
+    {
+        return IonReaderBinaryUserX.extendSpan(start, finishOffset);
+    }
+
+    /**
+     * Creates a span that a binary reader can be hoisted to, covering the
+     * top-level values between the given offsets and reading them with the
+     * given symbol table.
+     */
+    public static Span makeSpan(long startOffset, long finishOffset,
+                                SymbolTable symbols)
+    {
+        return IonReaderBinaryUserX.newSpan(startOffset, finishOffset, symbols);
+    }
+
+    /**
+     * Gives a reader a cache of the given size for canonicalizing the text
+     * it decodes. Readers that don't decode text are returned unchanged.
+     */
+    public static <T extends IonReader> T makeInterningReader(T reader,
+                                                              int cacheSize)
+    {
+        TextInterningCache cache = new TextInterningCache(cacheSize);
+        if (reader instanceof IonReaderTextRawX) {
+            ((IonReaderTextRawX) reader)._text_cache = cache;
+        }
+        else if (reader instanceof IonReaderBinaryRawX) {
+            ((IonReaderBinaryRawX) reader)._text_cache = cache;
+        }
+        else if (reader instanceof IonReaderBinaryIncrementalX) {
+            ((IonReaderBinaryIncrementalX) reader)._text_cache = cache;
+        }
+        return reader;
+    }
+
+    /**
+     * Checks the syntax of projection paths.
+     *
+     * @throws IllegalArgumentException if any path is malformed.
+     */
+    public static void checkProjectionPaths(Collection<String> paths)
+    {
+        IonReaderProjectingX.parse_paths(paths);
+    }
+
+    /**
+     * Wraps a reader so that it only surfaces values on the given paths.
+     *
+     * @throws IllegalArgumentException if any path is malformed.
+     */
+    public static IonReader makeProjectingReader(IonReader reader,
+                                                 Collection<String> paths)
+    {
+        return new IonReaderProjectingX(reader,
+                                        IonReaderProjectingX.parse_paths(paths));
+    }
+
+    public static IonTextReader makeProjectingReader(IonTextReader reader,
+                                                     Collection<String> paths)
+    {
+        return new IonReaderProjectingX.Text(reader,
+                                             IonReaderProjectingX.parse_paths(paths));
+    }
+
     public static final IonReader makeReader(IonCatalog catalog,
                                              IonValue value)
     {
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonReader;
+
+/**
+ * An {@link IonReader} {@linkplain com.amazon.ion.facet facet} that exposes
+ * the Ion binary encoding of the current value, so that a writer whose
+ * symbol table differs from the reader's can copy it by re-mapping only its
+ * symbol IDs.
+ */
+public interface _Private_RawValueReader
+{
+    /**
+     * @return the buffer holding the current value.  It is not a copy, so
+     * it must not be modified.
+     */
+    public byte[] getRawValueBuffer();
+
+    /**
+     * @return the offset in {@link #getRawValueBuffer()} of the current
+     * value's annotation wrapper if it has one, or of its type descriptor
+     * otherwise.  A field name is not included.
+     */
+    public int getRawValueOffset();
+
+    /**
+     * @return the length of the current value's encoding, starting at
+     * {@link #getRawValueOffset()}.
+     */
+    public int getRawValueLength();
+}
@@ -495,6 +495,16 @@ public final class _Private_Utils
     }
 
 
+    /**
+     * Gets the number of bytes in the UTF-8 encoding of the text, without
+     * encoding it.
+     */
+    public static int utf8Length(CharSequence text)
+    {
+        return IonUTF8.getUTF8Length(text);
+    }
+
+
     /**
      * This differs from {@link #utf8(String)} by using our custem encoder.
      * Not sure which is better.
@@ -15,22 +15,39 @@
 
 package com.amazon.ion.impl.bin;
 
+import static com.amazon.ion.impl._Private_IonConstants.lnIsNull;
+import static com.amazon.ion.impl._Private_IonConstants.lnIsOrderedStruct;
+import static com.amazon.ion.impl._Private_IonConstants.lnIsVarLen;
+import static com.amazon.ion.impl._Private_IonConstants.tidBoolean;
+import static com.amazon.ion.impl._Private_IonConstants.tidList;
+import static com.amazon.ion.impl._Private_IonConstants.tidNull;
+import static com.amazon.ion.impl._Private_IonConstants.tidSexp;
+import static com.amazon.ion.impl._Private_IonConstants.tidStruct;
+import static com.amazon.ion.impl._Private_IonConstants.tidSymbol;
+import static com.amazon.ion.impl._Private_IonConstants.tidTypedecl;
+import static com.amazon.ion.impl._Private_IonConstants.tidUnused;
+
 import com.amazon.ion.Decimal;
 import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.impl._Private_ByteTransferReader;
 import com.amazon.ion.impl._Private_ByteTransferSink;
 import com.amazon.ion.impl._Private_IonWriter;
+import com.amazon.ion.impl._Private_RawValueReader;
 import com.amazon.ion.impl._Private_SymtabExtendsCache;
 import com.amazon.ion.impl._Private_Utils;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /** Common adapter for binary {@link IonWriter} implementations. */
 /*package*/ abstract class AbstractIonWriter implements _Private_IonWriter, _Private_ByteTransferSink
@@ -80,11 +97,153 @@ import java.util.Date;
                 transferReader.transferCurrentValue(this);
                 return;
             }
+
+            final _Private_RawValueReader rawValueReader =
+                reader.asFacet(_Private_RawValueReader.class);
+
+            if (rawValueReader != null)
+            {
+                // the symbol IDs don't line up, but everything else can still be piped over
+                writeValueRemapped(reader, rawValueReader);
+                return;
+            }
         }
 
         writeValueRecursive(reader);
     }
 
+    /**
+     * Copies the current value of a binary reader by re-mapping the symbol IDs of its annotations, field names and
+     * symbol values into this writer's symbol table, and splicing the encoding of everything else unchanged.
+     */
+    private void writeValueRemapped(final IonReader reader, final _Private_RawValueReader rawValueReader)
+        throws IOException
+    {
+        final SymbolToken fieldName = reader.getFieldNameSymbol();
+        if (fieldName != null && !isFieldNameSet() && isInStruct())
+        {
+            setFieldNameSymbol(fieldName);
+        }
+        final byte[] bytes = rawValueReader.getRawValueBuffer();
+        final int offset = rawValueReader.getRawValueOffset();
+        final int end = writeRemapped(bytes, offset, reader.getSymbolTable());
+        if (end != offset + rawValueReader.getRawValueLength())
+        {
+            throw new IonException("Value length mismatch at offset " + offset);
+        }
+    }
+
+    /**
+     * Writes the binary value at {@code position}, resolving its symbol IDs in {@code symbols}.
+     *
+     * @return the position after the value.
+     */
+    private int writeRemapped(final byte[] bytes, int position, final SymbolTable symbols) throws IOException
+    {
+        final int start = position;
+        final int typeDescriptor = bytes[position++] & 0xFF;
+        final int type = typeDescriptor >> 4;
+        int length = typeDescriptor & 0xF;
+        if (length == lnIsNull || type == tidBoolean)
+        {
+            writeBytes(bytes, start, 1);
+            return position;
+        }
+        if (length == lnIsVarLen || (type == tidStruct && length == lnIsOrderedStruct))
+        {
+            length = readVarUInt(bytes, position);
+            position += varUIntLength(bytes, position);
+        }
+        final int end = position + length;
+        switch (type)
+        {
+            case tidNull:
+                // NOP padding
+                break;
+            case tidSymbol:
+                int sid = 0;
+                while (position < end)
+                {
+                    sid = (sid << 8) | (bytes[position++] & 0xFF);
+                }
+                writeSymbolToken(resolveSymbol(symbols, sid));
+                break;
+            case tidList:
+            case tidSexp:
+            case tidStruct:
+                final boolean isStruct = type == tidStruct;
+                stepIn(isStruct ? IonType.STRUCT : type == tidList ? IonType.LIST : IonType.SEXP);
+                while (position < end)
+                {
+                    if (isStruct)
+                    {
+                        final int fieldSid = readVarUInt(bytes, position);
+                        position += varUIntLength(bytes, position);
+                        if (bytes[position] >= 0 && bytes[position] < lnIsNull)
+                        {
+                            // the field name of NOP padding isn't written
+                            position = writeRemapped(bytes, position, symbols);
+                            continue;
+                        }
+                        setFieldNameSymbol(resolveSymbol(symbols, fieldSid));
+                    }
+                    position = writeRemapped(bytes, position, symbols);
+                }
+                stepOut();
+                break;
+            case tidTypedecl:
+                final int annotationsLength = readVarUInt(bytes, position);
+                position += varUIntLength(bytes, position);
+                final int annotationsEnd = position + annotationsLength;
+                final List<SymbolToken> annotations = new ArrayList<SymbolToken>(2);
+                while (position < annotationsEnd)
+                {
+                    annotations.add(resolveSymbol(symbols, readVarUInt(bytes, position)));
+                    position += varUIntLength(bytes, position);
+                }
+                setTypeAnnotationSymbols(annotations.toArray(new SymbolToken[annotations.size()]));
+                if (writeRemapped(bytes, position, symbols) != end)
+                {
+                    throw new IonException("Wrapper length mismatch at offset " + start);
+                }
+                break;
+            case tidUnused:
+                throw new IonException("Invalid type descriptor at offset " + start);
+            default:
+                writeBytes(bytes, start, end - start);
+                break;
+        }
+        return end;
+    }
+
+    private static SymbolToken resolveSymbol(final SymbolTable symbols, final int sid)
+    {
+        return _Private_Utils.newSymbolToken(symbols.findKnownSymbol(sid), sid);
+    }
+
+    private static int readVarUInt(final byte[] bytes, int position)
+    {
+        int value = 0;
+        int b;
+        do
+        {
+            b = bytes[position++];
+            value = (value << 7) | (b & 0x7F);
+        }
+        while (b >= 0);
+        return value;
+    }
+
+    private static int varUIntLength(final byte[] bytes, final int position)
+    {
+        int length = 1;
+        while (bytes[position + length - 1] >= 0)
+        {
+            length++;
+        }
+        return length;
+    }
+
     public final void writeValueRecursive(final IonReader reader) throws IOException
     {
         final IonType type = reader.getType();
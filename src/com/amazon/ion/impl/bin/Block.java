@@ -16,6 +16,7 @@
 package com.amazon.ion.impl.bin;
 
 import java.io.Closeable;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -26,15 +27,29 @@ import java.io.Closeable;
  */
 /*package*/ abstract class Block implements Closeable
 {
-    /** The data backing this block. */
+    /** The data backing this block, or {@code null} if the block is off-heap. */
     public final byte[] data;
+    /** The direct buffer backing this block, or {@code null} if the block is on-heap. */
+    public final ByteBuffer direct;
     /** The first index for which data has not been written to or read from. */
     public int limit;
+    private final int capacity;
 
     /*package*/ Block(final byte[] data)
     {
         this.data = data;
+        this.direct = null;
         this.limit = 0;
+        this.capacity = data.length;
+    }
+
+    /** Constructs an off-heap block, whose position and limit are never changed. */
+    /*package*/ Block(final ByteBuffer direct)
+    {
+        this.data = null;
+        this.direct = direct;
+        this.limit = 0;
+        this.capacity = direct.capacity();
     }
 
     /** Resets the limit to zero. */
@@ -46,13 +61,13 @@ import java.io.Closeable;
     /** Returns the unused amount of bytes from the limit to the capacity of the data array. */
     public final int remaining()
     {
-        return data.length - limit;
+        return capacity - limit;
     }
 
     /** Returns the underlying data array's capacity. */
     public final int capacity()
     {
-        return data.length;
+        return capacity;
     }
 
     /**
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A pooling implementation of {@link BlockAllocatorProvider} that bounds the memory it retains.
+ * <p>
+ * Unlike {@link PooledBlockAllocatorProvider}, free blocks are kept in a set of stripes selected by thread, so
+ * that threads allocating and releasing blocks concurrently rarely touch the same free list or counter.  A
+ * thread that finds its own stripe empty takes a block from another stripe before allocating a new one.
+ * <p>
+ * The bound is divided evenly between the stripes, each of which accounts for the bytes in its free lists
+ * across all block sizes.  A block released while its own stripe's share is full goes to another stripe with
+ * room, so a single thread can use the shares other threads leave idle, and is only evicted and left to the
+ * garbage collector once every stripe is full.  The bytes held never exceed the configured maximum, so a burst
+ * of allocation only leaves behind as much memory as the bound allows.
+ * <p>
+ * This implementation is thread-safe.
+ */
+/*package*/ final class BoundedPooledBlockAllocatorProvider extends BlockAllocatorProvider
+{
+    /** The maximum number of stripes, which is enough to keep contention low on large machines. */
+    private static final int MAX_STRIPES = 64;
+
+    /**
+     * The bytes retained by the stripes at one index, across all block sizes.  Its monitor guards those
+     * stripes.
+     */
+    private static final class StripeBudget
+    {
+        /** Written holding the monitor, but read without it by threads looking for room. */
+        private volatile long retainedBytes;
+    }
+
+    /** A free list and its counters, guarded by the monitor of its budget. */
+    private static final class Stripe
+    {
+        private final StripeBudget budget;
+        private final ArrayDeque<Block> freeBlocks = new ArrayDeque<Block>();
+        /** The size of the free list, which other threads read without locking before stealing from it. */
+        private volatile int freeCount;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private Stripe(final StripeBudget budget)
+        {
+            this.budget = budget;
+        }
+
+        /** Must be called holding the budget's monitor. */
+        private Block poll(final int blockSize)
+        {
+            final Block block = freeBlocks.pollLast();
+            if (block != null)
+            {
+                freeCount = freeBlocks.size();
+                budget.retainedBytes -= blockSize;
+            }
+            return block;
+        }
+    }
+
+    /**
+     * A {@link BlockAllocator} for a particular size with a striped set of free lists.
+     * <p>
+     * This implementation is thread-safe.
+     */
+    private final class BoundedPooledBlockAllocator extends BlockAllocator
+    {
+        private final int blockSize;
+        private final Stripe[] stripes;
+
+        public BoundedPooledBlockAllocator(final int blockSize)
+        {
+            this.blockSize = blockSize;
+            this.stripes = new Stripe[budgets.length];
+            for (int i = 0; i < stripes.length; i++)
+            {
+                stripes[i] = new Stripe(budgets[i]);
+            }
+        }
+
+        private Stripe stripe()
+        {
+            return stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        }
+
+        @Override
+        public Block allocateBlock()
+        {
+            final Stripe stripe = stripe();
+            Block block;
+            synchronized (stripe.budget)
+            {
+                block = stripe.poll(blockSize);
+                if (block != null)
+                {
+                    stripe.hits++;
+                }
+            }
+            if (block == null)
+            {
+                block = steal(stripe);
+            }
+            if (block == null)
+            {
+                synchronized (stripe.budget)
+                {
+                    stripe.misses++;
+                }
+                return newBlock();
+            }
+            return block;
+        }
+
+        /** Takes a free block of this size from another stripe, or returns null if there are none. */
+        private Block steal(final Stripe stripe)
+        {
+            for (final Stripe other : stripes)
+            {
+                if (other == stripe || other.freeCount == 0)
+                {
+                    continue;
+                }
+                Block block;
+                synchronized (other.budget)
+                {
+                    block = other.poll(blockSize);
+                }
+                if (block != null)
+                {
+                    synchronized (stripe.budget)
+                    {
+                        stripe.hits++;
+                    }
+                    return block;
+                }
+            }
+            return null;
+        }
+
+        private Block newBlock()
+        {
+            return new Block(new byte[blockSize])
+            {
+                @Override
+                public void close()
+                {
+                    reset();
+                    release(this);
+                }
+            };
+        }
+
+        private void release(final Block block)
+        {
+            final Stripe stripe = stripe();
+            if (offer(stripe, block))
+            {
+                return;
+            }
+            // borrow the unused share of another stripe
+            for (final Stripe other : stripes)
+            {
+                if (other != stripe
+                    && other.budget.retainedBytes + blockSize <= maxStripeBytes
+                    && offer(other, block))
+                {
+                    return;
+                }
+            }
+            synchronized (stripe.budget)
+            {
+                stripe.evictions++;
+            }
+        }
+
+        /** Adds a block to a stripe's free list if its budget has room, returning whether it did. */
+        private boolean offer(final Stripe stripe, final Block block)
+        {
+            synchronized (stripe.budget)
+            {
+                if (stripe.budget.retainedBytes + blockSize > maxStripeBytes)
+                {
+                    return false;
+                }
+                stripe.budget.retainedBytes += blockSize;
+                stripe.freeBlocks.addLast(block);
+                stripe.freeCount = stripe.freeBlocks.size();
+                return true;
+            }
+        }
+
+        @Override
+        public int getBlockSize()
+        {
+            return blockSize;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private final ConcurrentMap<Integer, BoundedPooledBlockAllocator> allocators;
+    private final long maxRetainedBytes;
+    private final long maxStripeBytes;
+    private final StripeBudget[] budgets;
+
+    /**
+     * @param maxRetainedBytes the maximum number of bytes to keep in free blocks, across all block sizes.
+     */
+    public BoundedPooledBlockAllocatorProvider(final long maxRetainedBytes)
+    {
+        this(maxRetainedBytes, defaultStripeCount());
+    }
+
+    /**
+     * @param stripeCount the number of stripes, which must be a power of two.
+     */
+    /*package*/ BoundedPooledBlockAllocatorProvider(final long maxRetainedBytes, final int stripeCount)
+    {
+        if (maxRetainedBytes < 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum retained bytes: " + maxRetainedBytes);
+        }
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1)
+        {
+            throw new IllegalArgumentException("Invalid stripe count: " + stripeCount);
+        }
+        this.allocators = new ConcurrentHashMap<Integer, BoundedPooledBlockAllocator>();
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.maxStripeBytes = maxRetainedBytes / stripeCount;
+        this.budgets = new StripeBudget[stripeCount];
+        for (int i = 0; i < stripeCount; i++)
+        {
+            budgets[i] = new StripeBudget();
+        }
+    }
+
+    private static int defaultStripeCount()
+    {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        return Math.min(Integer.highestOneBit(Math.max(processors * 2 - 1, 1)), MAX_STRIPES);
+    }
+
+    @Override
+    public BlockAllocator vendAllocator(final int blockSize)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+
+        BoundedPooledBlockAllocator allocator = allocators.get(blockSize);
+        if (allocator == null)
+        {
+            allocator = new BoundedPooledBlockAllocator(blockSize);
+            final BoundedPooledBlockAllocator existingAllocator = allocators.putIfAbsent(blockSize, allocator);
+            if (existingAllocator != null)
+            {
+                allocator = existingAllocator;
+            }
+        }
+        return allocator;
+    }
+
+    /** Returns the maximum number of bytes this pool keeps in free blocks. */
+    public long getMaxRetainedBytes()
+    {
+        return maxRetainedBytes;
+    }
+
+    /** Returns the number of bytes currently held in free blocks. */
+    public long getRetainedBytes()
+    {
+        long retainedBytes = 0;
+        for (final StripeBudget budget : budgets)
+        {
+            synchronized (budget)
+            {
+                retainedBytes += budget.retainedBytes;
+            }
+        }
+        return retainedBytes;
+    }
+
+    /** Returns the number of allocations satisfied from a free list. */
+    public long getHits()
+    {
+        long hits = 0;
+        for (final BoundedPooledBlockAllocator allocator : allocators.values())
+        {
+            for (final Stripe stripe : allocator.stripes)
+            {
+                synchronized (stripe.budget)
+                {
+                    hits += stripe.hits;
+                }
+            }
+        }
+        return hits;
+    }
+
+    /** Returns the number of allocations that had to create a new block. */
+    public long getMisses()
+    {
+        long misses = 0;
+        for (final BoundedPooledBlockAllocator allocator : allocators.values())
+        {
+            for (final Stripe stripe : allocator.stripes)
+            {
+                synchronized (stripe.budget)
+                {
+                    misses += stripe.misses;
+                }
+            }
+        }
+        return misses;
+    }
+
+    /** Returns the number of released blocks dropped because the pool was full. */
+    public long getEvictions()
+    {
+        long evictions = 0;
+        for (final BoundedPooledBlockAllocator allocator : allocators.values())
+        {
+            for (final Stripe stripe : allocator.stripes)
+            {
+                synchronized (stripe.budget)
+                {
+                    evictions += stripe.evictions;
+                }
+            }
+        }
+        return evictions;
+    }
+}
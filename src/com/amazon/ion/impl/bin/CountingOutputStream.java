@@ -0,0 +1,53 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Tracks how many bytes have been written through it.
+ */
+/*package*/ final class CountingOutputStream
+    extends FilterOutputStream
+{
+    private long count;
+
+    /*package*/ CountingOutputStream(final OutputStream out)
+    {
+        super(out);
+    }
+
+    /*package*/ long getCount()
+    {
+        return count;
+    }
+
+    @Override
+    public void write(final int b) throws IOException
+    {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException
+    {
+        out.write(b, off, len);
+        count += len;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * An {@link OutputStream} that queues the blocks of a {@link WriteBuffer} instead of copying them, and emits
+ * everything queued since the last {@link #flush()} to a channel with a single gathering write, or to a
+ * caller-provided {@link ByteBuffer} with one bulk put per block.
+ * <p>
+ * Blocks are queued by reference, so their owner must flush this stream before recycling them.  Bytes given
+ * to the ordinary {@code write} methods are copied, as callers may reuse their arrays.
+ */
+/*package*/ final class GatheringOutputStream extends OutputStream
+{
+    private final WritableByteChannel   channel;
+    private final ByteBuffer            target;
+    private ByteBuffer[]                pending;
+    private int                         pendingCount;
+    private long                        pendingLength;
+
+    private GatheringOutputStream(final WritableByteChannel channel, final ByteBuffer target)
+    {
+        this.channel = channel;
+        this.target = target;
+        this.pending = new ByteBuffer[16];
+    }
+
+    /*package*/ static GatheringOutputStream toChannel(final WritableByteChannel channel)
+    {
+        if (channel == null) { throw new NullPointerException(); }
+        return new GatheringOutputStream(channel, null);
+    }
+
+    /*package*/ static GatheringOutputStream toBuffer(final ByteBuffer target)
+    {
+        if (target == null) { throw new NullPointerException(); }
+        return new GatheringOutputStream(null, target);
+    }
+
+    /** Queues a segment of a block, which must not change until this stream is flushed. */
+    /*package*/ void writeBlock(final byte[] data, final int offset, final int length)
+    {
+        if (length > 0)
+        {
+            enqueue(ByteBuffer.wrap(data, offset, length));
+        }
+    }
+
+    /** Queues a segment of an off-heap block, which must not change until this stream is flushed. */
+    /*package*/ void writeBlock(final ByteBuffer direct, final int offset, final int length)
+    {
+        if (length > 0)
+        {
+            final ByteBuffer segment = direct.duplicate();
+            segment.limit(offset + length);
+            segment.position(offset);
+            enqueue(segment);
+        }
+    }
+
+    private void enqueue(final ByteBuffer segment)
+    {
+        if (pendingCount == pending.length)
+        {
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+        }
+        pending[pendingCount++] = segment;
+        pendingLength += segment.remaining();
+    }
+
+    @Override
+    public void write(final int b)
+    {
+        writeBlock(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len)
+    {
+        writeBlock(Arrays.copyOfRange(b, off, off + len), 0, len);
+    }
+
+    /**
+     * Emits the queued segments.
+     *
+     * @throws BufferOverflowException if the target buffer cannot hold them, in which case nothing is written.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        if (pendingCount == 0)
+        {
+            return;
+        }
+        if (target != null)
+        {
+            if (target.remaining() < pendingLength)
+            {
+                throw new BufferOverflowException();
+            }
+            for (int i = 0; i < pendingCount; i++)
+            {
+                target.put(pending[i]);
+            }
+        }
+        else if (channel instanceof GatheringByteChannel)
+        {
+            final GatheringByteChannel gathering = (GatheringByteChannel) channel;
+            int first = 0;
+            while (first < pendingCount)
+            {
+                gathering.write(pending, first, pendingCount - first);
+                while (first < pendingCount && !pending[first].hasRemaining())
+                {
+                    first++;
+                }
+            }
+        }
+        else
+        {
+            for (int i = 0; i < pendingCount; i++)
+            {
+                while (pending[i].hasRemaining())
+                {
+                    channel.write(pending[i]);
+                }
+            }
+        }
+        // don't hold on to blocks that are about to be recycled
+        Arrays.fill(pending, 0, pendingCount, null);
+        pendingCount = 0;
+        pendingLength = 0;
+    }
+
+    /**
+     * Flushes, then copies {@code length} bytes from the start of {@code source} without buffering them.
+     *
+     * @param following the number of bytes that will be written after these before the next flush.  When
+     *  writing to a buffer, all of them are checked to fit before anything is written.
+     * @throws BufferOverflowException if the target buffer cannot hold the queued, transferred and following
+     *  bytes, in which case nothing is written.
+     */
+    /*package*/ void transferFrom(final FileChannel source, final long length, final long following)
+        throws IOException
+    {
+        if (target != null && target.remaining() < pendingLength + length + following)
+        {
+            throw new BufferOverflowException();
+        }
+        flush();
+        long position = 0;
+        if (target != null)
+        {
+            final int limit = target.limit();
+            target.limit(target.position() + (int) length);
+            try
+            {
+                while (target.hasRemaining())
+                {
+                    final int read = source.read(target, position);
+                    if (read < 0)
+                    {
+                        throw new IOException("Unexpected end of file");
+                    }
+                    position += read;
+                }
+            }
+            finally
+            {
+                target.limit(limit);
+            }
+        }
+        else
+        {
+            while (position < length)
+            {
+                position += source.transferTo(position, length - position, channel);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            if (channel != null)
+            {
+                channel.close();
+            }
+        }
+    }
+}
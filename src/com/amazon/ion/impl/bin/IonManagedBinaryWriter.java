@@ -37,8 +37,10 @@ import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.UnknownSymbolException;
+import com.amazon.ion.impl._Private_ListWriter;
 import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamCloseMode;
 import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
+import com.amazon.ion.impl.bin.IonRawBinaryWriter.TopLevelValueListener;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
@@ -54,9 +56,10 @@ import java.util.Map;
 
 /** Wraps {@link IonRawBinaryWriter} with symbol table management. */
 @SuppressWarnings("deprecation")
-/*package*/ final class IonManagedBinaryWriter extends AbstractIonWriter implements _Private_IonManagedWriter
+/*package*/ final class IonManagedBinaryWriter extends AbstractIonWriter
+    implements _Private_IonManagedWriter, _Private_ListWriter
 {
-    private interface SymbolResolver
+    /*package*/ interface SymbolResolver
     {
         /** Resolves a {@link SymbolToken} or returns <code>null</code> if the mapping does not exist. */
         SymbolToken get(String text);
@@ -623,6 +626,9 @@ import java.util.Map;
     private ImportedSymbolContext               imports;
     private final Map<String, SymbolToken>      locals;
     private boolean                             localsLocked;
+    /** Whether a local symbol table has been emitted since the writer was constructed or last finished. */
+    private boolean                             localsDeclared;
+    private final boolean                       isLocalSymbolTableAppendEnabled;
     private SymbolTable                         localSymbolTableView;
 
     private final IonRawBinaryWriter            symbols;
@@ -637,13 +643,40 @@ import java.util.Map;
     private final List<String>                  userSymbols;
     private final ImportDescriptor              userCurrentImport;
 
+    // value offset reporting, only when a listener was given
+    private final CountingOutputStream          countingOut;
+    private long                                userStart;
+    private long                                pendingCheckpointStart;
+    private long                                pendingCheckpointFinish;
+    private boolean                             hasPendingCheckpoint;
+
     private boolean                             closed;
 
     /*package*/ IonManagedBinaryWriter(final _Private_IonManagedBinaryWriterBuilder builder,
                                        final OutputStream out)
                                        throws IOException
+    {
+        this(builder, out, null);
+    }
+
+    /*package*/ IonManagedBinaryWriter(final _Private_IonManagedBinaryWriterBuilder builder,
+                                       final OutputStream userOut,
+                                       final _Private_IonValueOffsetListener offsetListener)
+                                       throws IOException
     {
         super(builder.optimization);
+        final OutputStream out;
+        if (offsetListener == null)
+        {
+            this.countingOut = null;
+            out = userOut;
+        }
+        else
+        {
+            if (userOut == null) { throw new NullPointerException(); }
+            this.countingOut = new CountingOutputStream(userOut);
+            out = countingOut;
+        }
         this.symbols = new IonRawBinaryWriter(
             builder.provider,
             builder.symbolsBlockSize,
@@ -665,11 +698,15 @@ import java.util.Map;
             builder.isFloatBinary32Enabled
         );
 
+        this.user.setSpillThreshold(builder.spillThreshold);
+
         this.catalog = builder.catalog;
         this.bootstrapImports = builder.imports;
 
         this.locals = new LinkedHashMap<String, SymbolToken>();
         this.localsLocked = false;
+        this.localsDeclared = false;
+        this.isLocalSymbolTableAppendEnabled = builder.isLocalSymbolTableAppendEnabled;
         this.localSymbolTableView = new LocalSymbolTableView();
         this.symbolState = SymbolState.SYSTEM_SYMBOLS;
         this.closed = false;
@@ -681,6 +718,23 @@ import java.util.Map;
         this.userSymbols = new ArrayList<String>();
         this.userCurrentImport = new ImportDescriptor();
 
+        if (offsetListener != null)
+        {
+            user.setTopLevelValueListener(new TopLevelValueListener()
+            {
+                public void topLevelValue(final long offset)
+                {
+                    if (hasPendingCheckpoint)
+                    {
+                        // only report tables that some value is actually read with
+                        offsetListener.symbolTableCheckpoint(pendingCheckpointStart, pendingCheckpointFinish);
+                        hasPendingCheckpoint = false;
+                    }
+                    offsetListener.topLevelValue(userStart + offset);
+                }
+            });
+        }
+
         // TODO decide if initial LST should survive finish() and seed the next LST
         final SymbolTable lst = builder.initialSymbolTable;
         if (lst != null)
@@ -740,37 +794,79 @@ import java.util.Map;
 
     private void startLocalSymbolTableIfNeeded(final boolean writeIVM) throws IOException
     {
+        if (symbolState == SymbolState.LOCAL_SYMBOLS_FLUSHED && !localsDeclared)
+        {
+            // only system symbols have been flushed, so there is no table to extend
+            symbolState = SymbolState.SYSTEM_SYMBOLS;
+        }
         if (symbolState == SymbolState.SYSTEM_SYMBOLS)
         {
+            localsDeclared = true;
             if (writeIVM)
             {
                 symbols.writeIonVersionMarker();
             }
             symbols.addTypeAnnotationSymbol(systemSymbol(ION_SYMBOL_TABLE_SID));
             symbols.stepIn(STRUCT);
+            writeImports();
+            // XXX no step out
+            symbolState = SymbolState.LOCAL_SYMBOLS_WITH_IMPORTS_ONLY;
+        }
+    }
+
+    private void writeImports() throws IOException
+    {
+        if (imports.parents.size() > 0)
+        {
+            symbols.setFieldNameSymbol(systemSymbol(IMPORTS_SID));
+            symbols.stepIn(LIST);
+            for (final SymbolTable st : imports.parents)
             {
-                if (imports.parents.size() > 0)
+                symbols.stepIn(STRUCT);
                 {
-                    symbols.setFieldNameSymbol(systemSymbol(IMPORTS_SID));
-                    symbols.stepIn(LIST);
-                    for (final SymbolTable st : imports.parents)
-                    {
-                        symbols.stepIn(STRUCT);
-                        {
-                            symbols.setFieldNameSymbol(systemSymbol(NAME_SID));
-                            symbols.writeString(st.getName());
-                            symbols.setFieldNameSymbol(systemSymbol(VERSION_SID));
-                            symbols.writeInt(st.getVersion());
-                            symbols.setFieldNameSymbol(systemSymbol(MAX_ID_SID));
-                            symbols.writeInt(st.getMaxId());
-                        }
-                        symbols.stepOut();
-                    }
-                    symbols.stepOut();
+                    symbols.setFieldNameSymbol(systemSymbol(NAME_SID));
+                    symbols.writeString(st.getName());
+                    symbols.setFieldNameSymbol(systemSymbol(VERSION_SID));
+                    symbols.writeInt(st.getVersion());
+                    symbols.setFieldNameSymbol(systemSymbol(MAX_ID_SID));
+                    symbols.writeInt(st.getMaxId());
                 }
+                symbols.stepOut();
+            }
+            symbols.stepOut();
+        }
+    }
+
+    /**
+     * Starts a table declaring the symbols added since the last flush, which appends to the
+     * table in effect when possible.
+     */
+    private void startLocalSymbolTableAppendIfNeeded() throws IOException
+    {
+        if (symbolState == SymbolState.LOCAL_SYMBOLS_FLUSHED)
+        {
+            symbols.addTypeAnnotationSymbol(systemSymbol(ION_SYMBOL_TABLE_SID));
+            symbols.stepIn(STRUCT);
+            if (countingOut == null)
+            {
+                symbols.setFieldNameSymbol(systemSymbol(IMPORTS_SID));
+                symbols.writeSymbolToken(systemSymbol(ION_SYMBOL_TABLE_SID));
+                // XXX no step out
+                symbolState = SymbolState.LOCAL_SYMBOLS_WITH_IMPORTS_ONLY;
+            }
+            else
+            {
+                // offset listeners are promised checkpoints that stand alone, so restate the whole table
+                writeImports();
+                symbols.setFieldNameSymbol(systemSymbol(SYMBOLS_SID));
+                symbols.stepIn(LIST);
+                for (final String text : locals.keySet())
+                {
+                    symbols.writeString(text);
+                }
+                // XXX no step out
+                symbolState = SymbolState.LOCAL_SYMBOLS;
             }
-            // XXX no step out
-            symbolState = SymbolState.LOCAL_SYMBOLS_WITH_IMPORTS_ONLY;
         }
     }
 
@@ -815,6 +911,7 @@ import java.util.Map;
 
                 // if we got here, this is a new symbol and we better start up the locals
                 startLocalSymbolTableIfNeeded(/*writeIVM*/ true);
+                startLocalSymbolTableAppendIfNeeded();
                 startLocalSymbolTableSymbolListIfNeeded();
 
                 token = symbol(text, imports.localSidStart + locals.size());
@@ -1067,11 +1164,131 @@ import java.util.Map;
         user.writeBytes(data, off, len);
     }
 
+    // Bulk List Writing
+    //
+    // A symbol table being written by the user has to see each value, so the raw writer's bulk methods are
+    // only used for user values.
+
+    public void writeBoolList(final boolean[] values) throws IOException
+    {
+        if (userState == UserState.NORMAL)
+        {
+            user.writeBoolList(values);
+            return;
+        }
+        stepIn(LIST);
+        for (final boolean value : values)
+        {
+            writeBool(value);
+        }
+        stepOut();
+    }
+
+    public void writeFloatList(final float[] values) throws IOException
+    {
+        if (userState == UserState.NORMAL)
+        {
+            user.writeFloatList(values);
+            return;
+        }
+        stepIn(LIST);
+        for (final float value : values)
+        {
+            writeFloat(value);
+        }
+        stepOut();
+    }
+
+    public void writeFloatList(final double[] values) throws IOException
+    {
+        if (userState == UserState.NORMAL)
+        {
+            user.writeFloatList(values);
+            return;
+        }
+        stepIn(LIST);
+        for (final double value : values)
+        {
+            writeFloat(value);
+        }
+        stepOut();
+    }
+
+    public void writeIntList(final byte[] values) throws IOException
+    {
+        if (userState == UserState.NORMAL)
+        {
+            user.writeIntList(values);
+            return;
+        }
+        stepIn(LIST);
+        for (final byte value : values)
+        {
+            writeInt(value);
+        }
+        stepOut();
+    }
+
+    public void writeIntList(final short[] values) throws IOException
+    {
+        if (userState == UserState.NORMAL)
+        {
+            user.writeIntList(values);
+            return;
+        }
+        stepIn(LIST);
+        for (final short value : values)
+        {
+            writeInt(value);
+        }
+        stepOut();
+    }
+
+    public void writeIntList(final int[] values) throws IOException
+    {
+        if (userState == UserState.NORMAL)
+        {
+            user.writeIntList(values);
+            return;
+        }
+        stepIn(LIST);
+        for (final int value : values)
+        {
+            writeInt(value);
+        }
+        stepOut();
+    }
+
+    public void writeIntList(final long[] values) throws IOException
+    {
+        if (userState == UserState.NORMAL)
+        {
+            user.writeIntList(values);
+            return;
+        }
+        stepIn(LIST);
+        for (final long value : values)
+        {
+            writeInt(value);
+        }
+        stepOut();
+    }
+
+    public void writeStringList(final String[] values) throws IOException
+    {
+        stepIn(LIST);
+        for (final String value : values)
+        {
+            writeString(value);
+        }
+        stepOut();
+    }
+
     // Stream Terminators
 
     public void flush() throws IOException
     {
-        if (getDepth() == 0 && localsLocked)
+        if (getDepth() == 0 && (localsLocked || isLocalSymbolTableAppendEnabled))
         {
             unsafeFlush();
         }
@@ -1079,17 +1296,38 @@ import java.util.Map;
 
     private void unsafeFlush() throws IOException
     {
-        if (user.hasWrittenValuesSinceFinished())
+        if (user.hasWrittenValuesSinceFinished()
+            || symbolState == SymbolState.LOCAL_SYMBOLS_WITH_IMPORTS_ONLY
+            || symbolState == SymbolState.LOCAL_SYMBOLS)
         {
             // this implies that we have a local symbol table of some sort and the user locked it
+            // or will append to it
             symbolState.closeTable(symbols);
         }
 
         // make sure that until the local symbol state changes we no-op the table closing routine
         symbolState = SymbolState.LOCAL_SYMBOLS_FLUSHED;
-        // push the data out
-        symbols.finish();
-        user.finish();
+        // push the data out -- the user writer flushes the stream, so a gathering stream emits both at once
+        if (countingOut == null)
+        {
+            symbols.writeFinished();
+        }
+        else
+        {
+            final long symbolsStart = countingOut.getCount();
+            symbols.writeFinished();
+            userStart = countingOut.getCount();
+            if (userStart > symbolsStart)
+            {
+                // an IVM and/or local symbol table was emitted, and it applies to the values that follow
+                pendingCheckpointStart = symbolsStart;
+                pendingCheckpointFinish = userStart;
+                hasPendingCheckpoint = true;
+            }
+        }
+        user.writeFinished();
+        symbols.resetFinished();
+        user.resetFinished();
     }
 
     public void finish() throws IOException
@@ -1103,6 +1341,7 @@ import java.util.Map;
         // TODO be more configurable with respect to local symbol table caching
         locals.clear();
         localsLocked = false;
+        localsDeclared = false;
         symbolState = SymbolState.SYSTEM_SYMBOLS;
         imports = bootstrapImports;
     }
@@ -46,11 +46,13 @@ import com.amazon.ion.IonWriter;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
+import com.amazon.ion.impl._Private_ListWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -59,7 +61,7 @@ import java.util.NoSuchElementException;
  * Low-level binary {@link IonWriter} that understands encoding concerns but doesn't operate with any sense of symbol table management.
  */
 @SuppressWarnings("deprecation")
-/*package*/ final class IonRawBinaryWriter extends AbstractIonWriter implements _Private_IonRawWriter
+/*package*/ final class IonRawBinaryWriter extends AbstractIonWriter implements _Private_IonRawWriter, _Private_ListWriter
 {
     /** short-hand for array of bytes--useful for static definitions. */
     private static byte[] bytes(int... vals) {
@@ -111,6 +113,7 @@ import java.util.NoSuchElementException;
 
     private static final byte CLOB_TYPE         = (byte) 0x90;
     private static final byte BLOB_TYPE         = (byte) 0xA0;
+    private static final byte LIST_TYPE         = (byte) 0xB0;
 
     private static final byte DECIMAL_POS_ZERO               = (byte) 0x50;
     private static final byte DECIMAL_NEGATIVE_ZERO_MANTISSA = (byte) 0x80;
@@ -120,6 +123,11 @@ import java.util.NoSuchElementException;
 
     private static final byte VARINT_NEG_ZERO   = (byte) 0xC0;
 
+    /** The size of the scratch space that the values of a bulk list are encoded into. */
+    private static final int LIST_SCRATCH_SIZE       = 4096;
+    /** The longest encoding of a bulk list value, a 64-bit int or float. */
+    private static final int MAX_LIST_VALUE_LENGTH   = 9;
+
     private static final byte[] makeTypedPreallocatedBytes(final int typeDesc, final int length)
     {
         final byte[] bytes = new byte[length];
@@ -241,6 +249,8 @@ import java.util.NoSuchElementException;
         public long length;
         /** The patchlist for this container. */
         public PatchList patches;
+        /** The location of the length placeholder in the spill file, or -1 if the header is still buffered. */
+        public long spilledPosition;
 
         public ContainerInfo()
         {
@@ -248,6 +258,7 @@ import java.util.NoSuchElementException;
             position = -1;
             length = -1;
             patches = null;
+            spilledPosition = -1;
         }
 
         public void appendPatch(final PatchPoint patch)
@@ -276,6 +287,7 @@ import java.util.NoSuchElementException;
             this.position = offset;
             this.patches = null;
             this.length = 0;
+            this.spilledPosition = -1;
         }
 
         @Override
@@ -464,6 +476,16 @@ import java.util.NoSuchElementException;
         FLUSH
     }
 
+    /** Receives the position of each top-level value as it is written to the output stream. */
+    /*package*/ interface TopLevelValueListener
+    {
+        /**
+         * @param offset the position of the value relative to the first byte written by the
+         *               {@link #finish()} call that emitted it.
+         */
+        void topLevelValue(long offset) throws IOException;
+    }
+
     /**
      * A stack whose elements are recycled. This can be useful when the stack needs to grow and shrink
      * frequently and has a predictable maximum depth.
@@ -546,10 +568,29 @@ import java.util.NoSuchElementException;
         public boolean isEmpty() {
             return top == null;
         }
+
+        /**
+         * @return the number of elements on the stack.
+         */
+        public int size() {
+            return currentIndex + 1;
+        }
+
+        /**
+         * @param index the depth of the element, where 0 is the bottom of the stack.
+         * @return the element at that depth.
+         */
+        public T get(int index) {
+            return elements.get(index);
+        }
     }
 
     private static final int SID_UNASSIGNED = -1;
 
+    /** Width of the length placeholders written for containers that are open when spilled. */
+    private static final int SPILLED_LENGTH_WIDTH = 5;
+    private static final long SPILLED_LENGTH_MAX = (1L << (7 * SPILLED_LENGTH_WIDTH)) - 1;
+
     private final BlockAllocator                allocator;
     private final OutputStream                  out;
     private final StreamCloseMode               streamCloseMode;
@@ -569,6 +610,21 @@ import java.util.NoSuchElementException;
     // XXX this is for managed detection of TLV that is a LST--this is easier to track here than at the managed level
     private boolean                     hasTopLevelSymbolTableAnnotation;
 
+    // buffer positions of the top-level values since the last finish, only tracked for a listener
+    private TopLevelValueListener       topLevelValueListener;
+    private long[]                      topLevelValuePositions;
+    private int                         topLevelValueCount;
+    // output offsets of the top-level values that have been spilled since the last finish
+    private long[]                      spilledTopLevelValueOffsets;
+    private int                         spilledTopLevelValueCount;
+
+    // spilling of large top-level values, only enabled by a positive threshold
+    private long                        spillThreshold;
+    private SpillFile                   spill;
+    private boolean                     isTopLevelValueSpillable;
+
+    private byte[]                      listScratch;
+
     private boolean                     closed;
 
     /*package*/ IonRawBinaryWriter(final BlockAllocatorProvider provider,
@@ -724,6 +780,27 @@ import java.util.NoSuchElementException;
         return currentFieldSid;
     }
 
+    /*package*/ void setTopLevelValueListener(final TopLevelValueListener listener)
+    {
+        topLevelValueListener = listener;
+        if (listener != null && topLevelValuePositions == null)
+        {
+            topLevelValuePositions = new long[16];
+        }
+    }
+
+    /**
+     * Bounds the memory used by large top-level values.  Once a top-level value has buffered at least
+     * {@code threshold} bytes, each value completed within it moves everything buffered so far to a
+     * temporary file, leaving only the headers of the open containers to be resolved.  The spilled bytes
+     * reach the output stream at the next {@link #finish()}, since binary Ion requires each container's
+     * length before its content.
+     */
+    /*package*/ void setSpillThreshold(final long threshold)
+    {
+        spillThreshold = threshold;
+    }
+
     // Compatibility with Implementation Writer Interface
 
     public IonCatalog getCatalog()
@@ -807,7 +884,23 @@ import java.util.NoSuchElementException;
 
         // only patch for real containers and annotations -- we use VALUE for tracking only
         final long length = current.length;
-        if (current.type != ContainerType.VALUE)
+        if (current.spilledPosition >= 0)
+        {
+            // the header was spilled with a placeholder, which is now rewritten in place
+            if (length > SPILLED_LENGTH_MAX)
+            {
+                throw new IonException("Container too large to spill: " + length);
+            }
+            try
+            {
+                spill.writePaddedVarUIntAt(current.spilledPosition, length, SPILLED_LENGTH_WIDTH);
+            }
+            catch (final IOException e)
+            {
+                throw new IonException("Unable to write to spill file", e);
+            }
+        }
+        else if (current.type != ContainerType.VALUE)
         {
             // patch in the length
             final long position = current.position;
@@ -870,6 +963,19 @@ import java.util.NoSuchElementException;
     /** prepare to write values with field name and annotations. */
     private void prepareValue()
     {
+        if (containers.isEmpty())
+        {
+            // a symbol table may be truncated when it is done, so keep it in the buffer
+            isTopLevelValueSpillable = !hasTopLevelSymbolTableAnnotation;
+        }
+        if (topLevelValueListener != null && containers.isEmpty())
+        {
+            if (topLevelValueCount == topLevelValuePositions.length)
+            {
+                topLevelValuePositions = Arrays.copyOf(topLevelValuePositions, topLevelValueCount * 2);
+            }
+            topLevelValuePositions[topLevelValueCount++] = buffer.position();
+        }
         if (isInStruct() && currentFieldSid <= SID_UNASSIGNED)
         {
             throw new IllegalStateException("IonWriter.setFieldName() must be called before writing a value into a struct.");
@@ -916,7 +1022,7 @@ import java.util.NoSuchElementException;
     }
 
     /** Closes out annotations. */
-    private void finishValue()
+    private void finishValue() throws IOException
     {
         if (!containers.isEmpty() && containers.peek().type == ContainerType.ANNOTATION)
         {
@@ -925,6 +1031,118 @@ import java.util.NoSuchElementException;
         }
         hasWrittenValuesSinceFinished = true;
         hasWrittenValuesSinceConstructed = true;
+        if (spillThreshold > 0 && depth > 0 && isTopLevelValueSpillable && buffer.position() >= spillThreshold)
+        {
+            spill();
+        }
+    }
+
+    /**
+     * Moves the buffered bytes to the spill file, applying the pending side patches.  The header of each
+     * open container that is still buffered is rewritten with a fixed-width placeholder, since its length
+     * is not yet known and can no longer be side patched.
+     */
+    private void spill() throws IOException
+    {
+        if (spill == null)
+        {
+            spill = new SpillFile();
+        }
+        final long spillStart = spill.size();
+        final OutputStream spillOut = spill.stream();
+
+        // widening an open header grows its parent, which passes the growth upward when it is closed
+        final int openCount = containers.size();
+        for (int i = 1; i < openCount; i++)
+        {
+            if (containers.get(i).spilledPosition < 0)
+            {
+                containers.get(i - 1).length += 1 + SPILLED_LENGTH_WIDTH - preallocationMode.typedLength;
+            }
+        }
+
+        // everything buffered is ordered: patches before the first open container, then each open header
+        // followed by the patches of its completed children
+        long bufferPosition = spillPatches(patchPoints, 0, spillOut);
+        for (int i = 0; i < openCount; i++)
+        {
+            final ContainerInfo info = containers.get(i);
+            if (info.spilledPosition < 0)
+            {
+                final long typePosition = info.position - 1;
+                buffer.writeTo(spillOut, bufferPosition, typePosition - bufferPosition);
+                spillOut.write((buffer.getUInt8At(typePosition) & 0xF0) | 0xE);
+                info.spilledPosition = spill.size();
+                for (int j = 0; j < SPILLED_LENGTH_WIDTH; j++)
+                {
+                    spillOut.write(0);
+                }
+                bufferPosition = info.position + preallocationMode.typedLength - 1;
+            }
+            if (info.patches != null)
+            {
+                bufferPosition = spillPatches(info.patches, bufferPosition, spillOut);
+                info.patches = null;
+            }
+        }
+        buffer.writeTo(spillOut, bufferPosition, buffer.position() - bufferPosition);
+        spill.flush();
+
+        if (topLevelValueListener != null)
+        {
+            spillTopLevelValues(spillStart);
+        }
+        patchPoints.clear();
+        patchBuffer.reset();
+        buffer.reset();
+    }
+
+    private long spillPatches(final PatchList patches, long bufferPosition, final OutputStream spillOut)
+        throws IOException
+    {
+        for (final PatchPoint patch : patches)
+        {
+            buffer.writeTo(spillOut, bufferPosition, patch.oldPosition - bufferPosition);
+            patchBuffer.writeTo(spillOut, patch.patchPosition, patch.patchLength);
+            bufferPosition = patch.oldPosition + patch.oldLength;
+        }
+        return bufferPosition;
+    }
+
+    /**
+     * Resolves the output offsets of the top-level values being spilled.  Only the patches before the
+     * first open container can precede them, and the open top-level value is the last of them.
+     */
+    private void spillTopLevelValues(final long spillStart)
+    {
+        if (spilledTopLevelValueOffsets == null)
+        {
+            spilledTopLevelValueOffsets = new long[16];
+        }
+        long shift = spillStart;
+        int index = 0;
+        for (final PatchPoint patch : patchPoints)
+        {
+            while (index < topLevelValueCount && topLevelValuePositions[index] <= patch.oldPosition)
+            {
+                addSpilledTopLevelValue(topLevelValuePositions[index++] + shift);
+            }
+            shift += patch.patchLength - patch.oldLength;
+        }
+        while (index < topLevelValueCount)
+        {
+            addSpilledTopLevelValue(topLevelValuePositions[index++] + shift);
+        }
+        topLevelValueCount = 0;
+    }
+
+    private void addSpilledTopLevelValue(final long offset)
+    {
+        if (spilledTopLevelValueCount == spilledTopLevelValueOffsets.length)
+        {
+            spilledTopLevelValueOffsets = Arrays.copyOf(spilledTopLevelValueOffsets, spilledTopLevelValueCount * 2);
+        }
+        spilledTopLevelValueOffsets[spilledTopLevelValueCount++] = offset;
     }
 
     // Container Manipulation
@@ -1562,6 +1780,264 @@ import java.util.NoSuchElementException;
         finishValue();
     }
 
+    // Bulk List Writing
+    //
+    // The length of a bulk list is computed up front, so its header is written exactly once and its values are
+    // encoded in a tight loop, without the per-value bookkeeping of the write methods above.
+
+    /** Writes the type descriptor and length of a list with the given content length. */
+    private void writeListHeader(final long contentLength)
+    {
+        prepareValue();
+        if (contentLength < 0xE)
+        {
+            updateLength(1 + contentLength);
+            buffer.writeUInt8(LIST_TYPE | contentLength);
+        }
+        else
+        {
+            buffer.writeUInt8(LIST_TYPE | 0xE);
+            final int sizeLength = buffer.writeVarUInt(contentLength);
+            updateLength(1 + sizeLength + contentLength);
+        }
+    }
+
+    private byte[] listScratch()
+    {
+        if (listScratch == null)
+        {
+            listScratch = new byte[LIST_SCRATCH_SIZE];
+        }
+        return listScratch;
+    }
+
+    /** Returns the encoded length of an int value, as written by {@link #writeInt(long)}. */
+    private static int intLength(final long value)
+    {
+        if (value == 0)
+        {
+            return 1;
+        }
+        // XXX the magnitude of Long.MIN_VALUE stays negative, which correctly makes it take all 8 bytes
+        final long magnitude = value < 0 ? -value : value;
+        return 1 + ((Long.SIZE - Long.numberOfLeadingZeros(magnitude) + 7) >>> 3);
+    }
+
+    /** Encodes an int value as written by {@link #writeInt(long)}, returning the position after it. */
+    private static int encodeInt(final byte[] bytes, int position, final long value)
+    {
+        if (value == 0)
+        {
+            bytes[position] = INT_ZERO;
+            return position + 1;
+        }
+        final long magnitude = value < 0 ? -value : value;
+        final int length = intLength(value) - 1;
+        bytes[position++] = (byte) ((value < 0 ? NEG_INT_TYPE : POS_INT_TYPE) | length);
+        for (int shift = (length - 1) * 8; shift >= 0; shift -= 8)
+        {
+            bytes[position++] = (byte) (magnitude >>> shift);
+        }
+        return position;
+    }
+
+    /** Returns the encoded length of a float value, as written by {@link #writeFloat(double)}. */
+    private int floatLength(final double value)
+    {
+        return isFloatBinary32Enabled && value == ((double) ((float) value)) ? 5 : 9;
+    }
+
+    /** Encodes a float value as written by {@link #writeFloat(double)}, returning the position after it. */
+    private int encodeFloat(final byte[] bytes, int position, final double value)
+    {
+        if (isFloatBinary32Enabled && value == ((double) ((float) value)))
+        {
+            final int bits = floatToRawIntBits((float) value);
+            bytes[position++] = FLOAT_TYPE | 4;
+            for (int shift = 24; shift >= 0; shift -= 8)
+            {
+                bytes[position++] = (byte) (bits >>> shift);
+            }
+        }
+        else
+        {
+            final long bits = doubleToRawLongBits(value);
+            bytes[position++] = FLOAT_TYPE | 8;
+            for (int shift = 56; shift >= 0; shift -= 8)
+            {
+                bytes[position++] = (byte) (bits >>> shift);
+            }
+        }
+        return position;
+    }
+
+    public void writeBoolList(final boolean[] values) throws IOException
+    {
+        writeListHeader(values.length);
+        final byte[] scratch = listScratch();
+        int position = 0;
+        for (final boolean value : values)
+        {
+            if (position == scratch.length)
+            {
+                buffer.writeBytes(scratch, 0, position);
+                position = 0;
+            }
+            scratch[position++] = value ? BOOL_TRUE : BOOL_FALSE;
+        }
+        buffer.writeBytes(scratch, 0, position);
+        finishValue();
+    }
+
+    public void writeFloatList(final float[] values) throws IOException
+    {
+        long contentLength = 0;
+        for (final float value : values)
+        {
+            contentLength += floatLength(value);
+        }
+        writeListHeader(contentLength);
+        final byte[] scratch = listScratch();
+        int position = 0;
+        for (final float value : values)
+        {
+            if (position > scratch.length - MAX_LIST_VALUE_LENGTH)
+            {
+                buffer.writeBytes(scratch, 0, position);
+                position = 0;
+            }
+            position = encodeFloat(scratch, position, value);
+        }
+        buffer.writeBytes(scratch, 0, position);
+        finishValue();
+    }
+
+    public void writeFloatList(final double[] values) throws IOException
+    {
+        long contentLength = 0;
+        for (final double value : values)
+        {
+            contentLength += floatLength(value);
+        }
+        writeListHeader(contentLength);
+        final byte[] scratch = listScratch();
+        int position = 0;
+        for (final double value : values)
+        {
+            if (position > scratch.length - MAX_LIST_VALUE_LENGTH)
+            {
+                buffer.writeBytes(scratch, 0, position);
+                position = 0;
+            }
+            position = encodeFloat(scratch, position, value);
+        }
+        buffer.writeBytes(scratch, 0, position);
+        finishValue();
+    }
+
+    public void writeIntList(final byte[] values) throws IOException
+    {
+        long contentLength = 0;
+        for (final byte value : values)
+        {
+            contentLength += intLength(value);
+        }
+        writeListHeader(contentLength);
+        final byte[] scratch = listScratch();
+        int position = 0;
+        for (final byte value : values)
+        {
+            if (position > scratch.length - MAX_LIST_VALUE_LENGTH)
+            {
+                buffer.writeBytes(scratch, 0, position);
+                position = 0;
+            }
+            position = encodeInt(scratch, position, value);
+        }
+        buffer.writeBytes(scratch, 0, position);
+        finishValue();
+    }
+
+    public void writeIntList(final short[] values) throws IOException
+    {
+        long contentLength = 0;
+        for (final short value : values)
+        {
+            contentLength += intLength(value);
+        }
+        writeListHeader(contentLength);
+        final byte[] scratch = listScratch();
+        int position = 0;
+        for (final short value : values)
+        {
+            if (position > scratch.length - MAX_LIST_VALUE_LENGTH)
+            {
+                buffer.writeBytes(scratch, 0, position);
+                position = 0;
+            }
+            position = encodeInt(scratch, position, value);
+        }
+        buffer.writeBytes(scratch, 0, position);
+        finishValue();
+    }
+
+    public void writeIntList(final int[] values) throws IOException
+    {
+        long contentLength = 0;
+        for (final int value : values)
+        {
+            contentLength += intLength(value);
+        }
+        writeListHeader(contentLength);
+        final byte[] scratch = listScratch();
+        int position = 0;
+        for (final int value : values)
+        {
+            if (position > scratch.length - MAX_LIST_VALUE_LENGTH)
+            {
+                buffer.writeBytes(scratch, 0, position);
+                position = 0;
+            }
+            position = encodeInt(scratch, position, value);
+        }
+        buffer.writeBytes(scratch, 0, position);
+        finishValue();
+    }
+
+    public void writeIntList(final long[] values) throws IOException
+    {
+        long contentLength = 0;
+        for (final long value : values)
+        {
+            contentLength += intLength(value);
+        }
+        writeListHeader(contentLength);
+        final byte[] scratch = listScratch();
+        int position = 0;
+        for (final long value : values)
+        {
+            if (position > scratch.length - MAX_LIST_VALUE_LENGTH)
+            {
+                buffer.writeBytes(scratch, 0, position);
+                position = 0;
+            }
+            position = encodeInt(scratch, position, value);
+        }
+        buffer.writeBytes(scratch, 0, position);
+        finishValue();
+    }
+
+    public void writeStringList(final String[] values) throws IOException
+    {
+        // strings are not fixed-width, so there is nothing to gain over writing them one at a time
+        stepIn(LIST);
+        for (final String value : values)
+        {
+            writeString(value);
+        }
+        stepOut();
+    }
+
     // Stream Manipulation/Terminators
 
     /*package*/ long position()
@@ -1572,6 +2048,10 @@ import java.util.NoSuchElementException;
     /*package*/ void truncate(long position)
     {
         buffer.truncate(position);
+        while (topLevelValueCount > 0 && topLevelValuePositions[topLevelValueCount - 1] >= position)
+        {
+            topLevelValueCount--;
+        }
         // TODO decide if it is worth making this faster than O(N)
         final PatchPoint patch = patchPoints.truncate(position);
         if (patch != null)
@@ -1583,6 +2063,37 @@ import java.util.NoSuchElementException;
     public void flush() throws IOException {}
 
     public void finish() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        writeFinished();
+        if (streamFlushMode == StreamFlushMode.NO_FLUSH && out instanceof GatheringOutputStream)
+        {
+            // the stream holds our blocks, which are about to be recycled
+            out.flush();
+        }
+        resetFinished();
+    }
+
+    /** Returns the number of bytes {@link #writeFinished()} emits from the buffer, with the patches applied. */
+    private long bufferedOutputLength()
+    {
+        long length = buffer.position();
+        for (final PatchPoint patch : patchPoints)
+        {
+            length += patch.patchLength - patch.oldLength;
+        }
+        return length;
+    }
+
+    /**
+     * Writes out everything since the last {@link #finish()} without recycling the buffers, so that writers
+     * sharing a {@link GatheringOutputStream} can emit their blocks with a single flush.
+     * {@link #resetFinished()} must follow once the stream has been flushed.
+     */
+    /*package*/ void writeFinished() throws IOException
     {
         if (closed)
         {
@@ -1593,6 +2104,12 @@ import java.util.NoSuchElementException;
             throw new IllegalStateException("Cannot finish within container: " + containers);
         }
 
+        long spilledLength = 0;
+        if (spill != null && spill.size() > 0)
+        {
+            spilledLength = spill.size();
+            spill.transferTo(out, bufferedOutputLength());
+        }
         if (patchPoints.isEmpty())
         {
             // nothing to patch--write 'em out!
@@ -1616,18 +2133,56 @@ import java.util.NoSuchElementException;
             }
             buffer.writeTo(out, bufferPosition, buffer.position() - bufferPosition);
         }
-        patchPoints.clear();
-        patchBuffer.reset();
-        buffer.reset();
+        if (topLevelValueListener != null)
+        {
+            notifyTopLevelValues(spilledLength);
+        }
 
         if (streamFlushMode == StreamFlushMode.FLUSH)
         {
             out.flush();
         }
+    }
+
+    /** Recycles the buffers after {@link #writeFinished()}. */
+    /*package*/ void resetFinished()
+    {
+        if (closed)
+        {
+            return;
+        }
+        patchPoints.clear();
+        patchBuffer.reset();
+        buffer.reset();
 
         hasWrittenValuesSinceFinished = false;
     }
 
+    /** Translates the buffered top-level value positions to output offsets, which side patches shift. */
+    private void notifyTopLevelValues(final long spilledLength) throws IOException
+    {
+        for (int i = 0; i < spilledTopLevelValueCount; i++)
+        {
+            topLevelValueListener.topLevelValue(spilledTopLevelValueOffsets[i]);
+        }
+        spilledTopLevelValueCount = 0;
+        long shift = spilledLength;
+        int index = 0;
+        for (final PatchPoint patch : patchPoints)
+        {
+            while (index < topLevelValueCount && topLevelValuePositions[index] <= patch.oldPosition)
+            {
+                topLevelValueListener.topLevelValue(topLevelValuePositions[index++] + shift);
+            }
+            shift += patch.patchLength - patch.oldLength;
+        }
+        while (index < topLevelValueCount)
+        {
+            topLevelValueListener.topLevelValue(topLevelValuePositions[index++] + shift);
+        }
+        topLevelValueCount = 0;
+    }
+
     public void close() throws IOException
     {
         if (closed)
@@ -1649,6 +2204,10 @@ import java.util.NoSuchElementException;
             buffer.close();
             patchBuffer.close();
             allocator.close();
+            if (spill != null)
+            {
+                spill.close();
+            }
         }
         finally
         {
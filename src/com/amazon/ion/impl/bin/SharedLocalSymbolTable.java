@@ -0,0 +1,176 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static com.amazon.ion.SystemSymbols.ION_1_0_MAX_ID;
+import static com.amazon.ion.impl.bin.Symbols.symbol;
+import static com.amazon.ion.impl.bin.Symbols.systemSymbolTable;
+
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.UnknownSymbolException;
+import com.amazon.ion.impl.bin.IonManagedBinaryWriter.ImportedSymbolContext;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A local symbol table that only ever grows, shared by writers encoding values concurrently.
+ * Symbol IDs are assigned in the order symbols are first interned by any thread, so the table's
+ * state at any time is a prefix of its final state and can be declared incrementally with
+ * local symbol table appends.
+ * <p>
+ * This implementation is thread-safe.  Lookups of known symbols take no locks.
+ */
+/*package*/ final class SharedLocalSymbolTable extends AbstractSymbolTable
+{
+    private static final SymbolTable[] EMPTY_SYMBOL_TABLE_ARRAY = new SymbolTable[0];
+
+    private final ImportedSymbolContext imports;
+    private final ConcurrentMap<String, SymbolToken> locals;
+    /** The text of the local symbols in ID order, guarded by this table's monitor. */
+    private final List<String> symbols;
+
+    /*package*/ SharedLocalSymbolTable(final ImportedSymbolContext imports)
+    {
+        super(null, 0);
+        this.imports = imports;
+        this.locals = new ConcurrentHashMap<String, SymbolToken>();
+        this.symbols = new ArrayList<String>();
+    }
+
+    /*package*/ List<SymbolTable> getImports()
+    {
+        return imports.parents;
+    }
+
+    /** Returns the number of local symbols declared so far. */
+    /*package*/ synchronized int getLocalSymbolCount()
+    {
+        return symbols.size();
+    }
+
+    /** Returns the text of the local symbols with indices in the given range. */
+    /*package*/ synchronized List<String> getLocalSymbols(final int fromIndex, final int toIndex)
+    {
+        return new ArrayList<String>(symbols.subList(fromIndex, toIndex));
+    }
+
+    /** Returns the index within the local symbols of the given ID, or a negative number if it isn't local. */
+    /*package*/ int localIndex(final int sid)
+    {
+        return sid - imports.localSidStart;
+    }
+
+    public SymbolToken find(final String text)
+    {
+        final SymbolToken token = imports.importedSymbols.get(text);
+        if (token != null)
+        {
+            return token;
+        }
+        return locals.get(text);
+    }
+
+    public SymbolToken intern(final String text)
+    {
+        final SymbolToken token = find(text);
+        if (token != null)
+        {
+            return token;
+        }
+        synchronized (this)
+        {
+            SymbolToken local = locals.get(text);
+            if (local == null)
+            {
+                local = symbol(text, imports.localSidStart + symbols.size());
+                symbols.add(text);
+                locals.put(text, local);
+            }
+            return local;
+        }
+    }
+
+    /** Checks that a symbol without text refers to an ID in this table. */
+    /*package*/ void checkSid(final int sid)
+    {
+        if (sid > getMaxId())
+        {
+            throw new UnknownSymbolException(sid);
+        }
+    }
+
+    public String findKnownSymbol(final int id)
+    {
+        if (id <= ION_1_0_MAX_ID)
+        {
+            return systemSymbolTable().findKnownSymbol(id);
+        }
+        final int index = localIndex(id);
+        if (index < 0)
+        {
+            int startId = ION_1_0_MAX_ID + 1;
+            for (final SymbolTable table : imports.parents)
+            {
+                if (id < startId + table.getMaxId())
+                {
+                    return table.findKnownSymbol(id - startId + 1);
+                }
+                startId += table.getMaxId();
+            }
+            return null;
+        }
+        synchronized (this)
+        {
+            return index < symbols.size() ? symbols.get(index) : null;
+        }
+    }
+
+    public Iterator<String> iterateDeclaredSymbolNames()
+    {
+        // a snapshot, since other threads may be appending
+        return getLocalSymbols(0, getLocalSymbolCount()).iterator();
+    }
+
+    public int getMaxId()
+    {
+        return getImportedMaxId() + getLocalSymbolCount();
+    }
+
+    public SymbolTable[] getImportedTables()
+    {
+        return imports.parents.toArray(EMPTY_SYMBOL_TABLE_ARRAY);
+    }
+
+    public int getImportedMaxId()
+    {
+        return imports.localSidStart - 1;
+    }
+
+    public boolean isSystemTable() { return false; }
+    public boolean isSubstitute()  { return false; }
+    public boolean isSharedTable() { return false; }
+    public boolean isLocalTable()  { return true; }
+    public boolean isReadOnly()    { return false; }
+
+    public SymbolTable getSystemSymbolTable()
+    {
+        return systemSymbolTable();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A temporary file that holds the encoded prefix of a top-level value that
+ * has outgrown a writer's memory budget.  Bytes are appended sequentially,
+ * and placeholder lengths may later be overwritten in place once known.
+ */
+/*package*/ final class SpillFile
+{
+    private final File                  file;
+    private final RandomAccessFile      raf;
+    private final FileChannel           channel;
+    private final ByteBuffer            patch;
+    private CountingOutputStream        out;
+
+    /*package*/ SpillFile() throws IOException
+    {
+        this.file = File.createTempFile("ion", ".spill");
+        try
+        {
+            this.raf = new RandomAccessFile(file, "rw");
+        }
+        catch (final IOException e)
+        {
+            file.delete();
+            throw e;
+        }
+        this.channel = raf.getChannel();
+        this.patch = ByteBuffer.allocate(16);
+        this.out = newStream();
+    }
+
+    private CountingOutputStream newStream()
+    {
+        return new CountingOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    /** Returns the stream that appends to the file. */
+    /*package*/ OutputStream stream()
+    {
+        return out;
+    }
+
+    /** Returns the number of bytes appended since the last {@link #transferTo(OutputStream, long)}. */
+    /*package*/ long size()
+    {
+        return out.getCount();
+    }
+
+    /*package*/ void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    /**
+     * Overwrites previously appended bytes with {@code value} as a VarUInt padded to {@code width} bytes.
+     * The bytes must have been {@linkplain #flush() flushed}.
+     */
+    /*package*/ void writePaddedVarUIntAt(final long position, final long value, final int width) throws IOException
+    {
+        patch.clear();
+        for (int i = width - 1; i >= 0; i--)
+        {
+            int b = (int) (value >>> (7 * i)) & 0x7F;
+            if (i == 0)
+            {
+                b |= 0x80;
+            }
+            patch.put((byte) b);
+        }
+        patch.flip();
+        long offset = position;
+        while (patch.hasRemaining())
+        {
+            offset += channel.write(patch, offset);
+        }
+    }
+
+    /**
+     * Copies the appended bytes to {@code target} and empties the file for reuse.
+     *
+     * @param following the number of bytes the caller will write to {@code target} after these, which a
+     *  {@link GatheringOutputStream} checks will fit before writing anything.
+     */
+    /*package*/ void transferTo(final OutputStream target, final long following) throws IOException
+    {
+        out.flush();
+        final long size = out.getCount();
+        if (target instanceof GatheringOutputStream)
+        {
+            ((GatheringOutputStream) target).transferFrom(channel, size, following);
+        }
+        else
+        {
+            final WritableByteChannel targetChannel = Channels.newChannel(target);
+            long position = 0;
+            while (position < size)
+            {
+                position += channel.transferTo(position, size - position, targetChannel);
+            }
+        }
+        channel.truncate(0);
+        channel.position(0);
+        out = newStream();
+    }
+
+    /*package*/ void close() throws IOException
+    {
+        try
+        {
+            raf.close();
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
@@ -18,18 +18,29 @@ package com.amazon.ion.impl.bin;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * A facade over {@link Block} management and low-level Ion encoding concerns for the {@link IonRawBinaryWriter}.
+ * <p>
+ * When the allocator vends off-heap blocks, values are encoded into a single on-heap staging block that stands
+ * in for the current block, and each block is copied off-heap as it fills up.  Only positional access to
+ * earlier blocks has to deal with off-heap memory.
  */
 /*package*/ final class WriteBuffer implements Closeable
 {
+    /** The largest scratch array used to copy off-heap data to a stream. */
+    private static final int MAX_COPY_BUFFER_SIZE = 8192;
+
     private final BlockAllocator allocator;
     private final List<Block> blocks;
     private Block current;
     private int index;
+    /** The on-heap block holding the content of block {@link #index}, or null if blocks are on-heap. */
+    private final Block staging;
+    private byte[] copyBuffer;
 
     public WriteBuffer(final BlockAllocator allocator)
     {
@@ -40,7 +51,20 @@ import java.util.List;
         allocateNewBlock();
 
         this.index = 0;
-        this.current = blocks.get(0);
+        if (blocks.get(0).data == null)
+        {
+            this.staging = new Block(new byte[allocator.getBlockSize()])
+            {
+                @Override
+                public void close() {}
+            };
+            this.current = staging;
+        }
+        else
+        {
+            this.staging = null;
+            this.current = blocks.get(0);
+        }
     }
 
     private void allocateNewBlock()
@@ -60,13 +84,54 @@ import java.util.List;
         return (int) (position % allocator.getBlockSize());
     }
 
+    /** Returns the block holding the content at the given index. */
+    private Block block(final int index)
+    {
+        if (staging != null && index == this.index)
+        {
+            return staging;
+        }
+        return blocks.get(index);
+    }
+
+    /** Moves on to the next block once the current one is full. */
+    private void nextBlock()
+    {
+        if (staging != null)
+        {
+            // move the staged content off-heap
+            final ByteBuffer direct = blocks.get(index).direct.duplicate();
+            direct.put(staging.data, 0, staging.limit);
+            blocks.get(index).limit = staging.limit;
+            staging.limit = 0;
+        }
+        if (index == blocks.size() - 1)
+        {
+            allocateNewBlock();
+        }
+        index++;
+        if (staging == null)
+        {
+            current = blocks.get(index);
+            // the block may still hold content from before a truncation
+            current.limit = 0;
+        }
+    }
+
     /** Resets the write buffer to empty. */
     public void reset()
     {
         close();
         allocateNewBlock();
         index = 0;
-        current = blocks.get(index);
+        if (staging == null)
+        {
+            current = blocks.get(index);
+        }
+        else
+        {
+            staging.limit = 0;
+        }
     }
 
     public void close()
@@ -86,6 +151,18 @@ import java.util.List;
     {
         final int index = index(position);
         final int offset = offset(position);
+        if (staging != null)
+        {
+            if (index != this.index)
+            {
+                // bring the earlier block back into staging
+                final ByteBuffer direct = blocks.get(index).direct.duplicate();
+                direct.get(staging.data, 0, offset);
+                this.index = index;
+            }
+            staging.limit = offset;
+            return;
+        }
         final Block block = blocks.get(index);
         this.index = index;
         block.limit = offset;
@@ -111,21 +188,33 @@ import java.util.List;
     {
         final int index = index(position);
         final int offset = offset(position);
-        final Block block = blocks.get(index);
+        final Block block = block(index);
+        if (block.data == null)
+        {
+            return block.direct.get(offset) & OCTET_MASK;
+        }
         return block.data[offset] & OCTET_MASK;
     }
 
+    /** Writes an octet at an offset within a block, which may be off-heap. */
+    private static void putUInt8(final Block block, final int offset, final long value)
+    {
+        if (block.data == null)
+        {
+            block.direct.put(offset, (byte) value);
+        }
+        else
+        {
+            block.data[offset] = (byte) value;
+        }
+    }
+
     /** Writes a single octet to the buffer, expanding if necessary. */
     public void writeByte(final byte octet)
     {
         if (remaining() < 1)
         {
-            if (index == blocks.size() - 1)
-            {
-                allocateNewBlock();
-            }
-            index++;
-            current = blocks.get(index);
+            nextBlock();
         }
         final Block block = current;
         block.data[block.limit] = octet;
@@ -145,12 +234,7 @@ import java.util.List;
             len -= amount;
             if (block.remaining() == 0)
             {
-                if (index == blocks.size() - 1)
-                {
-                    allocateNewBlock();
-                }
-                index++;
-                current = blocks.get(index);
+                nextBlock();
             }
         }
 
@@ -1037,10 +1121,8 @@ import java.util.List;
     private void writeVarUIntDirect2StraddlingAt(final int index, final int offset, final long value)
     {
         // XXX we're stradling a block
-        final Block block1 = blocks.get(index);
-        block1.data[offset] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        final Block block2 = blocks.get(index + 1);
-        block2.data[0]      = (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        putUInt8(block(index),     offset, (value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
+        putUInt8(block(index + 1), 0,      (value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
     }
 
     public void writeVarUIntDirect2At(long position, long value)
@@ -1054,9 +1136,9 @@ import java.util.List;
             return;
         }
 
-        final Block block = blocks.get(index);
-        block.data[offset    ] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        block.data[offset + 1] = (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        final Block block = block(index);
+        putUInt8(block, offset,     (value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
+        putUInt8(block, offset + 1, (value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
     }
 
     public void writeUInt8At(final long position, final long value)
@@ -1065,8 +1147,49 @@ import java.util.List;
         final int offset = offset(position);
 
         // XXX we'll never overrun a block unless we're given a position past our block array
-        final Block block = blocks.get(index);
-        block.data[offset] = (byte) value;
+        putUInt8(block(index), offset, value);
+    }
+
+    /** Writes block data, queuing it rather than copying it if the stream allows. */
+    private void writeBlock(final OutputStream out, final Block block, final int offset, final int length)
+        throws IOException
+    {
+        if (out instanceof GatheringOutputStream)
+        {
+            final GatheringOutputStream gathering = (GatheringOutputStream) out;
+            if (block.data == null)
+            {
+                gathering.writeBlock(block.direct, offset, length);
+            }
+            else
+            {
+                gathering.writeBlock(block.data, offset, length);
+            }
+        }
+        else if (block.data == null)
+        {
+            // streams only take arrays, so off-heap data is copied through a scratch array
+            // sized by the largest copy so far, so a small first segment doesn't make later copies piecemeal
+            final int size = Math.min(length, MAX_COPY_BUFFER_SIZE);
+            if (copyBuffer == null || copyBuffer.length < size)
+            {
+                copyBuffer = new byte[size];
+            }
+            final ByteBuffer direct = block.direct.duplicate();
+            direct.position(offset);
+            int remaining = length;
+            while (remaining > 0)
+            {
+                final int amount = Math.min(remaining, copyBuffer.length);
+                direct.get(copyBuffer, 0, amount);
+                out.write(copyBuffer, 0, amount);
+                remaining -= amount;
+            }
+        }
+        else
+        {
+            out.write(block.data, offset, length);
+        }
     }
 
     /** Write the entire buffer to output stream. */
@@ -1074,8 +1197,8 @@ import java.util.List;
     {
         for (int i = 0; i <= index; i++)
         {
-            Block block = blocks.get(i);
-            out.write(block.data, 0, block.limit);
+            Block block = block(i);
+            writeBlock(out, block, 0, block.limit);
         }
     }
 
@@ -1086,9 +1209,9 @@ import java.util.List;
         {
             final int index = index(position);
             final int offset = offset(position);
-            final Block block = blocks.get(index);
-            final int amount = (int) Math.min(block.data.length - offset, length);
-            out.write(block.data, offset, amount);
+            final Block block = block(index);
+            final int amount = (int) Math.min(block.capacity() - offset, length);
+            writeBlock(out, block, offset, amount);
 
             position += amount;
             length -= amount;
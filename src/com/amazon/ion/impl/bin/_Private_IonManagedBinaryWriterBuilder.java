@@ -32,8 +32,11 @@ import com.amazon.ion.impl.bin.IonRawBinaryWriter.PreallocationMode;
 import com.amazon.ion.system.SimpleCatalog;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 // TODO unify this with the IonWriter builder APIs
 
@@ -62,6 +65,27 @@ public final class _Private_IonManagedBinaryWriterBuilder
             {
                 return BlockAllocatorProviders.basicProvider();
             }
+        },
+        /** Pools blocks of off-heap memory, so that buffered output doesn't add to heap pressure. */
+        DIRECT
+        {
+            @Override
+            BlockAllocatorProvider createAllocatorProvider()
+            {
+                return new DirectBlockAllocatorProvider();
+            }
+        },
+        /**
+         * Pools blocks in free lists striped by thread, retaining at most
+         * {@link _Private_IonManagedBinaryWriterBuilder#DEFAULT_MAX_RETAINED_BYTES} of free blocks.
+         */
+        BOUNDED_POOLED
+        {
+            @Override
+            BlockAllocatorProvider createAllocatorProvider()
+            {
+                return new BoundedPooledBlockAllocatorProvider(DEFAULT_MAX_RETAINED_BYTES);
+            }
         };
 
         /*package*/ abstract BlockAllocatorProvider createAllocatorProvider();
@@ -69,7 +93,62 @@ public final class _Private_IonManagedBinaryWriterBuilder
 
     public static final int DEFAULT_BLOCK_SIZE = 32768;
 
-    /*package*/ final    BlockAllocatorProvider provider;
+    /** The default bound on free blocks kept by {@link AllocatorMode#BOUNDED_POOLED}. */
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * A snapshot of the counters of a bounded allocation pool.
+     *
+     * @see _Private_IonManagedBinaryWriterBuilder#getPoolStatistics()
+     */
+    public static final class PoolStatistics
+    {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long retainedBytes;
+
+        private PoolStatistics(final BoundedPooledBlockAllocatorProvider pool)
+        {
+            this.hits = pool.getHits();
+            this.misses = pool.getMisses();
+            this.evictions = pool.getEvictions();
+            this.retainedBytes = pool.getRetainedBytes();
+        }
+
+        /** Returns the number of block allocations satisfied from the pool. */
+        public long getHits()
+        {
+            return hits;
+        }
+
+        /** Returns the number of block allocations that created a new block. */
+        public long getMisses()
+        {
+            return misses;
+        }
+
+        /** Returns the number of released blocks dropped because the pool was full. */
+        public long getEvictions()
+        {
+            return evictions;
+        }
+
+        /** Returns the number of bytes held in free blocks. */
+        public long getRetainedBytes()
+        {
+            return retainedBytes;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "PoolStatistics(hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", retainedBytes=" + retainedBytes + ")";
+        }
+    }
+
+    /*package*/ volatile BlockAllocatorProvider provider;
     /*package*/ volatile int                    symbolsBlockSize;
     /*package*/ volatile int                    userBlockSize;
     /*package*/ volatile PreallocationMode      preallocationMode;
@@ -78,6 +157,8 @@ public final class _Private_IonManagedBinaryWriterBuilder
     /*package*/ volatile WriteValueOptimization optimization;
     /*package*/ volatile SymbolTable            initialSymbolTable;
     /*package*/ volatile boolean                isFloatBinary32Enabled;
+    /*package*/ volatile int                    spillThreshold;
+    /*package*/ volatile boolean                isLocalSymbolTableAppendEnabled;
 
     private _Private_IonManagedBinaryWriterBuilder(final BlockAllocatorProvider provider)
     {
@@ -89,6 +170,8 @@ public final class _Private_IonManagedBinaryWriterBuilder
         this.catalog = new SimpleCatalog();
         this.optimization = WriteValueOptimization.NONE;
         this.isFloatBinary32Enabled = false;
+        this.spillThreshold = 0;
+        this.isLocalSymbolTableAppendEnabled = false;
     }
 
     private _Private_IonManagedBinaryWriterBuilder(final _Private_IonManagedBinaryWriterBuilder other)
@@ -102,6 +185,8 @@ public final class _Private_IonManagedBinaryWriterBuilder
         this.optimization       = other.optimization;
         this.initialSymbolTable = other.initialSymbolTable;
         this.isFloatBinary32Enabled = other.isFloatBinary32Enabled;
+        this.spillThreshold     = other.spillThreshold;
+        this.isLocalSymbolTableAppendEnabled = other.isLocalSymbolTableAppendEnabled;
     }
 
     public _Private_IonManagedBinaryWriterBuilder copy()
@@ -111,6 +196,38 @@ public final class _Private_IonManagedBinaryWriterBuilder
 
     // Parameter Setting Methods
 
+    /** Binds to a new allocation pool of the given kind. */
+    public _Private_IonManagedBinaryWriterBuilder withAllocatorMode(final AllocatorMode allocatorMode)
+    {
+        provider = allocatorMode.createAllocatorProvider();
+        return this;
+    }
+
+    /**
+     * Binds to a new allocation pool that keeps at most the given number of bytes of free blocks.
+     *
+     * @see AllocatorMode#BOUNDED_POOLED
+     */
+    public _Private_IonManagedBinaryWriterBuilder withBoundedPool(final long maxRetainedBytes)
+    {
+        provider = new BoundedPooledBlockAllocatorProvider(maxRetainedBytes);
+        return this;
+    }
+
+    /**
+     * Returns the current counters of this builder's allocation pool, or {@code null} if the pool
+     * is not bounded.
+     */
+    public PoolStatistics getPoolStatistics()
+    {
+        final BlockAllocatorProvider current = provider;
+        if (current instanceof BoundedPooledBlockAllocatorProvider)
+        {
+            return new PoolStatistics((BoundedPooledBlockAllocatorProvider) current);
+        }
+        return null;
+    }
+
     public _Private_IonManagedBinaryWriterBuilder withSymbolsBlockSize(final int blockSize)
     {
         if (blockSize < 1)
@@ -203,6 +320,35 @@ public final class _Private_IonManagedBinaryWriterBuilder
         return this;
     }
 
+    /**
+     * Lets writers flush at the top level without locking their local symbol table.  Symbols added after a
+     * flush are declared by a local symbol table that imports the current one ({@code imports: $ion_symbol_table}),
+     * rather than by restating every symbol.
+     */
+    public _Private_IonManagedBinaryWriterBuilder withLocalSymbolTableAppendEnabled() {
+        isLocalSymbolTableAppendEnabled = true;
+        return this;
+    }
+
+    public _Private_IonManagedBinaryWriterBuilder withLocalSymbolTableAppendDisabled() {
+        isLocalSymbolTableAppendEnabled = false;
+        return this;
+    }
+
+    /**
+     * Spills a top-level value to a temporary file once it has buffered {@code threshold} bytes, so that
+     * writers buffer only the open containers of arbitrarily large values.  Zero disables spilling.
+     */
+    public _Private_IonManagedBinaryWriterBuilder withSpillThreshold(final int threshold)
+    {
+        if (threshold < 0)
+        {
+            throw new IllegalArgumentException("Spill threshold cannot be negative: " + threshold);
+        }
+        spillThreshold = threshold;
+        return this;
+    }
+
     public _Private_IonManagedBinaryWriterBuilder withInitialSymbolTable(SymbolTable symbolTable)
     {
         if (symbolTable != null)
@@ -245,6 +391,64 @@ public final class _Private_IonManagedBinaryWriterBuilder
         return new IonManagedBinaryWriter(this, out);
     }
 
+    /**
+     * Constructs a writer that emits its blocks to a channel with a single gathering write per flush.
+     */
+    public IonWriter newWriter(final WritableByteChannel channel) throws IOException
+    {
+        return new IonManagedBinaryWriter(this, GatheringOutputStream.toChannel(channel));
+    }
+
+    /**
+     * Constructs a writer that puts its blocks into a caller-provided buffer on each flush.
+     */
+    public IonWriter newWriter(final ByteBuffer buffer) throws IOException
+    {
+        return new IonManagedBinaryWriter(this, GatheringOutputStream.toBuffer(buffer));
+    }
+
+    /**
+     * Constructs a writer that reports the position of every top-level value it emits, along with the
+     * symbol table context in which it must be read.
+     */
+    public IonWriter newWriter(final OutputStream out, final _Private_IonValueOffsetListener listener)
+        throws IOException
+    {
+        return new IonManagedBinaryWriter(this, out, listener);
+    }
+
+    /**
+     * Constructs a writer that encodes records on the given executor and emits them, in order, to a single stream.
+     * Records are encoded in batches of {@link _Private_IonParallelBinaryWriter#DEFAULT_BATCH_SIZE}, with up to
+     * two batches per available processor in flight.
+     */
+    public _Private_IonParallelBinaryWriter newParallelWriter(final OutputStream out, final ExecutorService executor)
+        throws IOException
+    {
+        return newParallelWriter(
+            out,
+            executor,
+            _Private_IonParallelBinaryWriter.DEFAULT_BATCH_SIZE,
+            2 * Runtime.getRuntime().availableProcessors()
+        );
+    }
+
+    /**
+     * Constructs a writer that encodes records on the given executor and emits them, in order, to a single stream.
+     *
+     * @param batchSize         the number of records encoded by each task.
+     * @param maxPendingBatches the number of batches that may be encoded or waiting to be emitted before writing
+     *                          a record blocks.
+     */
+    public _Private_IonParallelBinaryWriter newParallelWriter(final OutputStream out,
+                                                              final ExecutorService executor,
+                                                              final int batchSize,
+                                                              final int maxPendingBatches)
+        throws IOException
+    {
+        return new _Private_IonParallelBinaryWriter(this, out, executor, batchSize, maxPendingBatches);
+    }
+
     public IonBinaryWriter newLegacyWriter()
     {
         try
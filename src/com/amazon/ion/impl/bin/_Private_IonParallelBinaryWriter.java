@@ -0,0 +1,713 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static com.amazon.ion.IonType.LIST;
+import static com.amazon.ion.IonType.STRUCT;
+import static com.amazon.ion.SystemSymbols.IMPORTS_SID;
+import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
+import static com.amazon.ion.SystemSymbols.MAX_ID_SID;
+import static com.amazon.ion.SystemSymbols.NAME_SID;
+import static com.amazon.ion.SystemSymbols.SYMBOLS_SID;
+import static com.amazon.ion.SystemSymbols.VERSION_SID;
+import static com.amazon.ion.impl.bin.Symbols.systemSymbol;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.impl.bin.AbstractIonWriter.WriteValueOptimization;
+import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamCloseMode;
+import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Encodes independent top-level values on multiple threads into a single binary Ion stream.
+ * <p>
+ * Records are grouped into batches, and each batch is encoded by a task on the given executor into its own
+ * buffer.  All batches intern their symbols into one {@link SharedLocalSymbolTable}, so the symbol IDs they use
+ * are consistent.  Finished batches are emitted in the order their records were written, each preceded by a
+ * local symbol table append declaring any symbols it uses that have not yet been declared.  The output is an
+ * ordinary Ion 1.0 stream that any reader can consume.
+ * <p>
+ * Methods of this class must be called from a single thread.  Records are encoded concurrently with each other,
+ * so they must not share mutable state without synchronization.
+ *
+ * @deprecated This is a private API subject to change without notice.
+ */
+@Deprecated
+public final class _Private_IonParallelBinaryWriter implements Closeable, Flushable
+{
+    /** Writes one or more top-level values. */
+    public interface Record
+    {
+        /**
+         * Writes this record's values to the given writer, which is only valid for the duration of the call.
+         * The writer must be left at the top level.
+         */
+        void writeTo(IonWriter writer) throws IOException;
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /** Holds the output of a batch until it is its turn to be emitted. */
+    private static final class DeferredOutputStream extends OutputStream
+    {
+        private OutputStream out;
+
+        private OutputStream target()
+        {
+            if (out == null)
+            {
+                throw new IllegalStateException("Batch output is not ready to be emitted");
+            }
+            return out;
+        }
+
+        @Override
+        public void write(final int b) throws IOException
+        {
+            target().write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException
+        {
+            target().write(b, off, len);
+        }
+    }
+
+    private static final OutputStream DISCARD = new OutputStream()
+    {
+        @Override
+        public void write(final int b) {}
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {}
+    };
+
+    /** An encoded batch, waiting to be emitted. */
+    private static final class Batch
+    {
+        private final IonRawBinaryWriter writer;
+        private final DeferredOutputStream out;
+        private int maxSid;
+
+        private Batch(final _Private_IonManagedBinaryWriterBuilder builder) throws IOException
+        {
+            this.out = new DeferredOutputStream();
+            this.writer = new IonRawBinaryWriter(
+                builder.provider,
+                builder.userBlockSize,
+                out,
+                WriteValueOptimization.NONE,
+                StreamCloseMode.NO_CLOSE,
+                StreamFlushMode.NO_FLUSH,
+                builder.preallocationMode,
+                builder.isFloatBinary32Enabled
+            );
+        }
+
+        /** Releases the batch's blocks without emitting it. */
+        private void discard() throws IOException
+        {
+            out.out = DISCARD;
+            writer.close();
+        }
+    }
+
+    /** The writer handed to records, which interns into the shared symbol table. */
+    private static final class RecordWriter extends AbstractIonWriter
+    {
+        private final SharedLocalSymbolTable symbols;
+        private final IonCatalog catalog;
+        private final Batch batch;
+        private final IonRawBinaryWriter user;
+
+        private RecordWriter(final SharedLocalSymbolTable symbols, final IonCatalog catalog, final Batch batch)
+        {
+            super(WriteValueOptimization.NONE);
+            this.symbols = symbols;
+            this.catalog = catalog;
+            this.batch = batch;
+            this.user = batch.writer;
+        }
+
+        private SymbolToken intern(final String text)
+        {
+            if (text == null)
+            {
+                return null;
+            }
+            final SymbolToken token = symbols.intern(text);
+            if (token.getSid() > batch.maxSid)
+            {
+                batch.maxSid = token.getSid();
+            }
+            return token;
+        }
+
+        private SymbolToken intern(final SymbolToken token)
+        {
+            if (token == null)
+            {
+                return null;
+            }
+            final String text = token.getText();
+            if (text != null)
+            {
+                return intern(text);
+            }
+            final int sid = token.getSid();
+            symbols.checkSid(sid);
+            if (sid > batch.maxSid)
+            {
+                batch.maxSid = sid;
+            }
+            return token;
+        }
+
+        @Override
+        public <T> T asFacet(final Class<T> facetType)
+        {
+            // the raw writer must not be used directly, since symbol use is tracked here
+            return null;
+        }
+
+        public IonCatalog getCatalog()
+        {
+            return catalog;
+        }
+
+        public SymbolTable getSymbolTable()
+        {
+            return symbols;
+        }
+
+        public boolean isFieldNameSet()
+        {
+            return user.isFieldNameSet();
+        }
+
+        public void writeIonVersionMarker() throws IOException
+        {
+            throw new UnsupportedOperationException("Records cannot reset the shared symbol table");
+        }
+
+        public int getDepth()
+        {
+            return user.getDepth();
+        }
+
+        public boolean isInStruct()
+        {
+            return user.isInStruct();
+        }
+
+        public void setFieldName(final String name)
+        {
+            if (!isInStruct())
+            {
+                throw new IllegalStateException("IonWriter.setFieldName() must be called before writing a value into a struct.");
+            }
+            if (name == null)
+            {
+                throw new NullPointerException("Null field name is not allowed.");
+            }
+            user.setFieldNameSymbol(intern(name));
+        }
+
+        public void setFieldNameSymbol(final SymbolToken token)
+        {
+            user.setFieldNameSymbol(intern(token));
+        }
+
+        public void setTypeAnnotations(final String... annotations)
+        {
+            if (annotations == null)
+            {
+                user.setTypeAnnotationSymbols((SymbolToken[]) null);
+            }
+            else
+            {
+                final SymbolToken[] tokens = new SymbolToken[annotations.length];
+                for (int i = 0; i < tokens.length; i++)
+                {
+                    tokens[i] = intern(annotations[i]);
+                }
+                user.setTypeAnnotationSymbols(tokens);
+            }
+        }
+
+        public void setTypeAnnotationSymbols(final SymbolToken... annotations)
+        {
+            if (annotations == null)
+            {
+                user.setTypeAnnotationSymbols((SymbolToken[]) null);
+            }
+            else
+            {
+                for (int i = 0; i < annotations.length; i++)
+                {
+                    annotations[i] = intern(annotations[i]);
+                }
+                user.setTypeAnnotationSymbols(annotations);
+            }
+        }
+
+        public void addTypeAnnotation(final String annotation)
+        {
+            user.addTypeAnnotationSymbol(intern(annotation));
+        }
+
+        public void stepIn(final IonType containerType) throws IOException
+        {
+            user.stepIn(containerType);
+        }
+
+        public void stepOut() throws IOException
+        {
+            user.stepOut();
+        }
+
+        public void writeNull() throws IOException
+        {
+            user.writeNull();
+        }
+
+        public void writeNull(final IonType type) throws IOException
+        {
+            user.writeNull(type);
+        }
+
+        public void writeBool(final boolean value) throws IOException
+        {
+            user.writeBool(value);
+        }
+
+        public void writeInt(final long value) throws IOException
+        {
+            user.writeInt(value);
+        }
+
+        public void writeInt(final BigInteger value) throws IOException
+        {
+            user.writeInt(value);
+        }
+
+        public void writeFloat(final double value) throws IOException
+        {
+            user.writeFloat(value);
+        }
+
+        public void writeDecimal(final BigDecimal value) throws IOException
+        {
+            user.writeDecimal(value);
+        }
+
+        public void writeTimestamp(final Timestamp value) throws IOException
+        {
+            user.writeTimestamp(value);
+        }
+
+        public void writeSymbol(final String content) throws IOException
+        {
+            user.writeSymbolToken(intern(content));
+        }
+
+        public void writeSymbolToken(final SymbolToken token) throws IOException
+        {
+            user.writeSymbolToken(intern(token));
+        }
+
+        public void writeString(final String value) throws IOException
+        {
+            user.writeString(value);
+        }
+
+        @Override
+        public void writeString(final byte[] data, final int offset, final int length) throws IOException
+        {
+            user.writeString(data, offset, length);
+        }
+
+        public void writeClob(final byte[] data) throws IOException
+        {
+            user.writeClob(data);
+        }
+
+        public void writeClob(final byte[] data, final int offset, final int length) throws IOException
+        {
+            user.writeClob(data, offset, length);
+        }
+
+        public void writeBlob(final byte[] data) throws IOException
+        {
+            user.writeBlob(data);
+        }
+
+        public void writeBlob(final byte[] data, final int offset, final int length) throws IOException
+        {
+            user.writeBlob(data, offset, length);
+        }
+
+        public void writeBytes(final byte[] data, final int off, final int len) throws IOException
+        {
+            throw new UnsupportedOperationException("Raw transfer is not supported for parallel encoding");
+        }
+
+        // the batch is emitted by the parallel writer, so records can't terminate the stream
+
+        public void flush() {}
+
+        public void finish()
+        {
+            if (getDepth() != 0)
+            {
+                throw new IllegalStateException("IonWriter.finish() can only be called at top-level.");
+            }
+        }
+
+        public void close() {}
+    }
+
+    private final _Private_IonManagedBinaryWriterBuilder builder;
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxPendingBatches;
+
+    private final SharedLocalSymbolTable symbols;
+    private final IonRawBinaryWriter symbolsWriter;
+    /** The number of local symbols declared in the output so far, or -1 if no table has been written. */
+    private int declaredSymbolCount;
+    private boolean hasWrittenIVM;
+
+    private List<Record> records;
+    private final ArrayDeque<Future<Batch>> pending;
+    private boolean closed;
+
+    /*package*/ _Private_IonParallelBinaryWriter(final _Private_IonManagedBinaryWriterBuilder builder,
+                                                 final OutputStream out,
+                                                 final ExecutorService executor,
+                                                 final int batchSize,
+                                                 final int maxPendingBatches)
+                                                 throws IOException
+    {
+        if (out == null || executor == null) { throw new NullPointerException(); }
+        if (batchSize < 1)
+        {
+            throw new IllegalArgumentException("Batch size cannot be less than 1: " + batchSize);
+        }
+        if (maxPendingBatches < 1)
+        {
+            throw new IllegalArgumentException("Maximum pending batches cannot be less than 1: " + maxPendingBatches);
+        }
+        this.builder = builder.copy();
+        this.out = out;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+        this.symbols = new SharedLocalSymbolTable(builder.imports);
+        this.symbolsWriter = new IonRawBinaryWriter(
+            builder.provider,
+            builder.symbolsBlockSize,
+            out,
+            WriteValueOptimization.NONE,
+            StreamCloseMode.NO_CLOSE,
+            StreamFlushMode.NO_FLUSH,
+            builder.preallocationMode,
+            builder.isFloatBinary32Enabled
+        );
+        this.declaredSymbolCount = -1;
+        this.records = new ArrayList<Record>(batchSize);
+        this.pending = new ArrayDeque<Future<Batch>>();
+    }
+
+    /** Returns the symbol table shared by all records. */
+    public SymbolTable getSymbolTable()
+    {
+        return symbols;
+    }
+
+    /**
+     * Queues a record to be encoded.  Finished batches are emitted as this method is called, and it blocks
+     * while the maximum number of batches are pending.
+     */
+    public void write(final Record record) throws IOException
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("Writer is closed");
+        }
+        if (record == null) { throw new NullPointerException(); }
+        records.add(record);
+        if (records.size() >= batchSize)
+        {
+            submitBatch();
+            emitBatches(false);
+        }
+    }
+
+    private void submitBatch()
+    {
+        if (records.isEmpty())
+        {
+            return;
+        }
+        final List<Record> batchRecords = records;
+        records = new ArrayList<Record>(batchSize);
+        pending.add(executor.submit(new Callable<Batch>()
+        {
+            public Batch call() throws Exception
+            {
+                return encode(batchRecords);
+            }
+        }));
+    }
+
+    private Batch encode(final List<Record> batchRecords) throws IOException
+    {
+        final Batch batch = new Batch(builder);
+        final RecordWriter writer = new RecordWriter(symbols, builder.catalog, batch);
+        boolean success = false;
+        try
+        {
+            for (final Record record : batchRecords)
+            {
+                record.writeTo(writer);
+                if (writer.getDepth() != 0)
+                {
+                    throw new IllegalStateException("Record did not step out of its containers");
+                }
+            }
+            success = true;
+        }
+        finally
+        {
+            if (!success)
+            {
+                batch.discard();
+            }
+        }
+        return batch;
+    }
+
+    /** Emits finished batches in order, waiting for all of them if {@code all} is set. */
+    private void emitBatches(final boolean all) throws IOException
+    {
+        while (!pending.isEmpty())
+        {
+            final Future<Batch> next = pending.peek();
+            if (!all && !next.isDone() && pending.size() < maxPendingBatches)
+            {
+                return;
+            }
+            pending.poll();
+            final Batch batch;
+            try
+            {
+                batch = await(next);
+            }
+            catch (final IOException e)
+            {
+                discardBatches();
+                throw e;
+            }
+            catch (final RuntimeException e)
+            {
+                discardBatches();
+                throw e;
+            }
+            emit(batch);
+        }
+    }
+
+    private static Batch await(final Future<Batch> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a batch to be encoded");
+        }
+        catch (final ExecutionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IonException("Error encoding batch", cause);
+        }
+    }
+
+    /** Releases the batches that will never be emitted after a failure. */
+    private void discardBatches()
+    {
+        while (!pending.isEmpty())
+        {
+            try
+            {
+                await(pending.poll()).discard();
+            }
+            catch (final Exception e)
+            {
+                // the first failure is the one reported
+            }
+        }
+        records.clear();
+    }
+
+    private void emit(final Batch batch) throws IOException
+    {
+        try
+        {
+            if (!hasWrittenIVM)
+            {
+                symbolsWriter.writeIonVersionMarker();
+                hasWrittenIVM = true;
+            }
+            final int usedSymbolCount = Math.max(symbols.localIndex(batch.maxSid) + 1, 0);
+            if (declaredSymbolCount < 0 && (usedSymbolCount > 0 || !symbols.getImports().isEmpty()))
+            {
+                writeSymbolTable(0, usedSymbolCount, /*append*/ false);
+            }
+            else if (usedSymbolCount > declaredSymbolCount && declaredSymbolCount >= 0)
+            {
+                writeSymbolTable(declaredSymbolCount, usedSymbolCount, /*append*/ true);
+            }
+            symbolsWriter.finish();
+
+            batch.out.out = out;
+            batch.writer.finish();
+        }
+        finally
+        {
+            batch.discard();
+        }
+    }
+
+    /** Declares the local symbols in the given range, appending to the current table or starting a new one. */
+    private void writeSymbolTable(final int fromIndex, final int toIndex, final boolean append) throws IOException
+    {
+        symbolsWriter.addTypeAnnotationSymbol(systemSymbol(ION_SYMBOL_TABLE_SID));
+        symbolsWriter.stepIn(STRUCT);
+        {
+            if (append)
+            {
+                symbolsWriter.setFieldNameSymbol(systemSymbol(IMPORTS_SID));
+                symbolsWriter.writeSymbolToken(systemSymbol(ION_SYMBOL_TABLE_SID));
+            }
+            else if (!symbols.getImports().isEmpty())
+            {
+                symbolsWriter.setFieldNameSymbol(systemSymbol(IMPORTS_SID));
+                symbolsWriter.stepIn(LIST);
+                for (final SymbolTable st : symbols.getImports())
+                {
+                    symbolsWriter.stepIn(STRUCT);
+                    {
+                        symbolsWriter.setFieldNameSymbol(systemSymbol(NAME_SID));
+                        symbolsWriter.writeString(st.getName());
+                        symbolsWriter.setFieldNameSymbol(systemSymbol(VERSION_SID));
+                        symbolsWriter.writeInt(st.getVersion());
+                        symbolsWriter.setFieldNameSymbol(systemSymbol(MAX_ID_SID));
+                        symbolsWriter.writeInt(st.getMaxId());
+                    }
+                    symbolsWriter.stepOut();
+                }
+                symbolsWriter.stepOut();
+            }
+            if (toIndex > fromIndex)
+            {
+                symbolsWriter.setFieldNameSymbol(systemSymbol(SYMBOLS_SID));
+                symbolsWriter.stepIn(LIST);
+                for (final String text : symbols.getLocalSymbols(fromIndex, toIndex))
+                {
+                    symbolsWriter.writeString(text);
+                }
+                symbolsWriter.stepOut();
+            }
+        }
+        symbolsWriter.stepOut();
+        declaredSymbolCount = toIndex;
+    }
+
+    /** Encodes and emits every record written so far, then flushes the output. */
+    public void flush() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        submitBatch();
+        emitBatches(true);
+        out.flush();
+    }
+
+    /** Flushes the records written so far and closes the output.  The executor is not shut down. */
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            closed = true;
+            discardBatches();
+            try
+            {
+                symbolsWriter.close();
+            }
+            finally
+            {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+/**
+ * Receives the positions of the top-level user values emitted by a managed
+ * binary writer, along with the symbol table context each one is read in.
+ * Positions are byte offsets from the start of the writer's output.
+ * <p>
+ * Calls are made as the writer pushes data to its output stream, so every
+ * position reported refers to bytes that have already been written.
+ *
+ * @deprecated This is a private API subject to change without notice.
+ */
+@Deprecated
+public interface _Private_IonValueOffsetListener
+{
+    /**
+     * Called when the values that follow are read with a new symbol table.
+     * The system values in the output between {@code start} and
+     * {@code finish} (an IVM, local symbol table or both) establish that
+     * table, starting from the system symbol table.
+     */
+    void symbolTableCheckpoint(long start, long finish);
+
+    /**
+     * Called for each top-level user value, in order.
+     */
+    void topLevelValue(long offset);
+}
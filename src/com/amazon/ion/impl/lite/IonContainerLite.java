@@ -22,25 +22,47 @@ import com.amazon.ion.IonException;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.NullValueException;
 import com.amazon.ion.ReadOnlyValueException;
+import com.amazon.ion.Span;
 import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
 import com.amazon.ion.ValueVisitor;
 import com.amazon.ion.impl._Private_IonConstants;
 import com.amazon.ion.impl._Private_IonContainer;
 import com.amazon.ion.impl._Private_Utils;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 abstract class IonContainerLite
     extends IonValueLite
-    implements _Private_IonContainer, IonContext
+    implements _Private_IonContainer, IonContext, LazyChildSource
 {
 
     protected int            _child_count;
     protected IonValueLite[] _children;
     protected int            structuralModificationCount;
 
+    /**
+     * The hash code computed on first use, or zero if not yet known or
+     * {@link #_hash_is_zero}.  Any change to this container or its contents
+     * clears it, through {@link #clearHashCodes()}.  Once read-only, threads
+     * racing to set it compute the same value, so like
+     * {@link String#hashCode()} this needs no synchronization.
+     */
+    private int     _hash_code;
+    /** Whether the hash code is known to be zero. */
+    private boolean _hash_is_zero;
+
+    /**
+     * When not null, this container's children haven't been loaded yet.
+     * They are either still encoded at {@link #_lazy_span} in a
+     * {@link LazyContainerSource}, or are those of the read-only container
+     * this one was cloned from.
+     */
+    private LazyChildSource _lazy_source;
+    private Span            _lazy_span;
+
     protected IonContainerLite(ContainerlessContext context, boolean isNull)
     {
         // we'll let IonValueLite handle this work as we always need to know
@@ -50,42 +72,70 @@ abstract class IonContainerLite
 
     IonContainerLite(IonContainerLite existing, IonContext context, boolean isStruct) {
         super(existing, context);
+        // the source is immutable, so the clone can materialize from it too
+        this._lazy_source = existing._lazy_source;
+        this._lazy_span = existing._lazy_span;
+        if (existing._children != null) {
+            if (existing._isLocked() && !existing._isSymbolIdPresent()
+                && !(this instanceof IonDatagramLite))
+            {
+                // the existing children can't change, so copying them can
+                // wait until ours are needed; their containers will defer
+                // in turn, so only the paths actually visited get copied
+                this._lazy_source = existing;
+            }
+            else {
+                copyChildren(existing, isStruct);
+            }
+        }
+    }
+
+    /**
+     * Copies a read-only container's children into a clone of it that
+     * deferred the copy.
+     */
+    public final void materialize(IonContainerLite clone, Span span)
+    {
+        assert _isLocked() && span == null;
+        clone.copyChildren(this, this instanceof IonStructLite);
+    }
+
+    private void copyChildren(IonContainerLite existing, boolean isStruct)
+    {
         boolean retainingSIDs = false;
         int childCount = existing._child_count;
         this._child_count = childCount;
         // when cloning the children we establish 'this' the cloned outer container as the context
-        if (existing._children != null) {
-            boolean isDatagram = this instanceof IonDatagramLite;
-            this._children = new IonValueLite[childCount];
-            for (int i = 0; i < childCount; i++) {
-                IonValueLite child = existing._children[i];
-                IonContext childContext = isDatagram
-                     ? TopLevelContext.wrap(child.getAssignedSymbolTable(), (IonDatagramLite)this)
-                     : this;
-
-                IonValueLite copy = child.clone(childContext);
-                if (isStruct) {
-                    if(child.getFieldName() == null) {
-                        // when name is null it could be a sid 0 so we need to perform the full symbol token lookup.
-                        // this is expensive so only do it when necessary
-                        // TODO profile `getKnownFieldNameSymbol` to see if we can improve its performance so branching
-                        // is not necessary. https://github.com/amzn/ion-java/issues/140
-                        copy.setFieldNameSymbol(child.getKnownFieldNameSymbol());
-                    }
-                    else {
-                        // if we have a non null name copying it is sufficient
-                        copy.setFieldName(child.getFieldName());
-                    }
+        boolean isDatagram = this instanceof IonDatagramLite;
+        this._children = new IonValueLite[childCount];
+        for (int i = 0; i < childCount; i++) {
+            IonValueLite child = existing._children[i];
+            IonContext childContext = isDatagram
+                 ? TopLevelContext.wrap(child.getAssignedSymbolTable(), (IonDatagramLite)this)
+                 : this;
+
+            IonValueLite copy = child.clone(childContext);
+            if (isStruct) {
+                if(child.getFieldName() == null) {
+                    // when name is null it could be a sid 0 so we need to perform the full symbol token lookup.
+                    // this is expensive so only do it when necessary
+                    // TODO profile `getKnownFieldNameSymbol` to see if we can improve its performance so branching
+                    // is not necessary. https://github.com/amzn/ion-java/issues/140
+                    copy.setFieldNameSymbol(child.getKnownFieldNameSymbol());
+                }
+                else {
+                    // if we have a non null name copying it is sufficient
+                    copy.setFieldName(child.getFieldName());
                 }
-                this._children[i] = copy;
-                retainingSIDs |= copy._isSymbolIdPresent();
             }
-            // unfortunately due to the existing behavior in IonValueLite copy-constructor where annotation SID's are
-            // preserved across the copy-constructor IF they have no resolved text it means that encodings could have
-            // been preserved on the child - therefore the cloned children each have to be re-interrogated and the
-            // setting updated IF such a change has occurred.
-            _isSymbolIdPresent(retainingSIDs);
+            this._children[i] = copy;
+            retainingSIDs |= copy._isSymbolIdPresent();
         }
+        // unfortunately due to the existing behavior in IonValueLite copy-constructor where annotation SID's are
+        // preserved across the copy-constructor IF they have no resolved text it means that encodings could have
+        // been preserved on the child - therefore the cloned children each have to be re-interrogated and the
+        // setting updated IF such a change has occurred.
+        _isSymbolIdPresent(retainingSIDs);
     }
 
     @Override
@@ -94,12 +144,57 @@ abstract class IonContainerLite
     @Override
     public abstract IonContainer clone();
 
+    /**
+     * Caches the hash code until this container or its contents change.
+     */
+    @Override
+    final int hashCode(SymbolTableProvider symbolTableProvider)
+    {
+        int hash = _hash_code;
+        if (hash == 0 && !_hash_is_zero) {
+            hash = computeHashCode(symbolTableProvider);
+            if (hash == 0) {
+                _hash_is_zero = true;
+            }
+            else {
+                _hash_code = hash;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Discards the cached hash codes of this container and the containers
+     * around it.  Computing a container's hash caches those of everything
+     * in it, so the walk can stop at the first container without one.
+     */
+    @Override
+    final void clearHashCodes()
+    {
+        IonContainerLite container = this;
+        while (container != null
+               && (container._hash_code != 0 || container._hash_is_zero)) {
+            container._hash_code = 0;
+            container._hash_is_zero = false;
+            container = container.getContainer();
+        }
+    }
+
+    abstract int computeHashCode(SymbolTableProvider symbolTableProvider);
+
 
     public void clear()
     {
         checkForLock();
 
-        if (_isNullValue())
+        if (_lazy_source != null)
+        {
+            // no need to decode children only to discard them
+            _lazy_source = null;
+            _lazy_span = null;
+            structuralModificationCount++;
+        }
+        else if (_isNullValue())
         {
             assert _children == null;
             assert _child_count == 0;
@@ -186,6 +281,7 @@ abstract class IonContainerLite
             if (_isLocked() && !readOnly) {
                 throw new IllegalStateException("you can't open an updatable iterator on a read only value");
             }
+            if (_lazy_source != null) materialize();
             if (index < 0 || index > _child_count) {
                 throw new IndexOutOfBoundsException(Integer.toString(index));
             }
@@ -390,16 +486,22 @@ abstract class IonContainerLite
     }
 
     @Override
-    void makeReadOnlyInternal()
+    void makeReadOnlyInternal(Map<String, SymbolToken> symbols)
     {
         if (_isLocked()) return;
 
+        // reads of a read-only value must not change its state, so that it
+        // can be shared across threads; load any deferred children now
+        if (_lazy_source != null) materialize();
+
         if (_children != null) {
             for (int ii=0; ii<_child_count; ii++) {
                 IonValueLite child = _children[ii];
-                child.makeReadOnlyInternal();
+                child.makeReadOnlyInternal(symbols);
             }
         }
+        shareSymbols(symbols);
+        trimChildren();
         // we don't need to call our copy of clear symbol ID's
         // which recurses since the calls to child.makeReadOnly
         // will have clear out the child symbol ID's already
@@ -410,6 +512,24 @@ abstract class IonContainerLite
         _isLocked(true);
     }
 
+    /**
+     * Drops the unused slots of the child array, since a read-only
+     * container never grows.
+     */
+    final void trimChildren()
+    {
+        if (_children != null && _children.length != _child_count) {
+            if (_child_count == 0) {
+                _children = null;
+            }
+            else {
+                IonValueLite[] temp = new IonValueLite[_child_count];
+                System.arraycopy(_children, 0, temp, 0, _child_count);
+                _children = temp;
+            }
+        }
+    }
+
 
 
 
@@ -462,6 +582,9 @@ abstract class IonContainerLite
     {
         boolean symbolIDsAllCleared = super.attemptClearSymbolIDValues();
 
+        // unloaded children hold no SIDs yet, so leave them be
+        if (_lazy_source != null) return symbolIDsAllCleared;
+
         for (int ii = 0; ii < get_child_count(); ii++)
         {
             IonValueLite child = get_child(ii);
@@ -629,8 +752,8 @@ abstract class IonContainerLite
     }
 
     /**
-     * This is overriden in {@link IonStructLite} to add the {@link HashMap} of
-     * field names when the struct becomes moderately large.
+     * This is overriden in {@link IonStructLite} to add the
+     * {@link StructFieldIndex} when the struct becomes moderately large.
      *
      * @param size
      */
@@ -639,11 +762,44 @@ abstract class IonContainerLite
         return;
     }
 
+    /**
+     * Makes this container lazy; its children will be loaded from
+     * {@code span} in {@code source} the first time they're needed.
+     */
+    final void setLazySource(LazyContainerSource source, Span span)
+    {
+        assert _child_count == 0;
+        _lazy_source = source;
+        _lazy_span = span;
+    }
+
+    final boolean isMaterialized()
+    {
+        return _lazy_source == null;
+    }
+
+    /**
+     * Loads the children of a lazy container.  Read-only containers are
+     * never lazy, since {@link #makeReadOnly()} loads their children first.
+     */
+    private void materialize()
+    {
+        assert !_isLocked();
+        LazyChildSource source = _lazy_source;
+        Span span = _lazy_span;
+        _lazy_source = null;
+        _lazy_span = null;
+
+        source.materialize(this, span);
+    }
+
     public final int get_child_count() {
+        if (_lazy_source != null) materialize();
         return _child_count;
     }
 
     public final IonValueLite get_child(int idx) {
+        if (_lazy_source != null) materialize();
         if (idx < 0 || idx >= _child_count) {
             throw new IndexOutOfBoundsException(Integer.toString(idx));
         }
@@ -38,7 +38,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -160,11 +162,15 @@ final class IonDatagramLite
         }
 
         if (_children != null) {
+            Map<String, SymbolToken> symbols = new HashMap<String, SymbolToken>();
             for (int ii=0; ii<_child_count; ii++) {
                 IonValueLite child = _children[ii];
-                child.makeReadOnly();
+                if (!child._isLocked()) {
+                    child.makeReadOnlyInternal(symbols);
+                }
             }
         }
+        trimChildren();
         _isLocked(true);
     }
 
@@ -319,7 +325,7 @@ final class IonDatagramLite
     }
 
     @Override
-    int hashCode(SymbolTableProvider symbolTableProvider) {
+    int computeHashCode(SymbolTableProvider symbolTableProvider) {
         String message = "IonDatagrams do not need a resolved Symbol table use #hashCode()";
         throw new UnsupportedOperationException(message);
     }
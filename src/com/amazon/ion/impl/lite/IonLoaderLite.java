@@ -16,6 +16,7 @@
 package com.amazon.ion.impl.lite;
 
 import static com.amazon.ion.impl._Private_IonReaderFactory.makeReader;
+import static com.amazon.ion.util.IonStreamUtils.isIonBinary;
 
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonDatagram;
@@ -24,6 +25,7 @@ import com.amazon.ion.IonLoader;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.SpanProvider;
 import com.amazon.ion.impl._Private_IonWriterFactory;
 import com.amazon.ion.impl._Private_LocalSymbolTableFactory;
 import java.io.File;
@@ -122,8 +124,45 @@ final class IonLoaderLite
         }
     }
 
+    /**
+     * Loads the top-level values from the reader, leaving containers
+     * backed by {@code source} until their children are needed.  Symbol
+     * tables aren't retained as system values; they're recreated as needed
+     * when the datagram is encoded.
+     */
+    private IonDatagramLite load_lazy_helper(IonReader reader,
+                                             LazyContainerSource source)
+    {
+        IonDatagramLite datagram = new IonDatagramLite(_system, _catalog);
+        SpanProvider spans = reader.asFacet(SpanProvider.class);
+        while (reader.next() != null) {
+            datagram.add(_system.newLazyValue(reader, source, spans));
+        }
+        return datagram;
+    }
+
     public IonDatagram load(byte[] ionData) throws IonException
     {
+        if (_system.isLazyLoadingEnabled()
+            && isIonBinary(ionData))
+        {
+            LazyContainerSource source =
+                new LazyContainerSource(_system, _catalog,
+                                        ionData, 0, ionData.length);
+            IonReader reader = source.newReader();
+            try {
+                return load_lazy_helper(reader, source);
+            }
+            finally {
+                try {
+                    reader.close();
+                }
+                catch (IOException e) {
+                    throw new IonException(e);
+                }
+            }
+        }
+
         IonReader reader = makeReader(_catalog, ionData, 0, ionData.length, _lstFactory);
         try {
             return load(reader);
@@ -70,7 +70,7 @@ final class IonSexpLite
     }
 
     @Override
-    public int hashCode(SymbolTableProvider symbolTableProvider) {
+    int computeHashCode(SymbolTableProvider symbolTableProvider) {
         return sequenceHashCode(HASH_SIGNATURE, symbolTableProvider);
     }
 
@@ -38,6 +38,7 @@ import com.amazon.ion.IonTimestamp;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.SpanProvider;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.UnexpectedEofException;
@@ -78,10 +79,19 @@ final class IonSystemLite
     private final _Private_IonBinaryWriterBuilder myBinaryWriterBuilder;
     /** Immutable. **/
     private final IonReaderBuilder myReaderBuilder;
+    private final boolean myLazyLoadingEnabled;
 
     public IonSystemLite(IonTextWriterBuilder twb,
                           _Private_IonBinaryWriterBuilder bwb,
                           IonReaderBuilder rb)
+    {
+        this(twb, bwb, rb, false);
+    }
+
+    public IonSystemLite(IonTextWriterBuilder twb,
+                          _Private_IonBinaryWriterBuilder bwb,
+                          IonReaderBuilder rb,
+                          boolean lazyLoadingEnabled)
     {
         IonCatalog catalog = twb.getCatalog();
         assert catalog != null;
@@ -101,6 +111,7 @@ final class IonSystemLite
         myBinaryWriterBuilder = bwb.immutable();
 
         myReaderBuilder = rb.immutable();
+        myLazyLoadingEnabled = lazyLoadingEnabled;
     }
 
     //==========================================================================
@@ -112,6 +123,11 @@ final class IonSystemLite
         return myBinaryWriterBuilder.isStreamCopyOptimized();
     }
 
+    boolean isLazyLoadingEnabled()
+    {
+        return myLazyLoadingEnabled;
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends IonValue> T clone(T value) throws IonException
     {
@@ -314,14 +330,33 @@ final class IonSystemLite
 
     public IonValueLite newValue(IonReader reader)
     {
-        IonValueLite value = load_value_helper(reader, /*isTopLevel*/ true);
+        IonValueLite value =
+            load_value_helper(reader, /*isTopLevel*/ true, null, null);
         if (value == null) {
             throw new IonException("No value available");
         }
         return value;
     }
 
-    private IonValueLite load_value_helper(IonReader reader, boolean isTopLevel)
+    /**
+     * Builds the value at the reader's position, leaving any non-null
+     * container unloaded, backed by a span over {@code source}.
+     */
+    IonValueLite newLazyValue(IonReader reader,
+                              LazyContainerSource source,
+                              SpanProvider spans)
+    {
+        return load_value_helper(reader, /*isTopLevel*/ true, source, spans);
+    }
+
+    /**
+     * @param source if not null, containers are left lazy rather than having
+     * their children loaded, and {@code spans} must be the reader's facet.
+     */
+    private IonValueLite load_value_helper(IonReader reader,
+                                           boolean isTopLevel,
+                                           LazyContainerSource source,
+                                           SpanProvider spans)
     {
         boolean symbol_is_present = false;
 
@@ -423,9 +458,16 @@ final class IonSystemLite
             case LIST:
             case SEXP:
             case STRUCT:
+                if (source != null) {
+                    // we can't know what the children hold without reading
+                    // them, so assume the worst
+                    ((IonContainerLite)v).setLazySource(source,
+                                                        spans.currentSpan());
+                    symbol_is_present = true;
+                }
                 // we have to load the children after we grabbed the
                 // fieldname and annotations off of the parent container
-                if (load_children((IonContainerLite)v, reader)) {
+                else if (load_children((IonContainerLite)v, reader)) {
                     symbol_is_present = true;
                 }
                 break;
@@ -453,7 +495,8 @@ final class IonSystemLite
             if (t == null) {
                 break;
             }
-            IonValueLite child = load_value_helper(reader, /*isTopLevel*/ false);
+            IonValueLite child =
+                load_value_helper(reader, /*isTopLevel*/ false, null, null);
 
             container.add(child);
 
@@ -466,6 +509,28 @@ final class IonSystemLite
         return symbol_is_present;
     }
 
+    /**
+     * Loads one level of children from the container at the reader's
+     * position, leaving nested containers lazy.
+     */
+    void load_lazy_children(IonContainerLite container,
+                            IonReader reader,
+                            LazyContainerSource source,
+                            SpanProvider spans)
+    {
+        reader.stepIn();
+        for (;;) {
+            IonType t = reader.next();
+            if (t == null) {
+                break;
+            }
+            IonValueLite child =
+                load_value_helper(reader, /*isTopLevel*/ false, source, spans);
+            container.add(child);
+        }
+        reader.stepOut();
+    }
+
     IonValueLite newValue(IonType valueType)
     {
         IonValueLite v;
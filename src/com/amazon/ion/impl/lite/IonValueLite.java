@@ -38,6 +38,8 @@ import com.amazon.ion.system.IonTextWriterBuilder;
 import com.amazon.ion.util.Printer;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  *  Base class of the light weight implementation of
@@ -860,18 +862,76 @@ abstract class IonValueLite
     public void makeReadOnly()
     {
         if (!_isLocked()) {
-            makeReadOnlyInternal();
+            makeReadOnlyInternal(new HashMap<String, SymbolToken>());
         }
     }
 
-    void makeReadOnlyInternal()
+    /**
+     * Locks this value, and compacts it since it can no longer grow.
+     *
+     * @param symbols collects the field names and annotations of the values
+     *  being made read-only together, so that each distinct text is retained
+     *  only once.
+     */
+    void makeReadOnlyInternal(Map<String, SymbolToken> symbols)
     {
         clearSymbolIDValues();
+        shareSymbols(symbols);
         _isLocked(true);
     }
 
     /**
-     * Verifies that this value is not read-only.
+     * Replaces the field name and annotations with equal ones already in
+     * {@code symbols}, and drops the unused annotation slots.
+     */
+    final void shareSymbols(Map<String, SymbolToken> symbols)
+    {
+        if (_fieldName != null) {
+            SymbolToken shared = symbols.get(_fieldName);
+            if (shared == null) {
+                symbols.put(_fieldName,
+                            newSymbolToken(_fieldName, UNKNOWN_SYMBOL_ID));
+            }
+            else {
+                _fieldName = shared.getText();
+            }
+        }
+
+        if (_annotations != null) {
+            int count = 0;
+            while (count < _annotations.length && _annotations[count] != null) {
+                count++;
+            }
+            if (count == 0) {
+                _annotations = SymbolToken.EMPTY_ARRAY;
+                return;
+            }
+            if (count < _annotations.length) {
+                SymbolToken[] temp = new SymbolToken[count];
+                System.arraycopy(_annotations, 0, temp, 0, count);
+                _annotations = temp;
+            }
+            for (int i = 0; i < count; i++) {
+                SymbolToken annotation = _annotations[i];
+                String text = annotation.getText();
+                if (text == null || annotation.getSid() != UNKNOWN_SYMBOL_ID) {
+                    continue;
+                }
+                SymbolToken shared = symbols.get(text);
+                if (shared == null) {
+                    symbols.put(text, annotation);
+                }
+                else {
+                    _annotations[i] = shared;
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that this value is not read-only.  Every mutator calls this
+     * first, so it also discards the hash codes cached by the containers
+     * the change affects.
      *
      * @throws ReadOnlyValueException
      *   if this value {@link #isReadOnly()}.
@@ -882,6 +942,18 @@ abstract class IonValueLite
         if (_isLocked()) {
             throw new ReadOnlyValueException();
         }
+        clearHashCodes();
+    }
+
+    /**
+     * Discards the hash codes cached by the containers around this value.
+     */
+    void clearHashCodes()
+    {
+        IonContainerLite container = getContainer();
+        if (container != null) {
+            container.clearHashCodes();
+        }
     }
 
 
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import com.amazon.ion.Span;
+
+/**
+ * Supplies the children of a lazy container the first time they're needed.
+ *
+ * @see LazyContainerSource
+ * @see IonContainerLite#materialize(IonContainerLite, Span)
+ */
+interface LazyChildSource
+{
+    /**
+     * Adds the children at {@code span} to {@code container}, which must be
+     * empty.
+     *
+     * @param span may be null if the source needs no position.
+     */
+    void materialize(IonContainerLite container, Span span);
+}
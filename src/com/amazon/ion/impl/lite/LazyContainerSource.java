@@ -0,0 +1,82 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeReader;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.Span;
+import com.amazon.ion.SpanProvider;
+import java.io.IOException;
+
+/**
+ * The binary data backing containers that were loaded lazily.
+ * <p>
+ * A lazy container holds only a {@link Span} over this source.  The first
+ * time its children are needed, a fresh reader is hoisted to the span and
+ * the children are decoded, one level at a time: nested containers are in
+ * turn left lazy.  The source retains the caller's byte array, which must
+ * not be modified while any lazy container may still be materialized.
+ * <p>
+ * Instances are immutable, so clones can share them.
+ */
+final class LazyContainerSource
+    implements LazyChildSource
+{
+    private final IonSystemLite _system;
+    private final IonCatalog    _catalog;
+    private final byte[]        _bytes;
+    private final int           _offset;
+    private final int           _length;
+
+    LazyContainerSource(IonSystemLite system, IonCatalog catalog,
+                        byte[] bytes, int offset, int length)
+    {
+        _system = system;
+        _catalog = catalog;
+        _bytes = bytes;
+        _offset = offset;
+        _length = length;
+    }
+
+    IonReader newReader()
+    {
+        return makeReader(_catalog, _bytes, _offset, _length,
+                          _system.getLstFactory());
+    }
+
+    public void materialize(IonContainerLite container, Span span)
+    {
+        IonReader reader = newReader();
+        try {
+            reader.asFacet(SeekableReader.class).hoist(span);
+            reader.next();
+            SpanProvider spans = reader.asFacet(SpanProvider.class);
+            _system.load_lazy_children(container, reader, this, spans);
+        }
+        finally {
+            try {
+                reader.close();
+            }
+            catch (IOException e) {
+                throw new IonException(e);
+            }
+        }
+    }
+}
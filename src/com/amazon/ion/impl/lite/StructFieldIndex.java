@@ -0,0 +1,241 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import java.util.Arrays;
+
+/**
+ * Finds the fields of a large {@link IonStructLite} by name.
+ * <p>
+ * This is an open-addressing hash table holding one entry per named field,
+ * so duplicate names need no special handling.  Each entry is the field's
+ * position in the struct, with the name's hash code kept alongside it in a
+ * parallel array; the name itself is read from the child only when the
+ * hashes match.  Adding a field allocates nothing until the table grows.
+ * <p>
+ * The owning struct must keep the index in step with its children: every
+ * named field added must be {@link #add}ed, and every field removed must be
+ * {@link #remove}d so the later positions move down with the children.
+ */
+final class StructFieldIndex
+{
+    private static final int EMPTY = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final IonStructLite _struct;
+
+    private int[] _positions;
+    private int[] _hashes;
+    private int   _count;
+    private int   _mask;
+
+    /**
+     * Indexes the current children of the struct.
+     */
+    StructFieldIndex(IonStructLite struct)
+    {
+        _struct = struct;
+        int size = struct.get_child_count();
+        allocate(capacityFor(size));
+        for (int ii = 0; ii < size; ii++) {
+            add(struct.get_child(ii).getFieldNameSymbol().getText(), ii);
+        }
+    }
+
+    /**
+     * Copies an index for a clone of its struct, whose children are in the
+     * same order.
+     */
+    StructFieldIndex(StructFieldIndex existing, IonStructLite struct)
+    {
+        _struct = struct;
+        _positions = existing._positions.clone();
+        _hashes = existing._hashes.clone();
+        _count = existing._count;
+        _mask = existing._mask;
+    }
+
+    private static int capacityFor(int size)
+    {
+        // keep the table at most half full, so probe sequences stay short
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity)
+    {
+        _positions = new int[capacity];
+        _hashes = new int[capacity];
+        Arrays.fill(_positions, EMPTY);
+        _mask = capacity - 1;
+    }
+
+    private static int spread(int hash)
+    {
+        // mix the high bits down, since the mask keeps only the low ones
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @param name may be null, in which case the field isn't indexed.
+     */
+    void add(String name, int position)
+    {
+        if (name == null) {
+            return;
+        }
+        if ((_count + 1) * 2 > _positions.length) {
+            grow();
+        }
+        insert(name.hashCode(), position);
+        _count++;
+    }
+
+    private void insert(int hash, int position)
+    {
+        int slot = spread(hash) & _mask;
+        while (_positions[slot] != EMPTY) {
+            slot = (slot + 1) & _mask;
+        }
+        _positions[slot] = position;
+        _hashes[slot] = hash;
+    }
+
+    private void grow()
+    {
+        int[] positions = _positions;
+        int[] hashes = _hashes;
+        allocate(positions.length * 2);
+        for (int ii = 0; ii < positions.length; ii++) {
+            if (positions[ii] != EMPTY) {
+                insert(hashes[ii], positions[ii]);
+            }
+        }
+    }
+
+    /**
+     * @return the largest position of a field with the given name, or -1 if
+     *  there is none.
+     */
+    int find(String name)
+    {
+        int hash = name.hashCode();
+        int found = -1;
+        for (int slot = spread(hash) & _mask;
+             _positions[slot] != EMPTY;
+             slot = (slot + 1) & _mask)
+        {
+            int position = _positions[slot];
+            if (_hashes[slot] == hash && position > found
+                && name.equals(_struct.get_child(position).getFieldName()))
+            {
+                found = position;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Removes the field at the given position, and moves down the positions
+     * of the fields after it.  This doesn't read the struct's children, so it
+     * may be called before or after the child itself is removed.
+     *
+     * @param name the name of the removed field; may be null.
+     */
+    void remove(String name, int position)
+    {
+        if (name != null) {
+            for (int slot = spread(name.hashCode()) & _mask;
+                 _positions[slot] != EMPTY;
+                 slot = (slot + 1) & _mask)
+            {
+                if (_positions[slot] == position) {
+                    delete(slot);
+                    _count--;
+                    break;
+                }
+            }
+        }
+        for (int ii = 0; ii < _positions.length; ii++) {
+            if (_positions[ii] > position) {
+                _positions[ii]--;
+            }
+        }
+    }
+
+    /**
+     * Empties a slot, shifting back any later entries of its probe sequence
+     * that would otherwise no longer be reachable.
+     */
+    private void delete(int slot)
+    {
+        int hole = slot;
+        int next = (hole + 1) & _mask;
+        while (_positions[next] != EMPTY) {
+            int home = spread(_hashes[next]) & _mask;
+            // move the entry only if its home isn't cyclically in (hole, next]
+            if (((next - home) & _mask) >= ((next - hole) & _mask)) {
+                _positions[hole] = _positions[next];
+                _hashes[hole] = _hashes[next];
+                hole = next;
+            }
+            next = (next + 1) & _mask;
+        }
+        _positions[hole] = EMPTY;
+    }
+
+    /**
+     * @return a description of any entries that don't match the struct's
+     *  children, or null if they all do.
+     */
+    String validate()
+    {
+        String error = "";
+        int size = _struct.get_child_count();
+        for (int ii = 0; ii < _positions.length; ii++) {
+            int position = _positions[ii];
+            if (position == EMPTY) continue;
+            IonValueLite v = (position < size) ? _struct.get_child(position) : null;
+            if (v == null || position != v._elementid()
+                || _hashes[ii] != v.getFieldName().hashCode())
+            {
+                error += "index entry [" + position + "] doesn't match list value [" + v + "]\n";
+            }
+        }
+        return (error.length() == 0) ? null : error;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder buf = new StringBuilder("[");
+        for (int ii = 0; ii < _positions.length; ii++) {
+            int position = _positions[ii];
+            if (position == EMPTY) continue;
+            if (buf.length() > 1) {
+                buf.append(',');
+            }
+            buf.append(_struct.get_child(position).getFieldName());
+            buf.append(':');
+            buf.append(position);
+        }
+        return buf.append(']').toString();
+    }
+}
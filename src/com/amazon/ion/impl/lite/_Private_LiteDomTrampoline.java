@@ -36,6 +36,14 @@ public final class _Private_LiteDomTrampoline
         return new IonSystemLite(twb, bwb, rb);
     }
 
+    public static IonSystem newLiteSystem(IonTextWriterBuilder twb,
+                                          _Private_IonBinaryWriterBuilder bwb,
+                                          IonReaderBuilder rb,
+                                          boolean lazyLoadingEnabled)
+    {
+        return new IonSystemLite(twb, bwb, rb, lazyLoadingEnabled);
+    }
+
     public static boolean isLiteSystem(IonSystem system)
     {
         return (system instanceof IonSystemLite);
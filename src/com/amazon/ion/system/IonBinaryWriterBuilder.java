@@ -21,6 +21,11 @@ import com.amazon.ion.IonWriter;
 import com.amazon.ion.SubstituteSymbolTableException;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 
 /**
@@ -40,6 +45,9 @@ public abstract class IonBinaryWriterBuilder
     extends IonWriterBuilderBase<IonBinaryWriterBuilder>
 {
     private boolean myStreamCopyOptimized;
+    private int     mySpillThreshold;
+    private boolean myDirectBuffersEnabled;
+    private boolean myLocalSymbolTableAppendEnabled;
 
 
     /** NOT FOR APPLICATION USE! */
@@ -54,6 +62,9 @@ public abstract class IonBinaryWriterBuilder
         super(that);
 
         this.myStreamCopyOptimized = that.myStreamCopyOptimized;
+        this.mySpillThreshold      = that.mySpillThreshold;
+        this.myDirectBuffersEnabled = that.myDirectBuffersEnabled;
+        this.myLocalSymbolTableAppendEnabled = that.myLocalSymbolTableAppendEnabled;
     }
 
 
@@ -282,4 +293,238 @@ public abstract class IonBinaryWriterBuilder
         b.setStreamCopyOptimized(optimized);
         return b;
     }
+
+
+    //=========================================================================
+
+
+    /**
+     * Gets the number of bytes a top-level value may buffer before built
+     * writers spill it to a temporary file.
+     * By default, this property is zero, which disables spilling.
+     *
+     * @see #setSpillThreshold(int)
+     * @see #withSpillThreshold(int)
+     */
+    public int getSpillThreshold()
+    {
+        return mySpillThreshold;
+    }
+
+    /**
+     * Sets the number of bytes a top-level value may buffer before built
+     * writers spill it to a temporary file.
+     * By default, this property is zero, which disables spilling.
+     * <p>
+     * Binary Ion prefixes each container with its length, so a writer
+     * normally holds an entire top-level value in memory until its
+     * outermost container is closed.  Once a value has buffered this many
+     * bytes, each value completed within it moves the buffered data to a
+     * temporary file, keeping only the open containers in memory.  The
+     * spilled data is copied to the output stream when the top-level value
+     * is {@linkplain IonWriter#finish() finished}, so memory stays bounded
+     * no matter how large a value grows.
+     * <p>
+     * Containers that are open when a value is spilled are written with
+     * five-byte length fields, and symbol tables are never spilled.
+     *
+     * @param threshold the number of bytes; zero disables spilling.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     * @throws IllegalArgumentException if {@code threshold} is negative.
+     *
+     * @see #getSpillThreshold()
+     * @see #withSpillThreshold(int)
+     */
+    public void setSpillThreshold(int threshold)
+    {
+        mutationCheck();
+        if (threshold < 0)
+        {
+            throw new IllegalArgumentException("Spill threshold cannot be negative: " + threshold);
+        }
+        mySpillThreshold = threshold;
+    }
+
+    /**
+     * Sets the number of bytes a top-level value may buffer before built
+     * writers spill it to a temporary file, returning a new mutable builder
+     * if this is immutable.
+     *
+     * @see #getSpillThreshold()
+     * @see #setSpillThreshold(int)
+     */
+    public final
+    IonBinaryWriterBuilder withSpillThreshold(int threshold)
+    {
+        IonBinaryWriterBuilder b = mutable();
+        b.setSpillThreshold(threshold);
+        return b;
+    }
+
+
+    //=========================================================================
+
+
+    /**
+     * Indicates whether built writers buffer their output in direct,
+     * off-heap memory.
+     * By default, this property is false.
+     *
+     * @see #setDirectBuffersEnabled(boolean)
+     * @see #withDirectBuffersEnabled(boolean)
+     */
+    public boolean isDirectBuffersEnabled()
+    {
+        return myDirectBuffersEnabled;
+    }
+
+    /**
+     * Declares whether built writers buffer their output in direct,
+     * off-heap memory, so that writing large amounts of data doesn't add
+     * to garbage collection pressure.
+     * By default, this property is false.
+     * <p>
+     * The off-heap memory is pooled by this builder and its copies, and is
+     * written to channels without copying; see
+     * {@link #build(WritableByteChannel)}.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #isDirectBuffersEnabled()
+     * @see #withDirectBuffersEnabled(boolean)
+     */
+    public void setDirectBuffersEnabled(boolean enabled)
+    {
+        mutationCheck();
+        myDirectBuffersEnabled = enabled;
+    }
+
+    /**
+     * Declares whether built writers buffer their output in direct,
+     * off-heap memory, returning a new mutable builder if this is
+     * immutable.
+     *
+     * @see #isDirectBuffersEnabled()
+     * @see #setDirectBuffersEnabled(boolean)
+     */
+    public final
+    IonBinaryWriterBuilder withDirectBuffersEnabled(boolean enabled)
+    {
+        IonBinaryWriterBuilder b = mutable();
+        b.setDirectBuffersEnabled(enabled);
+        return b;
+    }
+
+
+    //=========================================================================
+
+
+    /**
+     * Indicates whether built writers extend their local symbol table
+     * across flushes.
+     * By default, this property is false.
+     *
+     * @see #setLocalSymbolTableAppendEnabled(boolean)
+     * @see #withLocalSymbolTableAppendEnabled(boolean)
+     */
+    public boolean isLocalSymbolTableAppendEnabled()
+    {
+        return myLocalSymbolTableAppendEnabled;
+    }
+
+    /**
+     * Declares whether built writers extend their local symbol table
+     * across flushes.
+     * By default, this property is false.
+     * <p>
+     * When enabled, {@link IonWriter#flush()} at the top level always
+     * writes out the values written so far.  Symbols first used after a
+     * flush are declared by a local symbol table that imports the current
+     * one, so previously declared symbols are not repeated.  This keeps
+     * the symbol tables of long-lived, frequently flushed streams small.
+     * {@link IonWriter#finish()} still starts a new symbol table.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #isLocalSymbolTableAppendEnabled()
+     * @see #withLocalSymbolTableAppendEnabled(boolean)
+     */
+    public void setLocalSymbolTableAppendEnabled(boolean enabled)
+    {
+        mutationCheck();
+        myLocalSymbolTableAppendEnabled = enabled;
+    }
+
+    /**
+     * Declares whether built writers extend their local symbol table
+     * across flushes, returning a new mutable builder if this is
+     * immutable.
+     *
+     * @see #isLocalSymbolTableAppendEnabled()
+     * @see #setLocalSymbolTableAppendEnabled(boolean)
+     */
+    public final
+    IonBinaryWriterBuilder withLocalSymbolTableAppendEnabled(boolean enabled)
+    {
+        IonBinaryWriterBuilder b = mutable();
+        b.setLocalSymbolTableAppendEnabled(enabled);
+        return b;
+    }
+
+
+    //=========================================================================
+
+
+    /**
+     * Creates a new writer that will write to the given channel.
+     * Each time the writer flushes, all of its buffered data is emitted
+     * without copying, using a single
+     * {@linkplain GatheringByteChannel#write(ByteBuffer[]) gathering write}
+     * when the channel supports it.
+     * <p>
+     * The channel must be in blocking mode.  It is closed when the writer
+     * is closed.
+     *
+     * @param channel the channel that will receive Ion data.
+     * Must not be null.
+     *
+     * @return a new {@link IonWriter} instance; not {@code null}.
+     */
+    public abstract IonWriter build(WritableByteChannel channel);
+
+    /**
+     * Creates a new writer that will write into the given buffer, starting
+     * at its position.
+     * Each time the writer flushes, its buffered data is put into the
+     * buffer, advancing its position.
+     * <p>
+     * If the buffer's remaining space can't hold the data being flushed,
+     * the flush throws {@link BufferOverflowException}, leaving the buffer
+     * unchanged, and the writer should then be discarded.
+     *
+     * @param buffer the buffer that will receive Ion data.
+     * Must not be null.
+     *
+     * @return a new {@link IonWriter} instance; not {@code null}.
+     */
+    public abstract IonWriter build(ByteBuffer buffer);
+
+    /**
+     * Creates a new writer that will write to the given output stream while
+     * recording the position of each top-level value in {@code recorder},
+     * from which an {@link IonValueIndex} of the output can be built.
+     * Positions are relative to the first byte written by the new writer.
+     *
+     * @param out the stream that will receive Ion data.
+     * Must not be null.
+     * @param recorder receives the positions of the values written.
+     * Must not be null.
+     *
+     * @return a new {@link IonWriter} instance; not {@code null}.
+     *
+     * @see IonValueIndex
+     */
+    public abstract IonWriter build(OutputStream out,
+                                    IonValueIndex.Recorder recorder);
 }
@@ -15,6 +15,10 @@
 
 package com.amazon.ion.system;
 
+import static com.amazon.ion.impl._Private_IonReaderFactory.checkProjectionPaths;
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeIncrementalReader;
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeInterningReader;
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeProjectingReader;
 import static com.amazon.ion.impl._Private_IonReaderFactory.makeReader;
 
 import com.amazon.ion.IonCatalog;
@@ -27,6 +31,13 @@ import com.amazon.ion.IonValue;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Build a new {@link IonReader} from the given {@link IonCatalog} and data
@@ -42,6 +53,9 @@ public class IonReaderBuilder
 {
 
     private IonCatalog catalog = null;
+    private boolean isIncrementalReadingEnabled = false;
+    private List<String> projectedPaths = null;
+    private int interningCacheSize = 0;
 
     private IonReaderBuilder()
     {
@@ -50,6 +64,9 @@ public class IonReaderBuilder
     private IonReaderBuilder(IonReaderBuilder that)
     {
         this.catalog = that.catalog;
+        this.isIncrementalReadingEnabled = that.isIncrementalReadingEnabled;
+        this.projectedPaths = that.projectedPaths;
+        this.interningCacheSize = that.interningCacheSize;
     }
 
     /**
@@ -151,6 +168,236 @@ public class IonReaderBuilder
         return catalog;
     }
 
+    /**
+     * Enables or disables incremental reading of binary Ion streams,
+     * returning a new mutable builder if the current one is immutable.
+     *
+     * @param isEnabled whether readers built from an {@link InputStream}
+     *  should read binary data incrementally.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setIncrementalReadingEnabled(boolean)
+     * @see #isIncrementalReadingEnabled()
+     */
+    public IonReaderBuilder withIncrementalReadingEnabled(boolean isEnabled)
+    {
+        IonReaderBuilder b = mutable();
+        b.setIncrementalReadingEnabled(isEnabled);
+        return b;
+    }
+
+    /**
+     * Enables or disables incremental reading of binary Ion streams.
+     * <p>
+     * When enabled, a reader built from an {@link InputStream} over binary
+     * data only positions itself on a top-level value once that entire value
+     * is available. If it is not, {@link IonReader#next()} returns
+     * {@code null} rather than blocking or throwing, and may be called again
+     * once more data has arrived. The stream returning {@code -1} is treated
+     * as "no data available yet" rather than end of stream, so the stream
+     * may continue to grow after that. Closing the reader while a top-level
+     * value is only partially buffered throws an
+     * {@link com.amazon.ion.UnexpectedEofException}.
+     * <p>
+     * The Ion version marker at the start of the stream is read when the
+     * reader is built. Text streams are always read normally. This option
+     * has no effect on readers built from byte arrays, which always hold
+     * complete data.
+     *
+     * @param isEnabled true if incremental reading is enabled; false
+     *  otherwise. The default is false.
+     *
+     * @see #withIncrementalReadingEnabled(boolean)
+     * @see #isIncrementalReadingEnabled()
+     *
+     * @throws UnsupportedOperationException if this builder is immutable.
+     */
+    public void setIncrementalReadingEnabled(boolean isEnabled)
+    {
+        mutationCheck();
+        this.isIncrementalReadingEnabled = isEnabled;
+    }
+
+    /**
+     * Determines whether readers built from an {@link InputStream} read
+     * binary Ion incrementally.
+     *
+     * @see #setIncrementalReadingEnabled(boolean)
+     * @see #withIncrementalReadingEnabled(boolean)
+     */
+    public boolean isIncrementalReadingEnabled()
+    {
+        return isIncrementalReadingEnabled;
+    }
+
+    /**
+     * Declares the paths to project, returning a new mutable builder if the
+     * current one is immutable.
+     *
+     * @param paths the only paths whose values built readers surface.
+     *  If empty, readers surface all values.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setProjectedPaths(Collection)
+     * @see #getProjectedPaths()
+     */
+    public IonReaderBuilder withProjectedPaths(String... paths)
+    {
+        IonReaderBuilder b = mutable();
+        b.setProjectedPaths(Arrays.asList(paths));
+        return b;
+    }
+
+    /**
+     * Sets the paths to project. Built readers surface only the values on
+     * these paths, passing over all others without decoding them, so that
+     * extracting a few fields from large values costs little more than
+     * reading those fields.
+     * <p>
+     * Each path is a series of steps from a top-level value, separated by
+     * dots: a field name steps into a field of a struct, and {@code [*]}
+     * steps into every element of a list or sexp. For example,
+     * {@code a.b} and {@code c[*].d} select the marked values in
+     * <code>{a:{b:<i>here</i>}, c:[{d:<i>here</i>}, {d:<i>here</i>}]}</code>.
+     * A selected value is surfaced along with everything inside it, and the
+     * containers leading to it are surfaced so that they can be stepped
+     * into. Top-level values are always surfaced. Paths are relative to the
+     * depth at which a reader starts, so for a reader over an
+     * {@link IonValue} they start at that value.
+     * <p>
+     * Readers with projected paths don't support the
+     * {@link com.amazon.ion.SeekableReader} facet, since hoisting would
+     * bypass the projection.
+     *
+     * @param paths the only paths whose values built readers surface.
+     *  If null or empty, readers surface all values. The default is null.
+     *
+     * @throws IllegalArgumentException if any path is malformed.
+     * @throws UnsupportedOperationException if this builder is immutable.
+     *
+     * @see #withProjectedPaths(String...)
+     * @see #getProjectedPaths()
+     */
+    public void setProjectedPaths(Collection<String> paths)
+    {
+        mutationCheck();
+        if (paths == null || paths.isEmpty()) {
+            this.projectedPaths = null;
+        }
+        else {
+            List<String> copy = new ArrayList<String>(paths);
+            checkProjectionPaths(copy);
+            this.projectedPaths = Collections.unmodifiableList(copy);
+        }
+    }
+
+    /**
+     * Gets the paths that built readers project, or null if they surface
+     * all values.
+     *
+     * @see #setProjectedPaths(Collection)
+     * @see #withProjectedPaths(String...)
+     */
+    public List<String> getProjectedPaths()
+    {
+        return projectedPaths;
+    }
+
+    /**
+     * Declares the size of each reader's text interning cache, returning a
+     * new mutable builder if the current one is immutable.
+     *
+     * @param size the maximum number of cached texts, or zero to disable
+     *  the cache.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setInterningCacheSize(int)
+     * @see #getInterningCacheSize()
+     */
+    public IonReaderBuilder withInterningCacheSize(int size)
+    {
+        IonReaderBuilder b = mutable();
+        b.setInterningCacheSize(size);
+        return b;
+    }
+
+    /**
+     * Sets the size of each reader's text interning cache. When enabled,
+     * each built reader keeps a bounded cache of the field names, symbols
+     * and short strings it has decoded, and returns the cached
+     * {@code String} instance when the same text appears again. Cache hits
+     * are found from the decoded characters, without allocating a
+     * temporary {@code String}.
+     * <p>
+     * This reduces garbage when a stream repeats a modest set of field names
+     * and symbols many times, as most streams do, and makes later hash
+     * lookups on the returned strings cheaper since their hash codes are
+     * already computed. A new text may evict an older one that hashes
+     * near it, so the size bounds memory rather than guaranteeing that
+     * every repeated text is found. Strings longer than
+     * 64 characters are never cached.
+     * <p>
+     * This applies to readers of Ion text, and to readers of Ion binary
+     * where it covers string values and local symbol table entries.
+     *
+     * @param size the maximum number of cached texts, which is rounded up
+     *  to a power of two, or zero to disable the cache. The default is zero.
+     *
+     * @throws IllegalArgumentException if {@code size} is negative.
+     * @throws UnsupportedOperationException if this builder is immutable.
+     *
+     * @see #withInterningCacheSize(int)
+     * @see #getInterningCacheSize()
+     */
+    public void setInterningCacheSize(int size)
+    {
+        mutationCheck();
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        this.interningCacheSize = size;
+    }
+
+    /**
+     * Gets the size of each reader's text interning cache, or zero if
+     * readers don't cache text.
+     *
+     * @see #setInterningCacheSize(int)
+     * @see #withInterningCacheSize(int)
+     */
+    public int getInterningCacheSize()
+    {
+        return interningCacheSize;
+    }
+
+    private IonReader configure(IonReader reader)
+    {
+        if (interningCacheSize > 0) {
+            makeInterningReader(reader, interningCacheSize);
+        }
+        if (projectedPaths == null) {
+            return reader;
+        }
+        return makeProjectingReader(reader, projectedPaths);
+    }
+
+    private IonTextReader configure(IonTextReader reader)
+    {
+        if (interningCacheSize > 0) {
+            makeInterningReader(reader, interningCacheSize);
+        }
+        if (projectedPaths == null) {
+            return reader;
+        }
+        return makeProjectingReader(reader, projectedPaths);
+    }
+
     private IonCatalog validateCatalog()
     {
         // matches behavior in IonSystemBuilder when no catalog provided
@@ -175,7 +422,7 @@ public class IonReaderBuilder
      */
     public IonReader build(byte[] ionData)
     {
-        return makeReader(validateCatalog(), ionData);
+        return configure(makeReader(validateCatalog(), ionData));
     }
 
     /**
@@ -198,7 +445,7 @@ public class IonReaderBuilder
      */
     public IonReader build(byte[] ionData, int offset, int length)
     {
-        return makeReader(validateCatalog(), ionData, offset, length);
+        return configure(makeReader(validateCatalog(), ionData, offset, length));
     }
 
     /**
@@ -220,10 +467,71 @@ public class IonReaderBuilder
      * @throws IonException if the source throws {@link IOException}.
      *
      * @see IonSystem#newReader(InputStream)
+     * @see #setIncrementalReadingEnabled(boolean)
      */
     public IonReader build(InputStream ionData)
     {
-        return makeReader(validateCatalog(), ionData);
+        if (isIncrementalReadingEnabled) {
+            return configure(makeIncrementalReader(validateCatalog(), ionData));
+        }
+        return configure(makeReader(validateCatalog(), ionData));
+    }
+
+    /**
+     * Based on the builder's configuration properties, creates a new IonReader
+     * instance over the remaining bytes of the given buffer, detecting whether
+     * it's text or binary data.
+     * <p>
+     * This method will auto-detect and uncompress GZIPped Ion data.
+     * <p>
+     * The data is read directly out of the buffer, which may be a heap or a
+     * direct buffer, without first copying it into a separate array. Heap
+     * buffers with an accessible backing array are read in place and the
+     * resulting reader supports the {@link com.amazon.ion.SeekableReader}
+     * facet, just like readers over a {@code byte[]}.
+     *
+     * @param ionData the source of the Ion data, which is used only between
+     * its position and limit. The data in that range may be either Ion binary
+     * data or UTF-8 Ion text. The reader retains a reference to the buffer,
+     * so its data must not be modified while the reader is active. The
+     * buffer's position, limit and mark are not changed. Must not be null.
+     *
+     * @return a new {@link IonReader} instance; not {@code null}.
+     */
+    public IonReader build(ByteBuffer ionData)
+    {
+        return configure(makeReader(validateCatalog(), ionData));
+    }
+
+    /**
+     * Based on the builder's configuration properties, creates a new IonReader
+     * instance over the entire file behind the given channel, detecting
+     * whether it's text or binary data.
+     * <p>
+     * This method will auto-detect and uncompress GZIPped Ion data.
+     * <p>
+     * The file is read through read-only memory mappings instead of read
+     * calls. The reader still copies the data it parses from the mappings
+     * into its own pages, but there are no read calls or intermediate
+     * buffers.
+     * Files larger than 2 GB are mapped as a chain of segments. Readers over
+     * uncompressed binary files support the
+     * {@link com.amazon.ion.SeekableReader} facet, so values located earlier
+     * through the {@link com.amazon.ion.SpanProvider} facet can be revisited
+     * without re-reading the data before them.
+     *
+     * @param ionData the channel of the file to read, which must be readable
+     * and must remain open while the reader is in use. The file must not be
+     * modified or truncated while the reader is active. Closing the reader
+     * does not close the channel. Must not be null.
+     *
+     * @return a new {@link IonReader} instance; not {@code null}.
+     *
+     * @throws IonException if the channel throws {@link IOException}.
+     */
+    public IonReader build(FileChannel ionData)
+    {
+        return configure(makeReader(validateCatalog(), ionData));
     }
 
     /**
@@ -245,7 +553,7 @@ public class IonReaderBuilder
      */
     public IonReader build(Reader ionText)
     {
-        return makeReader(validateCatalog(), ionText);
+        return configure(makeReader(validateCatalog(), ionText));
     }
 
     /**
@@ -259,7 +567,7 @@ public class IonReaderBuilder
      */
     public IonReader build(IonValue value)
     {
-        return makeReader(validateCatalog(), value);
+        return configure(makeReader(validateCatalog(), value));
     }
 
     /**
@@ -272,7 +580,7 @@ public class IonReaderBuilder
      */
     public IonTextReader build(String ionText)
     {
-        return makeReader(validateCatalog(), ionText);
+        return configure(makeReader(validateCatalog(), ionText));
     }
 
     private static class Mutable extends IonReaderBuilder
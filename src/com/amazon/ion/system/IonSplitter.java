@@ -0,0 +1,335 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeExtendedSpan;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.Span;
+import com.amazon.ion.SpanProvider;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Divides seekable binary Ion data into {@link Split}s at top-level value
+ * boundaries, so that the splits can be read in parallel.
+ * <p>
+ * Splitting is a single sequential pass that skips over each top-level
+ * value without decoding it, other than local symbol tables.  Each split
+ * carries the symbol table in effect at its first value, so a reader over
+ * a split needs nothing from the data preceding it.
+ * <p>
+ * Splitting is supported for uncompressed binary data in a byte array or a
+ * {@link FileChannel}; files are read through memory mappings as described
+ * by {@link IonReaderBuilder#build(FileChannel)}.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ *
+ * <pre>
+ *    IonSplitter splitter = new IonSplitter(IonReaderBuilder.standard(), 64 * 1024 * 1024);
+ *    List&lt;Long&gt; counts = IonSplitter.processAll(splitter.split(channel), executor,
+ *        new IonSplitter.SplitProcessor&lt;Long&gt;() {
+ *            public Long process(IonReader reader) {
+ *                long count = 0;
+ *                while (reader.next() != null) count++;
+ *                return count;
+ *            }
+ *        });
+ *</pre>
+ */
+public final class IonSplitter
+{
+    /**
+     * Processes the values of one split.
+     *
+     * @param <T> the type of result produced for each split.
+     */
+    public interface SplitProcessor<T>
+    {
+        /**
+         * Processes the values read from a split.  The reader is closed
+         * after this method returns.
+         *
+         * @param reader is positioned before the first value of the split.
+         */
+        T process(IonReader reader)
+            throws Exception;
+    }
+
+    /**
+     * A contiguous run of top-level values within binary Ion data.
+     */
+    public static final class Split
+    {
+        private final IonReaderBuilder myReaderBuilder;
+        private final byte[]           myBytes;
+        private final int              myOffset;
+        private final int              myLength;
+        private final FileChannel      myChannel;
+        /** Covers all the values of this split. */
+        private final Span             mySpan;
+
+        private Split(IonReaderBuilder readerBuilder,
+                      byte[] bytes, int offset, int length,
+                      FileChannel channel,
+                      Span span)
+        {
+            myReaderBuilder = readerBuilder;
+            myBytes = bytes;
+            myOffset = offset;
+            myLength = length;
+            myChannel = channel;
+            mySpan = span;
+        }
+
+        /**
+         * Gets the offset of the first byte of this split, relative to the
+         * start of the data that was split.
+         */
+        public long getStartOffset()
+        {
+            return mySpan.asFacet(OffsetSpan.class).getStartOffset();
+        }
+
+        /**
+         * Gets the offset just past the last byte of this split, relative to
+         * the start of the data that was split.
+         */
+        public long getFinishOffset()
+        {
+            return mySpan.asFacet(OffsetSpan.class).getFinishOffset();
+        }
+
+        /**
+         * Creates a new reader over the values in this split.  Each call
+         * returns an independent reader, so splits may be read concurrently.
+         */
+        public IonReader newReader()
+        {
+            IonReader reader = (myBytes != null
+                                ? myReaderBuilder.build(myBytes, myOffset, myLength)
+                                : myReaderBuilder.build(myChannel));
+            SeekableReader seekable = reader.asFacet(SeekableReader.class);
+            seekable.hoist(mySpan);
+            return reader;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Split[" + getStartOffset() + ".." + getFinishOffset() + ")";
+        }
+    }
+
+
+    //=========================================================================
+
+    private final IonReaderBuilder myReaderBuilder;
+    private final long             myTargetSplitSize;
+
+    /**
+     * @param readerBuilder configures the readers used to split and to read
+     *  the splits.
+     * @param targetSplitSize the number of bytes at which a split is closed.
+     *  Splits only end at top-level value boundaries, so a split holding a
+     *  large value may be bigger than this.
+     */
+    public IonSplitter(IonReaderBuilder readerBuilder, long targetSplitSize)
+    {
+        readerBuilder.getClass(); // Force NPE
+        if (targetSplitSize < 1)
+        {
+            throw new IllegalArgumentException("targetSplitSize must be positive");
+        }
+        myReaderBuilder = readerBuilder.immutable();
+        myTargetSplitSize = targetSplitSize;
+    }
+
+    /**
+     * Splits binary Ion data held in a byte array.  The array is retained by
+     * the splits and must not be modified while they're in use.
+     *
+     * @throws UnsupportedOperationException if the data isn't uncompressed
+     *  binary Ion.
+     */
+    public List<Split> split(byte[] ionData)
+    {
+        return split(ionData, 0, ionData.length);
+    }
+
+    /**
+     * Splits binary Ion data held in part of a byte array.  The array is
+     * retained by the splits and must not be modified while they're in use.
+     *
+     * @throws UnsupportedOperationException if the data isn't uncompressed
+     *  binary Ion.
+     */
+    public List<Split> split(byte[] ionData, int offset, int length)
+    {
+        IonReader reader = myReaderBuilder.build(ionData, offset, length);
+        return split(reader, ionData, offset, length, null);
+    }
+
+    /**
+     * Splits the binary Ion data in a file.  The channel must stay open
+     * while the splits are in use; closing it is the caller's
+     * responsibility.
+     *
+     * @throws UnsupportedOperationException if the data isn't uncompressed
+     *  binary Ion.
+     */
+    public List<Split> split(FileChannel ionData)
+    {
+        IonReader reader = myReaderBuilder.build(ionData);
+        return split(reader, null, 0, 0, ionData);
+    }
+
+    private List<Split> split(IonReader reader,
+                              byte[] bytes, int offset, int length,
+                              FileChannel channel)
+    {
+        try
+        {
+            if (reader.asFacet(SeekableReader.class) == null)
+            {
+                throw new UnsupportedOperationException(
+                    "Only uncompressed binary Ion data can be split");
+            }
+            SpanProvider spans = reader.asFacet(SpanProvider.class);
+
+            List<Split> splits = new ArrayList<Split>();
+            Span start = null;
+            long startOffset = 0;
+            long finishOffset = 0;
+            while (reader.next() != null)
+            {
+                Span current = spans.currentSpan();
+                if (start == null)
+                {
+                    start = current;
+                    startOffset = current.asFacet(OffsetSpan.class).getStartOffset();
+                }
+                finishOffset = current.asFacet(OffsetSpan.class).getFinishOffset();
+                if (finishOffset - startOffset >= myTargetSplitSize)
+                {
+                    splits.add(newSplit(bytes, offset, length, channel,
+                                        start, finishOffset));
+                    start = null;
+                }
+            }
+            if (start != null)
+            {
+                splits.add(newSplit(bytes, offset, length, channel,
+                                    start, finishOffset));
+            }
+            return splits;
+        }
+        finally
+        {
+            try
+            {
+                reader.close();
+            }
+            catch (IOException e)
+            {
+                throw new IonException(e);
+            }
+        }
+    }
+
+
+    private Split newSplit(byte[] bytes, int offset, int length,
+                           FileChannel channel,
+                           Span start, long finishOffset)
+    {
+        Span span;
+        try
+        {
+            span = makeExtendedSpan(start, finishOffset);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // The reader is seekable, but not over binary data.
+            throw new UnsupportedOperationException(
+                "Only uncompressed binary Ion data can be split", e);
+        }
+        return new Split(myReaderBuilder, bytes, offset, length, channel, span);
+    }
+
+
+    //=========================================================================
+
+    /**
+     * Processes each split on the given executor, returning the results in
+     * split order once all have completed.
+     *
+     * @throws ExecutionException wrapping the first failure, in split
+     *  order, of any processor.
+     */
+    public static <T> List<T> processAll(List<Split> splits,
+                                         ExecutorService executor,
+                                         final SplitProcessor<T> processor)
+        throws InterruptedException, ExecutionException
+    {
+        List<Future<T>> futures = new ArrayList<Future<T>>(splits.size());
+        try
+        {
+            for (final Split split : splits)
+            {
+                futures.add(executor.submit(new Callable<T>()
+                {
+                    public T call() throws Exception
+                    {
+                        IonReader reader = split.newReader();
+                        try
+                        {
+                            return processor.process(reader);
+                        }
+                        finally
+                        {
+                            reader.close();
+                        }
+                    }
+                }));
+            }
+
+            List<T> results = new ArrayList<T>(futures.size());
+            for (Future<T> future : futures)
+            {
+                results.add(future.get());
+            }
+            return Collections.unmodifiableList(results);
+        }
+        finally
+        {
+            // Don't leave work running after a failure.
+            for (Future<T> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+}
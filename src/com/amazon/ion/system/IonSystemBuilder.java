@@ -18,6 +18,7 @@ package com.amazon.ion.system;
 import static com.amazon.ion.impl.lite._Private_LiteDomTrampoline.newLiteSystem;
 
 import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonLoader;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
@@ -79,6 +80,12 @@ import com.amazon.ion.impl._Private_Utils;
  *     conditions are met. <b>This feature is experimental! Please test
  *     thoroughly and report any issues.</b>
  *   </li>
+ *   <li>
+ *     <b>lazyLoadingEnabled</b>: When true, loading binary Ion from a byte
+ *     array leaves containers encoded until their children are first
+ *     accessed, so that touching a few fields of a large value only decodes
+ *     those parts of it.
+ *   </li>
  * </ul>
  */
 public class IonSystemBuilder
@@ -101,6 +108,7 @@ public class IonSystemBuilder
 
     IonCatalog myCatalog;
     boolean myStreamCopyOptimized = false;
+    boolean myLazyLoadingEnabled = false;
 
 
     /** You no touchy. */
@@ -113,6 +121,7 @@ public class IonSystemBuilder
     {
         this.myCatalog      = that.myCatalog;
         this.myStreamCopyOptimized = that.myStreamCopyOptimized;
+        this.myLazyLoadingEnabled = that.myLazyLoadingEnabled;
     }
 
     //=========================================================================
@@ -270,6 +279,58 @@ public class IonSystemBuilder
     }
 
 
+    //=========================================================================
+
+
+    /**
+     * Indicates whether built systems load binary Ion data lazily.
+     * By default, this property is false.
+     *
+     * @see #setLazyLoadingEnabled(boolean)
+     * @see #withLazyLoadingEnabled(boolean)
+     */
+    public final boolean isLazyLoadingEnabled()
+    {
+        return myLazyLoadingEnabled;
+    }
+
+    /**
+     * Declares whether built systems load binary Ion data lazily.
+     * By default, this property is false.
+     * <p>
+     * When enabled, {@link IonLoader#load(byte[])} of binary data builds
+     * containers that remain backed by the given array, decoding one level
+     * of children the first time a container's contents are accessed.
+     * The loaded values retain a reference to the array, which must not be
+     * modified afterwards.  Text data, and data loaded from other sources,
+     * is always loaded eagerly.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #isLazyLoadingEnabled()
+     * @see #withLazyLoadingEnabled(boolean)
+     */
+    public final void setLazyLoadingEnabled(boolean enabled)
+    {
+        mutationCheck();
+        myLazyLoadingEnabled = enabled;
+    }
+
+    /**
+     * Declares whether built systems load binary Ion data lazily,
+     * returning a new mutable builder if this is immutable.
+     *
+     * @see #isLazyLoadingEnabled()
+     * @see #setLazyLoadingEnabled(boolean)
+     */
+    public final IonSystemBuilder withLazyLoadingEnabled(boolean enabled)
+    {
+        IonSystemBuilder b = mutable();
+        b.setLazyLoadingEnabled(enabled);
+        return b;
+    }
+
+
 
     //=========================================================================
 
@@ -299,7 +360,7 @@ public class IonSystemBuilder
         // This is what we need, more or less.
 //        bwb = bwb.fillDefaults();
         IonReaderBuilder rb = IonReaderBuilder.standard().withCatalog(catalog);
-        IonSystem sys = newLiteSystem(twb, bwb, rb);
+        IonSystem sys = newLiteSystem(twb, bwb, rb, myLazyLoadingEnabled);
 
         return sys;
     }
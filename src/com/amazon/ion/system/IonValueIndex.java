@@ -0,0 +1,479 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeSpan;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.SymbolTable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * An index of the top-level values in a binary Ion stream, allowing a
+ * reader to be opened at any value without reading the data before it.
+ * <p>
+ * Each value is recorded with its offset and the symbol table checkpoint
+ * it's read with: the position of the version marker and local symbol table
+ * that define its symbol table.  Opening a reader at a value reads only that
+ * checkpoint and then jumps straight to the value, regardless of how far
+ * into the stream it is.
+ * <p>
+ * Indexes are recorded while writing, by passing a {@link Recorder} to
+ * {@link IonBinaryWriterBuilder#build(java.io.OutputStream, Recorder)}.
+ * They can be stored alongside the data they describe with
+ * {@link #writeTo(IonWriter)} and loaded with {@link #read(IonReader)}.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ *
+ * <pre>
+ *    IonValueIndex.Recorder recorder = new IonValueIndex.Recorder();
+ *    IonWriter writer = IonBinaryWriterBuilder.standard().build(out, recorder);
+ *    ...
+ *    writer.close();
+ *    IonValueIndex index = recorder.build();
+ *    ...
+ *    IonReader reader = index.newReader(IonReaderBuilder.standard(), data, 1000);
+ *    reader.next(); // positioned on the value at index 1000
+ *</pre>
+ */
+public final class IonValueIndex
+{
+    private static final String INDEX_ANNOTATION  = "ion_value_index";
+    private static final String VERSION_FIELD     = "version";
+    private static final String CHECKPOINTS_FIELD = "checkpoints";
+    private static final String OFFSETS_FIELD     = "offsets";
+    private static final int    VERSION           = 1;
+
+    private final long[] myCheckpointStarts;
+    private final long[] myCheckpointFinishes;
+    /** The index of the first value read with each checkpoint; ascending. */
+    private final int[]  myCheckpointFirstValues;
+    private final long[] myValueOffsets;
+
+    private IonValueIndex(long[] checkpointStarts,
+                          long[] checkpointFinishes,
+                          int[] checkpointFirstValues,
+                          long[] valueOffsets)
+    {
+        myCheckpointStarts = checkpointStarts;
+        myCheckpointFinishes = checkpointFinishes;
+        myCheckpointFirstValues = checkpointFirstValues;
+        myValueOffsets = valueOffsets;
+    }
+
+    /**
+     * Gets the number of top-level values in the index.
+     */
+    public int size()
+    {
+        return myValueOffsets.length;
+    }
+
+    /**
+     * Gets the offset of a top-level value, relative to the start of the
+     * data.
+     *
+     * @throws IndexOutOfBoundsException if there's no such value.
+     */
+    public long getValueOffset(int index)
+    {
+        checkIndex(index);
+        return myValueOffsets[index];
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= myValueOffsets.length)
+        {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+    }
+
+    /** @return the checkpoint for the value, or -1 if it has none. */
+    private int checkpointFor(int index)
+    {
+        int cp = Arrays.binarySearch(myCheckpointFirstValues, index);
+        if (cp < 0)
+        {
+            // the insertion point is the next checkpoint
+            cp = -cp - 2;
+        }
+        else
+        {
+            // skip any checkpoints that no value was read with
+            while (cp + 1 < myCheckpointFirstValues.length
+                   && myCheckpointFirstValues[cp + 1] == index)
+            {
+                cp++;
+            }
+        }
+        return cp;
+    }
+
+
+    //=========================================================================
+
+    /**
+     * Creates a reader over the indexed data, positioned just before the
+     * value at {@code index}.  The reader continues through the rest of the
+     * data after that value.
+     *
+     * @param readerBuilder configures the new reader.
+     * @param ionData must be the data that was indexed.
+     *
+     * @throws IndexOutOfBoundsException if there's no such value.
+     * @throws UnsupportedOperationException if the data isn't uncompressed
+     *  binary Ion.
+     */
+    public IonReader newReader(IonReaderBuilder readerBuilder,
+                               byte[] ionData,
+                               int index)
+    {
+        return newReader(readerBuilder, ionData, 0, ionData.length, index);
+    }
+
+    /**
+     * Creates a reader over the indexed data held in part of an array,
+     * positioned just before the value at {@code index}.  The reader
+     * continues through the rest of the data after that value.
+     *
+     * @param readerBuilder configures the new reader.
+     * @param ionData must hold the data that was indexed, starting at
+     *  {@code offset}.
+     *
+     * @throws IndexOutOfBoundsException if there's no such value.
+     * @throws UnsupportedOperationException if the data isn't uncompressed
+     *  binary Ion.
+     */
+    public IonReader newReader(IonReaderBuilder readerBuilder,
+                               byte[] ionData, int offset, int length,
+                               int index)
+    {
+        checkIndex(index);
+        IonReader reader = readerBuilder.build(ionData, offset, length);
+        return position(reader, index, length);
+    }
+
+    /**
+     * Creates a reader over the indexed file, positioned just before the
+     * value at {@code index}.  The reader continues through the rest of the
+     * file after that value.
+     *
+     * @param readerBuilder configures the new reader.
+     * @param ionData must be a channel over the file that was indexed.
+     *
+     * @throws IndexOutOfBoundsException if there's no such value.
+     * @throws UnsupportedOperationException if the data isn't uncompressed
+     *  binary Ion.
+     *
+     * @see IonReaderBuilder#build(FileChannel)
+     */
+    public IonReader newReader(IonReaderBuilder readerBuilder,
+                               FileChannel ionData,
+                               int index)
+    {
+        checkIndex(index);
+        long size;
+        try
+        {
+            size = ionData.size();
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+        IonReader reader = readerBuilder.build(ionData);
+        return position(reader, index, size);
+    }
+
+    private IonReader position(IonReader reader, int index, long dataLength)
+    {
+        SeekableReader seekable = reader.asFacet(SeekableReader.class);
+        if (seekable == null)
+        {
+            throw new UnsupportedOperationException(
+                "Only uncompressed binary Ion data can be read through an index");
+        }
+
+        // Nothing has been read yet, so this is the system symbol table.
+        SymbolTable symbols = reader.getSymbolTable();
+        int cp = checkpointFor(index);
+        if (cp >= 0)
+        {
+            // The checkpoint holds only system values, so this reads no
+            // user data; it just leaves the reader's symbol table in place.
+            seekable.hoist(makeSpan(myCheckpointStarts[cp],
+                                    myCheckpointFinishes[cp],
+                                    symbols));
+            while (reader.next() != null)
+            {
+                // skip
+            }
+            symbols = reader.getSymbolTable();
+        }
+        seekable.hoist(makeSpan(myValueOffsets[index], dataLength, symbols));
+        return reader;
+    }
+
+
+    //=========================================================================
+
+    /**
+     * Writes this index as a single Ion value, suitable for storage in a
+     * sidecar alongside the indexed data.  Offsets are delta-encoded to keep
+     * the index small.
+     *
+     * @see #read(IonReader)
+     */
+    public void writeTo(IonWriter writer)
+        throws IOException
+    {
+        writer.setTypeAnnotations(INDEX_ANNOTATION);
+        writer.stepIn(IonType.STRUCT);
+        {
+            writer.setFieldName(VERSION_FIELD);
+            writer.writeInt(VERSION);
+
+            // (start delta, length, first value delta) triples
+            writer.setFieldName(CHECKPOINTS_FIELD);
+            writer.stepIn(IonType.LIST);
+            long previousStart = 0;
+            int previousFirstValue = 0;
+            for (int i = 0; i < myCheckpointStarts.length; i++)
+            {
+                writer.writeInt(myCheckpointStarts[i] - previousStart);
+                writer.writeInt(myCheckpointFinishes[i] - myCheckpointStarts[i]);
+                writer.writeInt(myCheckpointFirstValues[i] - previousFirstValue);
+                previousStart = myCheckpointStarts[i];
+                previousFirstValue = myCheckpointFirstValues[i];
+            }
+            writer.stepOut();
+
+            writer.setFieldName(OFFSETS_FIELD);
+            writer.stepIn(IonType.LIST);
+            long previousOffset = 0;
+            for (long offset : myValueOffsets)
+            {
+                writer.writeInt(offset - previousOffset);
+                previousOffset = offset;
+            }
+            writer.stepOut();
+        }
+        writer.stepOut();
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo(IonWriter)} from the next
+     * value of the reader.
+     *
+     * @throws IonException if the next value isn't a valid index.
+     */
+    public static IonValueIndex read(IonReader reader)
+    {
+        if (reader.next() != IonType.STRUCT || reader.isNullValue())
+        {
+            throw new IonException("Expected an index struct");
+        }
+        String[] annotations = reader.getTypeAnnotations();
+        if (annotations.length == 0 || !INDEX_ANNOTATION.equals(annotations[0]))
+        {
+            throw new IonException("Expected an index annotated with "
+                                   + INDEX_ANNOTATION);
+        }
+
+        Recorder recorder = new Recorder();
+        long[] checkpoints = null;
+        long[] offsets = null;
+        boolean hasVersion = false;
+        reader.stepIn();
+        while (reader.next() != null)
+        {
+            String field = reader.getFieldName();
+            if (VERSION_FIELD.equals(field))
+            {
+                if (reader.intValue() != VERSION)
+                {
+                    throw new IonException("Unsupported index version: "
+                                           + reader.intValue());
+                }
+                hasVersion = true;
+            }
+            else if (CHECKPOINTS_FIELD.equals(field))
+            {
+                checkpoints = readLongs(reader);
+            }
+            else if (OFFSETS_FIELD.equals(field))
+            {
+                offsets = readLongs(reader);
+            }
+        }
+        reader.stepOut();
+        if (!hasVersion || checkpoints == null || offsets == null
+            || checkpoints.length % 3 != 0)
+        {
+            throw new IonException("Malformed index");
+        }
+
+        Recorder.OffsetListener listener = recorder.myListener;
+        long start = 0;
+        long firstValue = 0;
+        long offset = 0;
+        int valueIndex = 0;
+        for (int i = 0; i < checkpoints.length; i += 3)
+        {
+            start += checkpoints[i];
+            firstValue += checkpoints[i + 2];
+            if (firstValue > offsets.length)
+            {
+                throw new IonException("Malformed index");
+            }
+            for (; valueIndex < firstValue; valueIndex++)
+            {
+                offset += offsets[valueIndex];
+                listener.topLevelValue(offset);
+            }
+            listener.symbolTableCheckpoint(start, start + checkpoints[i + 1]);
+        }
+        for (; valueIndex < offsets.length; valueIndex++)
+        {
+            offset += offsets[valueIndex];
+            listener.topLevelValue(offset);
+        }
+        return recorder.build();
+    }
+
+    private static long[] readLongs(IonReader reader)
+    {
+        if (reader.getType() != IonType.LIST || reader.isNullValue())
+        {
+            throw new IonException("Malformed index");
+        }
+        long[] values = new long[16];
+        int count = 0;
+        reader.stepIn();
+        while (reader.next() != null)
+        {
+            if (reader.getType() != IonType.INT)
+            {
+                throw new IonException("Malformed index");
+            }
+            if (count == values.length)
+            {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = reader.longValue();
+        }
+        reader.stepOut();
+        return Arrays.copyOf(values, count);
+    }
+
+
+    //=========================================================================
+
+    /**
+     * Records the positions of values as they are written.  Pass one to
+     * {@link IonBinaryWriterBuilder#build(java.io.OutputStream, Recorder)},
+     * and {@link #build()} the index after the writer is closed.
+     * <p>
+     * Instances of this class are not thread-safe.
+     */
+    @SuppressWarnings("deprecation")
+    public static final class Recorder
+    {
+        private long[] myCheckpointStarts = new long[4];
+        private long[] myCheckpointFinishes = new long[4];
+        private int[]  myCheckpointFirstValues = new int[4];
+        private int    myCheckpointCount;
+        private long[] myValueOffsets = new long[64];
+        private int    myValueCount;
+        private final OffsetListener myListener = new OffsetListener();
+
+        public Recorder()
+        {
+        }
+
+        /**
+         * Receives the writer's callbacks, so that they aren't part of the
+         * recorder's own API.
+         */
+        private final class OffsetListener
+            implements com.amazon.ion.impl.bin._Private_IonValueOffsetListener
+        {
+            public void symbolTableCheckpoint(long start, long finish)
+            {
+                int cp = myCheckpointCount;
+                if (cp > 0 && myCheckpointFirstValues[cp - 1] == myValueCount)
+                {
+                    // no value was read with the previous one
+                    cp--;
+                }
+                else if (cp == myCheckpointStarts.length)
+                {
+                    myCheckpointStarts = Arrays.copyOf(myCheckpointStarts, cp * 2);
+                    myCheckpointFinishes = Arrays.copyOf(myCheckpointFinishes, cp * 2);
+                    myCheckpointFirstValues = Arrays.copyOf(myCheckpointFirstValues, cp * 2);
+                }
+                myCheckpointStarts[cp] = start;
+                myCheckpointFinishes[cp] = finish;
+                myCheckpointFirstValues[cp] = myValueCount;
+                myCheckpointCount = cp + 1;
+            }
+
+            public void topLevelValue(long offset)
+            {
+                if (myValueCount == myValueOffsets.length)
+                {
+                    myValueOffsets = Arrays.copyOf(myValueOffsets, myValueCount * 2);
+                }
+                myValueOffsets[myValueCount++] = offset;
+            }
+        }
+
+        /**
+         * Gives the writer the listener that records into this object.
+         *
+         * @see _Private_IonValueIndexUtils#offsetListener(Recorder)
+         */
+        com.amazon.ion.impl.bin._Private_IonValueOffsetListener
+        offsetListener()
+        {
+            return myListener;
+        }
+
+        /**
+         * Builds an index of the values recorded so far.
+         */
+        public IonValueIndex build()
+        {
+            int cpCount = myCheckpointCount;
+            if (cpCount > 0 && myCheckpointFirstValues[cpCount - 1] == myValueCount)
+            {
+                // drop a trailing checkpoint that no value is read with
+                cpCount--;
+            }
+            return new IonValueIndex(Arrays.copyOf(myCheckpointStarts, cpCount),
+                                     Arrays.copyOf(myCheckpointFinishes, cpCount),
+                                     Arrays.copyOf(myCheckpointFirstValues, cpCount),
+                                     Arrays.copyOf(myValueOffsets, myValueCount));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * Gives the writer builder access to the parts of {@link IonValueIndex}
+ * that aren't public.
+ *
+ * @deprecated This is a private API subject to change without notice.
+ */
+@Deprecated
+public final class _Private_IonValueIndexUtils
+{
+    private _Private_IonValueIndexUtils()
+    {
+    }
+
+    /**
+     * @return the listener that records the writer's output positions into
+     *  {@code recorder}.
+     */
+    public static com.amazon.ion.impl.bin._Private_IonValueOffsetListener
+    offsetListener(IonValueIndex.Recorder recorder)
+    {
+        return recorder.offsetListener();
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static com.amazon.ion.SystemSymbols.ION_1_0_MAX_ID;
+import static com.amazon.ion.impl._Private_Utils.systemSymtab;
+import static com.amazon.ion.impl._Private_Utils.utf8Length;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a shared symbol table from the symbols used by a sample corpus, so
+ * that binary writers importing it don't have to declare those symbols in
+ * every stream.
+ * <p>
+ * Each stream passed to {@link #scan(IonReader)} is read in full, counting
+ * the field names, annotations and symbol values it uses.
+ * {@link #infer(IonSystem, String, int)} then ranks the symbols by how
+ * often they occur, so the most frequent get the smallest symbol IDs, and
+ * estimates how many bytes the table would have saved on the sample.
+ * <p>
+ * When the version is greater than one, the prior version is taken from the
+ * system's catalog and its symbols keep their IDs, so data written with the
+ * prior version stays readable with the new one.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * <pre>
+ *    SharedSymbolTableInferrer inferrer = new SharedSymbolTableInferrer();
+ *    for (File file : sample) {
+ *        inferrer.scan(readerBuilder.build(new FileInputStream(file)));
+ *    }
+ *    SharedSymbolTableInferrer.Inference inference =
+ *        inferrer.infer(system, "com.example.events", 1);
+ *    catalog.putTable(inference.getSymbolTable());
+ *    IonBinaryWriterBuilder builder = IonBinaryWriterBuilder.standard()
+ *        .withCatalog(catalog)
+ *        .withImports(inference.getSymbolTable());
+ *</pre>
+ */
+public final class SharedSymbolTableInferrer
+{
+    /** The symbols occurring fewer times than this are left out by default. */
+    public static final int DEFAULT_MIN_OCCURRENCES = 2;
+
+    /** The usage of one symbol across the sample. */
+    private static final class Usage
+    {
+        final String text;
+        /** Occurrences as a field name or annotation, encoded as VarUInts. */
+        long idCount;
+        /** Occurrences as a symbol value, encoded as UInts. */
+        long valueCount;
+        /** The number of streams using the symbol, each of which declares it. */
+        long streamCount;
+        /** The bytes spent on this symbol's IDs with stream-local symbol tables. */
+        long localIdBytes;
+
+        Usage(String text)
+        {
+            this.text = text;
+        }
+
+        long count()
+        {
+            return idCount + valueCount;
+        }
+    }
+
+    /** Orders by descending frequency, then by text for stable results. */
+    private static final Comparator<Usage> BY_FREQUENCY = new Comparator<Usage>()
+    {
+        public int compare(Usage a, Usage b)
+        {
+            long diff = b.count() - a.count();
+            if (diff != 0)
+            {
+                return diff < 0 ? -1 : 1;
+            }
+            return a.text.compareTo(b.text);
+        }
+    };
+
+    /**
+     * A shared symbol table inferred from a sample, with the savings it
+     * would have achieved.
+     */
+    public static final class Inference
+    {
+        private final SymbolTable mySymbolTable;
+        private final long        myEstimatedBytesSaved;
+
+        private Inference(SymbolTable symbolTable, long estimatedBytesSaved)
+        {
+            mySymbolTable = symbolTable;
+            myEstimatedBytesSaved = estimatedBytesSaved;
+        }
+
+        /**
+         * Gets the inferred shared symbol table, suitable for
+         * {@link com.amazon.ion.system.SimpleCatalog#putTable(SymbolTable)}.
+         */
+        public SymbolTable getSymbolTable()
+        {
+            return mySymbolTable;
+        }
+
+        /**
+         * Gets the estimated number of bytes the sample would have saved
+         * when written as binary Ion importing the table, one local symbol
+         * table per scanned stream.  This accounts for symbol declarations
+         * no longer written, the sizes of the symbol IDs of the table's
+         * symbols, and the import declaration each stream adds.  It may be
+         * negative if the table doesn't pay for itself.
+         */
+        public long getEstimatedBytesSaved()
+        {
+            return myEstimatedBytesSaved;
+        }
+    }
+
+    private final Map<String, Usage> myUsages = new HashMap<String, Usage>();
+    /** The stream-local IDs of the symbols used by the stream being scanned. */
+    private final Map<String, Integer> myLocalIds = new HashMap<String, Integer>();
+    private long myStreamCount;
+
+
+    /**
+     * Reads all remaining values of a stream, counting the symbols they
+     * use.  The reader is not closed.
+     */
+    public void scan(IonReader reader)
+    {
+        myLocalIds.clear();
+        myStreamCount++;
+        scanValues(reader);
+    }
+
+    /** Gets the number of streams scanned so far. */
+    public long getStreamCount()
+    {
+        return myStreamCount;
+    }
+
+    private void scanValues(IonReader reader)
+    {
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            if (reader.isInStruct())
+            {
+                count(reader.getFieldNameSymbol(), false);
+            }
+            for (SymbolToken annotation : reader.getTypeAnnotationSymbols())
+            {
+                count(annotation, false);
+            }
+            if (reader.isNullValue())
+            {
+                continue;
+            }
+            switch (type)
+            {
+                case SYMBOL:
+                    count(reader.symbolValue(), true);
+                    break;
+                case LIST:
+                case SEXP:
+                case STRUCT:
+                    reader.stepIn();
+                    scanValues(reader);
+                    reader.stepOut();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void count(SymbolToken token, boolean isValue)
+    {
+        String text = token == null ? null : token.getText();
+        if (text == null || isSystemSymbol(text))
+        {
+            return;
+        }
+        Usage usage = myUsages.get(text);
+        if (usage == null)
+        {
+            usage = new Usage(text);
+            myUsages.put(text, usage);
+        }
+        Integer localId = myLocalIds.get(text);
+        if (localId == null)
+        {
+            // writers assign local IDs in order of first use
+            localId = ION_1_0_MAX_ID + 1 + myLocalIds.size();
+            myLocalIds.put(text, localId);
+            usage.streamCount++;
+        }
+        if (isValue)
+        {
+            usage.valueCount++;
+            usage.localIdBytes += uIntLength(localId);
+        }
+        else
+        {
+            usage.idCount++;
+            usage.localIdBytes += varUIntLength(localId);
+        }
+    }
+
+    private static boolean isSystemSymbol(String text)
+    {
+        return systemSymtab(1).findSymbol(text) != SymbolTable.UNKNOWN_SYMBOL_ID;
+    }
+
+
+    /**
+     * Infers a table of every symbol occurring at least
+     * {@link #DEFAULT_MIN_OCCURRENCES} times in the sample.
+     *
+     * @see #infer(IonSystem, String, int, int, int)
+     */
+    public Inference infer(IonSystem system, String name, int version)
+    {
+        return infer(system, name, version, Integer.MAX_VALUE, DEFAULT_MIN_OCCURRENCES);
+    }
+
+    /**
+     * Infers a table of the most frequent symbols in the sample.
+     *
+     * @param system creates the table, and provides the prior version from
+     *  its catalog if {@code version} is greater than one.
+     * @param name the table name, a non-empty string.
+     * @param version at least one.
+     * @param maxSymbols the maximum number of symbols to add to those of the
+     *  prior version.
+     * @param minOccurrences the number of times a symbol must occur in the
+     *  sample to be added.
+     *
+     * @throws com.amazon.ion.IonException if {@code version > 1} and the
+     *  prior version is not in the system's catalog.
+     */
+    public Inference infer(IonSystem system,
+                           String name,
+                           int version,
+                           int maxSymbols,
+                           int minOccurrences)
+    {
+        if (maxSymbols < 0)
+        {
+            throw new IllegalArgumentException("maxSymbols must not be negative");
+        }
+        List<Usage> ranked = new ArrayList<Usage>(myUsages.values());
+        Collections.sort(ranked, BY_FREQUENCY);
+
+        // symbols the prior version already has don't count against the
+        // limit; if it's missing, creating the table below reports that
+        SymbolTable prior = version > 1
+            ? system.getCatalog().getTable(name, version - 1)
+            : null;
+
+        List<String> symbols = new ArrayList<String>();
+        for (Usage usage : ranked)
+        {
+            if (symbols.size() >= maxSymbols || usage.count() < minOccurrences)
+            {
+                break;
+            }
+            if (prior != null
+                && prior.findSymbol(usage.text) != SymbolTable.UNKNOWN_SYMBOL_ID)
+            {
+                continue;
+            }
+            symbols.add(usage.text);
+        }
+        SymbolTable table =
+            system.newSharedSymbolTable(name, version, symbols.iterator());
+        return new Inference(table, estimateBytesSaved(table));
+    }
+
+    private long estimateBytesSaved(SymbolTable table)
+    {
+        long saved = 0;
+        for (Usage usage : myUsages.values())
+        {
+            int sid = table.findSymbol(usage.text);
+            if (sid == SymbolTable.UNKNOWN_SYMBOL_ID)
+            {
+                continue;
+            }
+            // imported symbols follow the system symbols
+            sid += ION_1_0_MAX_ID;
+            saved += usage.streamCount * stringLength(usage.text);
+            saved += usage.localIdBytes;
+            saved -= usage.idCount * varUIntLength(sid)
+                   + usage.valueCount * uIntLength(sid);
+        }
+        // each stream declares imports:[{name:"...", version:v, max_id:m}]
+        int importStruct = 3 // field names
+            + stringLength(table.getName())
+            + 1 + uIntLength(table.getVersion())
+            + 1 + uIntLength(table.getMaxId());
+        int importList = importStruct + lengthPrefix(importStruct);
+        int imports = 1 + importList + lengthPrefix(importList);
+        saved -= myStreamCount * imports;
+        return saved;
+    }
+
+    /** The encoded length of a string value. */
+    private static int stringLength(String text)
+    {
+        int length = utf8Length(text);
+        return length + lengthPrefix(length);
+    }
+
+    /** The length of a type descriptor, with a VarUInt length if needed. */
+    private static int lengthPrefix(int length)
+    {
+        return length < 14 ? 1 : 1 + varUIntLength(length);
+    }
+
+    private static int varUIntLength(long value)
+    {
+        int length = 1;
+        while ((value >>>= 7) != 0)
+        {
+            length++;
+        }
+        return length;
+    }
+
+    private static int uIntLength(long value)
+    {
+        int length = 1;
+        while ((value >>>= 8) != 0)
+        {
+            length++;
+        }
+        return length;
+    }
+}
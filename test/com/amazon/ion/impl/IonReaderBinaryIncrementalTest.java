@@ -0,0 +1,253 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.UnexpectedEofException;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+
+public class IonReaderBinaryIncrementalTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final IonReaderBuilder BUILDER =
+        IonReaderBuilder.standard().withIncrementalReadingEnabled(true).immutable();
+
+    /**
+     * A stream over a byte array that only exposes the bytes "arrived" so far,
+     * returning -1 when the reader has caught up.
+     */
+    private static class ArrivingInputStream extends InputStream
+    {
+        private final byte[] data;
+        private int arrived;
+        private int position;
+
+        ArrivingInputStream(byte[] data, int arrived)
+        {
+            this.data = data;
+            this.arrived = arrived;
+        }
+
+        void arrive(int count)
+        {
+            arrived = Math.min(data.length, arrived + count);
+        }
+
+        @Override
+        public int read()
+        {
+            return position < arrived ? data[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+        {
+            int available = arrived - position;
+            if (available <= 0) {
+                return -1;
+            }
+            len = Math.min(len, available);
+            System.arraycopy(data, position, b, off, len);
+            position += len;
+            return len;
+        }
+    }
+
+    private static byte[] binary(String ionText) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = SYSTEM.newBinaryWriter(out);
+        IonReader reader = SYSTEM.newReader(ionText);
+        writer.writeValues(reader);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testValuesArrivingOneByteAtATime() throws Exception
+    {
+        byte[] data = binary("{foo:bar, baz:[1, 2, \"three\"]} abc::1.5 qux");
+        ArrivingInputStream in = new ArrivingInputStream(data, 4);
+        IonReader reader = BUILDER.build(in);
+
+        int values = 0;
+        while (values < 3) {
+            IonType type = reader.next();
+            if (type == null) {
+                in.arrive(1);
+                continue;
+            }
+            switch (values++) {
+                case 0:
+                    assertEquals(IonType.STRUCT, type);
+                    reader.stepIn();
+                    assertEquals(IonType.SYMBOL, reader.next());
+                    assertEquals("foo", reader.getFieldName());
+                    assertEquals("bar", reader.stringValue());
+                    assertEquals(IonType.LIST, reader.next());
+                    reader.stepIn();
+                    assertEquals(IonType.INT, reader.next());
+                    assertEquals(1, reader.intValue());
+                    reader.stepOut();
+                    assertNull(reader.next());
+                    reader.stepOut();
+                    break;
+                case 1:
+                    assertEquals(IonType.DECIMAL, type);
+                    assertEquals("abc", reader.getTypeAnnotations()[0]);
+                    break;
+                case 2:
+                    assertEquals(IonType.SYMBOL, type);
+                    assertEquals("qux", reader.stringValue());
+                    break;
+            }
+        }
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testNextReturnsNullUntilValueComplete() throws Exception
+    {
+        byte[] data = binary("\"hello\" 42");
+        ArrivingInputStream in = new ArrivingInputStream(data, data.length - 2);
+        IonReader reader = BUILDER.build(in);
+
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals("hello", reader.stringValue());
+        assertNull(reader.next());
+        assertNull(reader.next());
+        in.arrive(2);
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(42, reader.intValue());
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testLargeValueGrowsBuffer() throws Exception
+    {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < 20000; i++) {
+            text.append(i).append(',');
+        }
+        text.append("] end");
+        byte[] data = binary(text.toString());
+        ArrivingInputStream in = new ArrivingInputStream(data, 4);
+        IonReader reader = BUILDER.build(in);
+
+        IonType type;
+        while ((type = reader.next()) == null) {
+            in.arrive(1000);
+        }
+        assertEquals(IonType.LIST, type);
+        reader.stepIn();
+        int count = 0;
+        while (reader.next() != null) {
+            assertEquals(count++, reader.intValue());
+        }
+        assertEquals(20000, count);
+        reader.stepOut();
+        assertEquals(IonType.SYMBOL, reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testCloseWithIncompleteValueFails() throws Exception
+    {
+        byte[] data = binary("\"a string long enough to be split\"");
+        IonReader reader = BUILDER.build(new ArrivingInputStream(data, data.length - 1));
+        assertNull(reader.next());
+        try {
+            reader.close();
+            fail("Expected UnexpectedEofException");
+        }
+        catch (UnexpectedEofException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testVersionMarkerArrivingOneByteAtATime() throws Exception
+    {
+        byte[] data = binary("hello");
+        ArrivingInputStream in = new ArrivingInputStream(data, 0);
+        IonReader reader = BUILDER.build(in);
+
+        // nothing is complete until the value's last byte arrives
+        for (int i = 0; i < data.length; i++) {
+            assertNull(reader.next());
+            in.arrive(1);
+        }
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("hello", reader.stringValue());
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testCloseWithIncompleteVersionMarkerFails() throws Exception
+    {
+        byte[] data = binary("hello");
+        IonReader reader = BUILDER.build(new ArrivingInputStream(data, 2));
+        assertNull(reader.next());
+        try {
+            reader.close();
+            fail("Expected UnexpectedEofException");
+        }
+        catch (UnexpectedEofException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTextIsReadNormally() throws Exception
+    {
+        byte[] data = "abc 123".getBytes("UTF-8");
+        IonReader reader = BUILDER.build(new ArrivingInputStream(data, data.length));
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals(IonType.INT, reader.next());
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testTextArrivingAfterEmptyRead() throws Exception
+    {
+        byte[] data = "abc".getBytes("UTF-8");
+        ArrivingInputStream in = new ArrivingInputStream(data, 0);
+        IonReader reader = BUILDER.build(in);
+        assertNull(reader.next());
+        in.arrive(data.length);
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("abc", reader.stringValue());
+        assertNull(reader.next());
+        reader.close();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.IOException;
+import org.junit.Test;
+
+public class IonReaderProjectingXTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String DATA =
+        "{a:{b:1, x:2}, c:[{d:3, e:4}, {e:5}, {d:(6 7)}], f:8, g:{b:9}} " +
+        "[{d:10}] " +
+        "{c:{d:11}, a:ann::{b:{z:12}}}";
+
+    private static final String PROJECTED =
+        "{a:{b:1}, c:[{d:3}, {}, {d:(6 7)}]} " +
+        "[] " +
+        "{c:{}, a:ann::{b:{z:12}}}";
+
+    /** Copies everything the reader surfaces to text. */
+    private static String project(IonReader reader) throws IOException
+    {
+        StringBuilder out = new StringBuilder();
+        IonWriter writer = SYSTEM.newTextWriter(out);
+        writer.writeValues(reader);
+        writer.close();
+        reader.close();
+        return out.toString();
+    }
+
+    private static IonReaderBuilder builder()
+    {
+        return IonReaderBuilder.standard().withProjectedPaths("a.b", "c[*].d");
+    }
+
+    @Test
+    public void testText() throws IOException
+    {
+        assertEquals(SYSTEM.getLoader().load(PROJECTED),
+                     SYSTEM.getLoader().load(project(builder().build(DATA))));
+    }
+
+    @Test
+    public void testBinary() throws IOException
+    {
+        byte[] bytes = SYSTEM.getLoader().load(DATA).getBytes();
+        assertEquals(SYSTEM.getLoader().load(PROJECTED),
+                     SYSTEM.getLoader().load(project(builder().build(bytes))));
+    }
+
+    @Test
+    public void testTree() throws IOException
+    {
+        IonReader reader = builder().build(SYSTEM.getLoader().load(DATA));
+        assertEquals(SYSTEM.getLoader().load(PROJECTED),
+                     SYSTEM.getLoader().load(project(reader)));
+    }
+
+    @Test
+    public void testManualNavigation()
+    {
+        byte[] bytes = SYSTEM.getLoader().load(DATA).getBytes();
+        IonReader reader = builder().build(bytes);
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals("a", reader.getFieldName());
+        reader.stepIn();
+        reader.next();
+        assertEquals("b", reader.getFieldName());
+        assertEquals(1, reader.intValue());
+        assertNull(reader.next());
+        reader.stepOut();
+        reader.next();
+        assertEquals("c", reader.getFieldName());
+        assertNull(reader.next());
+        reader.stepOut();
+        reader.next();
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals("c", reader.getFieldName());
+        reader.next();
+        assertEquals("ann", reader.getTypeAnnotations()[0]);
+        assertNull(reader.next());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testHasNext()
+    {
+        IonReader reader = builder().build(DATA);
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        reader.next();
+        assertEquals("c", reader.getFieldName());
+        assertEquals(false, reader.hasNext());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testPrefixPathSelectsEverythingBelow() throws IOException
+    {
+        IonReader reader = IonReaderBuilder.standard()
+            .withProjectedPaths("a.b", "a", "[*]")
+            .build(DATA);
+        assertEquals(SYSTEM.getLoader().load("{a:{b:1, x:2}} [{d:10}] {a:ann::{b:{z:12}}}"),
+                     SYSTEM.getLoader().load(project(reader)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedPath()
+    {
+        IonReaderBuilder.standard().withProjectedPaths("a..b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedElementStep()
+    {
+        IonReaderBuilder.standard().withProjectedPaths("a[0]");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingDotAfterElementStep()
+    {
+        IonReaderBuilder.standard().withProjectedPaths("a[*]b");
+    }
+}
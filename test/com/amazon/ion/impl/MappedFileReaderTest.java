@@ -0,0 +1,158 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.Span;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedFileReaderTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+    private static final int VALUE_COUNT = 500;
+
+    private File file;
+    private RandomAccessFile raf;
+
+    @Before
+    public void setup() throws IOException
+    {
+        file = File.createTempFile("MappedFileReaderTest", ".10n");
+    }
+
+    @After
+    public void teardown() throws IOException
+    {
+        if (raf != null) {
+            raf.close();
+        }
+        file.delete();
+    }
+
+    private FileChannel writeValues(boolean gzip) throws IOException
+    {
+        OutputStream out = new FileOutputStream(file);
+        if (gzip) {
+            out = new GZIPOutputStream(out);
+        }
+        IonWriter writer = SYSTEM.newBinaryWriter(out);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("id");
+            writer.writeInt(i);
+            writer.setFieldName("name");
+            writer.writeString("value number " + i);
+            writer.stepOut();
+        }
+        writer.close();
+        raf = new RandomAccessFile(file, "r");
+        return raf.getChannel();
+    }
+
+    private static void assertRecord(IonReader reader, int expected)
+    {
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(expected, reader.intValue());
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals("value number " + expected, reader.stringValue());
+        reader.stepOut();
+    }
+
+    @Test
+    public void testReadAllValues() throws IOException
+    {
+        IonReader reader = IonReaderBuilder.standard().build(writeValues(false));
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            assertRecord(reader, i);
+        }
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testReadGzippedFile() throws IOException
+    {
+        IonReader reader = IonReaderBuilder.standard().build(writeValues(true));
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            assertRecord(reader, i);
+        }
+        assertNull(reader.next());
+    }
+
+    /**
+     * Uses tiny segments so that values straddle mapping boundaries.
+     */
+    @Test
+    public void testValuesSpanningSegments() throws IOException
+    {
+        MappedFileInputStream mapped = new MappedFileInputStream(writeValues(false), 4);
+        UnifiedInputStreamX uis = new UnifiedInputStreamX.FromMappedFile(mapped);
+        IonReader reader = new IonReaderBinaryUserX(new SimpleCatalog(),
+                                                    LocalSymbolTable.DEFAULT_LST_FACTORY,
+                                                    uis,
+                                                    0);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            assertRecord(reader, i);
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testHoist() throws IOException
+    {
+        IonReader reader = IonReaderBuilder.standard().build(writeValues(false));
+        SpanProvider spans = reader.asFacet(SpanProvider.class);
+        List<Span> positions = new ArrayList<Span>();
+        while (reader.next() != null) {
+            positions.add(spans.currentSpan());
+        }
+        assertEquals(VALUE_COUNT, positions.size());
+
+        SeekableReader seekable = reader.asFacet(SeekableReader.class);
+        assertNotNull(seekable);
+        int[] targets = { 400, 3, VALUE_COUNT - 1, 0, 250 };
+        for (int target : targets) {
+            seekable.hoist(positions.get(target));
+            assertRecord(reader, target);
+            assertNull(reader.next());
+        }
+    }
+}
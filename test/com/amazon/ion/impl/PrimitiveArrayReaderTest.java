@@ -0,0 +1,191 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.PrimitiveArrayReader;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.util.IonStreamUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class PrimitiveArrayReaderTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static IonReader read(String text)
+    {
+        IonReader reader = SYSTEM.newReader(SYSTEM.getLoader().load(text).getBytes());
+        reader.next();
+        reader.stepIn();
+        return reader;
+    }
+
+    private static PrimitiveArrayReader arrays(IonReader reader)
+    {
+        return reader.asFacet(PrimitiveArrayReader.class);
+    }
+
+    @Test
+    public void testLongs()
+    {
+        IonReader reader = read("[0, 1, -1, 255, -256, 4294967296, "
+                                + Long.MAX_VALUE + ", " + Long.MIN_VALUE + "]");
+        long[] values = new long[10];
+        assertEquals(8, arrays(reader).readLongs(values, 1, 9));
+        assertArrayEquals(new long[] {0, 0, 1, -1, 255, -256, 4294967296L, Long.MAX_VALUE, Long.MIN_VALUE, 0},
+                          values);
+        assertEquals(0, arrays(reader).readLongs(values, 0, 10));
+        assertNull(reader.next());
+        reader.stepOut();
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testRunsStopAtOtherValues()
+    {
+        IonReader reader = read("(1 2 3000000000 null.int a::4 5 \"six\" 7 1e0 9223372036854775808 8)");
+        PrimitiveArrayReader arrays = arrays(reader);
+        int[] ints = new int[10];
+        assertEquals(2, arrays.readInts(ints, 0, 10));
+        // out of range for an int
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(3000000000L, reader.longValue());
+        assertEquals(0, arrays.readInts(ints, 2, 8));
+        assertEquals(IonType.INT, reader.next());
+        assertTrue(reader.isNullValue());
+        assertEquals(0, arrays.readInts(ints, 2, 8));
+        assertEquals(IonType.INT, reader.next());
+        assertEquals("a", reader.getTypeAnnotations()[0]);
+        // the run follows the current value, whether or not it has been read
+        assertEquals(1, arrays.readInts(ints, 2, 8));
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals(1, arrays.readInts(ints, 3, 1));
+        assertEquals(0, arrays.readInts(ints, 4, 6));
+        assertEquals(IonType.FLOAT, reader.next());
+        long[] longs = new long[1];
+        assertEquals(0, arrays.readLongs(longs, 0, 1));
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(1, arrays.readLongs(longs, 0, 1));
+        assertArrayEquals(new int[] {1, 2, 5, 7, 0, 0, 0, 0, 0, 0}, ints);
+        assertEquals(8, longs[0]);
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testDoubles() throws Exception
+    {
+        double[] expected = {0d, -0d, 1.5, 0.1, Double.NaN, Double.NEGATIVE_INFINITY, Float.MIN_VALUE};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = SYSTEM.newBinaryWriter(out);
+        IonStreamUtils.writeFloatList(writer, expected);
+        writer.close();
+
+        IonReader reader = SYSTEM.newReader(out.toByteArray());
+        reader.next();
+        reader.stepIn();
+        double[] values = new double[10];
+        assertEquals(expected.length, arrays(reader).readDoubles(values, 0, 10));
+        assertArrayEquals(expected, Arrays.copyOf(values, expected.length), 0d);
+        assertNull(reader.next());
+
+        reader = read("[1e0, 2]");
+        assertEquals(1, arrays(reader).readDoubles(values, 0, 10));
+        assertEquals(0, arrays(reader).readDoubles(values, 0, 10));
+    }
+
+    @Test
+    public void testNopPadding()
+    {
+        // [1, <pad>, 2, <empty pad>, 3]
+        byte[] data = {
+            (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+            (byte) 0xB9, 0x21, 0x01, 0x01, 0x00, 0x21, 0x02, 0x00, 0x21, 0x03,
+        };
+        IonReader reader = SYSTEM.newReader(data);
+        reader.next();
+        reader.stepIn();
+        long[] values = new long[4];
+        assertEquals(3, arrays(reader).readLongs(values, 0, 4));
+        assertArrayEquals(new long[] {1, 2, 3, 0}, values);
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testStreamInput() throws Exception
+    {
+        long[] expected = new long[100000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (long) i * i * (i % 2 == 0 ? 1 : -1);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = SYSTEM.newBinaryWriter(out);
+        IonStreamUtils.writeIntList(writer, expected);
+        writer.close();
+
+        IonReader reader = SYSTEM.newReader(new ByteArrayInputStream(out.toByteArray()));
+        PrimitiveArrayReader arrays = reader.asFacet(PrimitiveArrayReader.class);
+        reader.next();
+        reader.stepIn();
+        long[] values = new long[16];
+        int count = 0;
+        while (true) {
+            count += arrays.readLongs(values, count, values.length - count);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            else if (reader.next() == null) {
+                break;
+            }
+            else {
+                values[count++] = reader.longValue();
+            }
+        }
+        reader.stepOut();
+        assertArrayEquals(expected, Arrays.copyOf(values, count));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotInSequence()
+    {
+        IonReader reader = SYSTEM.newReader(SYSTEM.getLoader().load("{a:1}").getBytes());
+        reader.next();
+        reader.stepIn();
+        arrays(reader).readLongs(new long[1], 0, 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBounds()
+    {
+        arrays(read("[1]")).readLongs(new long[1], 1, 1);
+    }
+
+    @Test
+    public void testTextReaderLacksFacet()
+    {
+        assertNull(SYSTEM.newReader("[1]").asFacet(PrimitiveArrayReader.class));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import org.junit.Test;
+
+public class TextInterningCacheTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String DATA =
+        "{name:\"value\", kind:sym, 'quoted field':\"value\"} " +
+        "{name:\"value\", kind:sym, 'quoted field':\"value\"}";
+
+    private static final IonReaderBuilder INTERNING =
+        IonReaderBuilder.standard().withInterningCacheSize(16).immutable();
+
+    private static String[] readTexts(IonReader reader)
+    {
+        String[] texts = new String[12];
+        int i = 0;
+        while (reader.next() != null) {
+            reader.stepIn();
+            while (reader.next() != null) {
+                texts[i++] = reader.getFieldName();
+                texts[i++] = reader.stringValue();
+            }
+            reader.stepOut();
+        }
+        return texts;
+    }
+
+    private static void checkInterned(String[] texts)
+    {
+        for (int i = 0; i < 6; i++) {
+            assertSame(texts[i], texts[i + 6]);
+        }
+        assertSame(texts[1], texts[5]);
+    }
+
+    @Test
+    public void testTextReader()
+    {
+        checkInterned(readTexts(INTERNING.build(DATA)));
+        checkInterned(readTexts(INTERNING.build(DATA.getBytes())));
+    }
+
+    @Test
+    public void testBinaryReader()
+    {
+        byte[] bytes = SYSTEM.getLoader().load(DATA).getBytes();
+        checkInterned(readTexts(INTERNING.build(bytes)));
+    }
+
+    @Test
+    public void testDisabledByDefault()
+    {
+        String[] texts = readTexts(IonReaderBuilder.standard().build(DATA));
+        assertNotSame(texts[1], texts[7]);
+    }
+
+    @Test
+    public void testCollisionsAndLongText()
+    {
+        // a single pair of slots
+        TextInterningCache cache = new TextInterningCache(1);
+        String a = cache.intern(new StringBuilder("a"));
+        assertSame(a, cache.intern("a".toCharArray(), 0, 1));
+        String b = cache.intern(new StringBuilder("b"));
+        assertEquals("b", b);
+        assertSame(a, cache.intern(new StringBuilder("a")));
+        assertSame(b, cache.intern(new StringBuilder("b")));
+        cache.intern(new StringBuilder("c"));
+        // "a" was the older entry, so "c" evicted it
+        assertSame(b, cache.intern(new StringBuilder("b")));
+        assertNotSame(a, cache.intern(new StringBuilder("a")));
+
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i <= TextInterningCache.MAX_INTERNED_LENGTH; i++) {
+            longText.append('x');
+        }
+        assertNotSame(cache.intern(longText), cache.intern(longText));
+        assertEquals(longText.toString(), cache.intern(longText));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSize()
+    {
+        IonReaderBuilder.standard().setInterningCacheSize(-1);
+    }
+}
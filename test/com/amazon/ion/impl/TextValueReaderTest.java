@@ -0,0 +1,179 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.NullValueException;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.TextValueReader;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TextValueReaderTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    // covers one- to four-byte UTF-8 sequences
+    private static final String TEXT = "aé中😀z";
+
+    private IonReader myReader;
+    private TextValueReader myText;
+
+    @Before
+    public void setUp()
+    {
+        String data = "{name:\"" + TEXT + "\", kind:'" + TEXT + "', empty:\"\"} null.string";
+        byte[] bytes = SYSTEM.getLoader().load(data).getBytes();
+        myReader = SYSTEM.newReader(bytes);
+        myText = myReader.asFacet(TextValueReader.class);
+        myReader.next();
+        myReader.stepIn();
+    }
+
+    private static byte[] utf8(String text) throws Exception
+    {
+        return text.getBytes("UTF-8");
+    }
+
+    @Test
+    public void testString() throws Exception
+    {
+        assertEquals(IonType.STRING, myReader.next());
+        byte[] expected = utf8(TEXT);
+        assertEquals(expected.length, myText.getTextUtf8Length());
+
+        char[] chars = new char[myText.getTextUtf8Length() + 1];
+        int count = myText.getTextChars(chars, 1);
+        assertEquals(TEXT, new String(chars, 1, count));
+
+        assertTrue(myText.textEquals(expected, 0, expected.length));
+        assertFalse(myText.textEquals(expected, 0, expected.length - 1));
+        assertFalse(myText.textEquals(utf8("aé中😀y"), 0, expected.length));
+
+        // the bytes are kept for the conventional accessor too
+        assertEquals(TEXT, myReader.stringValue());
+        CharBuffer buffer = CharBuffer.allocate(20);
+        myText.getTextChars(buffer);
+        buffer.flip();
+        assertEquals(TEXT, buffer.toString());
+    }
+
+    @Test
+    public void testSymbolAndFieldIds() throws Exception
+    {
+        myReader.next();
+        SymbolTable symbols = myReader.getSymbolTable();
+        assertSame(symbols.findKnownSymbol(myText.getFieldNameId()),
+                   symbols.findKnownSymbol(myText.getFieldNameId()));
+        assertEquals("name", symbols.findKnownSymbol(myText.getFieldNameId()));
+
+        assertEquals(IonType.SYMBOL, myReader.next());
+        assertEquals("kind", myReader.getFieldName());
+        assertEquals(TEXT, symbols.findKnownSymbol(myText.getSymbolValueId()));
+
+        byte[] expected = utf8(TEXT);
+        assertEquals(expected.length, myText.getTextUtf8Length());
+        assertTrue(myText.textEquals(expected, 0, expected.length));
+        assertFalse(myText.textEquals(expected, 1, expected.length - 1));
+        char[] chars = new char[expected.length];
+        assertEquals(TEXT, new String(chars, 0, myText.getTextChars(chars, 0)));
+    }
+
+    @Test
+    public void testEmptyString()
+    {
+        myReader.next();
+        myReader.next();
+        myReader.next();
+        assertEquals(0, myText.getTextUtf8Length());
+        assertTrue(myText.textEquals(new byte[0], 0, 0));
+        assertEquals(0, myText.getTextChars(new char[0], 0));
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testBufferOverflow()
+    {
+        myReader.next();
+        CharBuffer buffer = CharBuffer.allocate(2);
+        try {
+            myText.getTextChars(buffer);
+        }
+        finally {
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test(expected = NullValueException.class)
+    public void testNullString()
+    {
+        myReader.stepOut();
+        myReader.next();
+        assertNull(myReader.stringValue());
+        myText.getTextUtf8Length();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotText()
+    {
+        // no current value after stepping in
+        myText.getTextUtf8Length();
+    }
+
+    @Test
+    public void testLongTextNotRetained()
+    {
+        StringBuilder text = new StringBuilder();
+        while (text.length() <= IonReaderBinaryRawX.MAX_TEXT_SCRATCH_SIZE) {
+            text.append(TEXT);
+        }
+        String data = "\"" + text + "\" \"" + TEXT + "\"";
+        IonReader reader =
+            SYSTEM.newReader(SYSTEM.getLoader().load(data).getBytes());
+        IonReaderBinaryRawX raw = (IonReaderBinaryRawX) reader;
+
+        reader.next();
+        assertEquals(text.toString(), reader.stringValue());
+        CharBuffer buffer = CharBuffer.allocate(text.length() + 1);
+        buffer.put('x');
+        reader.asFacet(TextValueReader.class).getTextChars(buffer);
+        assertEquals(text.length() + 1, buffer.position());
+        assertTrue(raw._text_chars == null
+                   || raw._text_chars.length <= IonReaderBinaryRawX.MAX_TEXT_SCRATCH_SIZE);
+
+        reader.next();
+        assertTrue(raw._text_bytes == null
+                   || raw._text_bytes.length <= IonReaderBinaryRawX.MAX_TEXT_SCRATCH_SIZE);
+        assertEquals(TEXT, reader.stringValue());
+        assertTrue(raw._text_bytes.length <= IonReaderBinaryRawX.MAX_TEXT_SCRATCH_SIZE);
+    }
+
+    @Test
+    public void testTextReaderLacksFacet()
+    {
+        assertNull(SYSTEM.newReader("\"a\"").asFacet(TextValueReader.class));
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.impl.bin._Private_IonManagedBinaryWriterBuilder.AllocatorMode;
+import com.amazon.ion.impl.bin._Private_IonManagedBinaryWriterBuilder.PoolStatistics;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class BoundedPooledBlockAllocatorProviderTest
+{
+    @Test
+    public void testReuseBlockAfterClose()
+    {
+        final BoundedPooledBlockAllocatorProvider provider = new BoundedPooledBlockAllocatorProvider(1024, 1);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final Block block1 = allocator.allocateBlock();
+        final Block block2 = allocator.allocateBlock();
+        assertNotSame(block1.data, block2.data);
+        assertEquals(8, block1.data.length);
+        block1.limit = 7;
+        block1.close();
+        assertEquals(8, provider.getRetainedBytes());
+
+        final Block block1Again = allocator.allocateBlock();
+        assertSame(block1.data, block1Again.data);
+        assertEquals(0, block1Again.limit);
+        assertEquals(0, provider.getRetainedBytes());
+        assertEquals(1, provider.getHits());
+        assertEquals(2, provider.getMisses());
+        assertSame(allocator, provider.vendAllocator(8));
+    }
+
+    @Test
+    public void testBoundAfterBurst()
+    {
+        final BoundedPooledBlockAllocatorProvider provider = new BoundedPooledBlockAllocatorProvider(40, 1);
+        final BlockAllocator small = provider.vendAllocator(8);
+        final BlockAllocator large = provider.vendAllocator(16);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < 10; i++)
+        {
+            blocks.add(small.allocateBlock());
+            blocks.add(large.allocateBlock());
+        }
+        for (final Block block : blocks)
+        {
+            block.close();
+        }
+        // 8 + 16 + 8 fit, after which every release but one more small block is dropped
+        assertEquals(40, provider.getRetainedBytes());
+        assertEquals(20 - 4, provider.getEvictions());
+        assertEquals(20, provider.getMisses());
+
+        // the steady state allocates nothing
+        for (int i = 0; i < 100; i++)
+        {
+            small.allocateBlock().close();
+        }
+        assertEquals(20, provider.getMisses());
+        assertEquals(100, provider.getHits());
+        assertEquals(40, provider.getRetainedBytes());
+    }
+
+    @Test
+    public void testBoundSharedByStripes() throws Exception
+    {
+        // each of the two stripes may retain 16 bytes, which together bound what one thread can retain
+        final BoundedPooledBlockAllocatorProvider provider = new BoundedPooledBlockAllocatorProvider(32, 2);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < 6; i++)
+        {
+            blocks.add(allocator.allocateBlock());
+        }
+        for (final Block block : blocks)
+        {
+            block.close();
+        }
+        assertEquals(32, provider.getRetainedBytes());
+        assertEquals(2, provider.getEvictions());
+    }
+
+    @Test
+    public void testWorkingSetLargerThanStripeShare() throws Exception
+    {
+        // one thread's working set of 12 blocks is six times its stripe's share of 2
+        final BoundedPooledBlockAllocatorProvider provider = new BoundedPooledBlockAllocatorProvider(128, 8);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int cycle = 0; cycle < 10; cycle++)
+        {
+            for (int i = 0; i < 12; i++)
+            {
+                blocks.add(allocator.allocateBlock());
+            }
+            for (final Block block : blocks)
+            {
+                block.close();
+            }
+            blocks.clear();
+        }
+        // only the first cycle allocates
+        assertEquals(12, provider.getMisses());
+        assertEquals(9 * 12, provider.getHits());
+        assertEquals(0, provider.getEvictions());
+        assertEquals(96, provider.getRetainedBytes());
+    }
+
+    @Test
+    public void testReleaseOnOtherThread() throws Exception
+    {
+        final BoundedPooledBlockAllocatorProvider provider = new BoundedPooledBlockAllocatorProvider(1024, 4);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final Block block = allocator.allocateBlock();
+        final Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                block.close();
+            }
+        };
+        thread.start();
+        thread.join();
+        // found in another thread's stripe if not in ours
+        assertSame(block, allocator.allocateBlock());
+        assertEquals(1, provider.getHits());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBound()
+    {
+        new BoundedPooledBlockAllocatorProvider(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStripeCountNotPowerOfTwo()
+    {
+        new BoundedPooledBlockAllocatorProvider(1024, 3);
+    }
+
+    private static byte[] write(final _Private_IonManagedBinaryWriterBuilder builder) throws Exception
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = builder.newWriter(out);
+        for (int i = 0; i < 1000; i++)
+        {
+            writer.writeString("value " + i);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testManagedWriter() throws Exception
+    {
+        final _Private_IonManagedBinaryWriterBuilder builder = _Private_IonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withUserBlockSize(64)
+            .withSymbolsBlockSize(64);
+        assertNull(builder.getPoolStatistics());
+        final byte[] expected = write(builder);
+
+        builder.withBoundedPool(1024);
+        assertArrayEquals(expected, write(builder));
+        assertArrayEquals(expected, write(builder));
+        final PoolStatistics statistics = builder.getPoolStatistics();
+        assertNotNull(statistics);
+        assertTrue(statistics.getRetainedBytes() > 0);
+        assertTrue(statistics.getRetainedBytes() <= 1024);
+        // the output outgrows the bound, so the second writer reuses some blocks and drops the rest
+        assertTrue(statistics.getHits() > 0);
+        assertTrue(statistics.getEvictions() > 0);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.impl._Private_ListWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.util.IonStreamUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+public class BulkListWriterTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final long[] LONGS = {
+        0, 1, -1, 0xFF, 0x100, -0x100, 0xFFFFFFFFL, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1,
+    };
+
+    private static final double[] DOUBLES = {
+        0d, -0d, 1.5, 0.1, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MAX_VALUE,
+        Float.MIN_VALUE,
+    };
+
+    /** Writes the lists of every type into a struct, with a field name and an annotation on each. */
+    private static IonDatagram write(final IonBinaryWriterBuilder builder,
+                                     final long[] longs,
+                                     final double[] doubles)
+        throws IOException
+    {
+        final int[] ints = new int[longs.length];
+        final short[] shorts = new short[longs.length];
+        final byte[] bytes = new byte[longs.length];
+        final boolean[] bools = new boolean[longs.length];
+        final String[] strings = new String[longs.length];
+        for (int i = 0; i < longs.length; i++)
+        {
+            ints[i] = (int) longs[i];
+            shorts[i] = (short) longs[i];
+            bytes[i] = (byte) longs[i];
+            bools[i] = longs[i] % 2 == 0;
+            strings[i] = Long.toString(longs[i]);
+        }
+        final float[] floats = new float[doubles.length];
+        for (int i = 0; i < doubles.length; i++)
+        {
+            floats[i] = (float) doubles[i];
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = builder.build(out);
+        assertTrue(writer instanceof _Private_ListWriter);
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("longs");
+        writer.setTypeAnnotations("values");
+        IonStreamUtils.writeIntList(writer, longs);
+        writer.setFieldName("ints");
+        IonStreamUtils.writeIntList(writer, ints);
+        writer.setFieldName("shorts");
+        IonStreamUtils.writeIntList(writer, shorts);
+        writer.setFieldName("bytes");
+        IonStreamUtils.writeIntList(writer, bytes);
+        writer.setFieldName("bools");
+        IonStreamUtils.writeBoolList(writer, bools);
+        writer.setFieldName("strings");
+        IonStreamUtils.writeStringList(writer, strings);
+        writer.setFieldName("doubles");
+        IonStreamUtils.writeFloatList(writer, doubles);
+        writer.setFieldName("floats");
+        IonStreamUtils.writeFloatList(writer, floats);
+        writer.stepOut();
+        writer.close();
+        return SYSTEM.getLoader().load(out.toByteArray());
+    }
+
+    /** Writes the same lists one value at a time through the text writer. */
+    private static IonDatagram expected(final long[] longs, final double[] doubles) throws IOException
+    {
+        final StringBuilder text = new StringBuilder();
+        final IonWriter writer = SYSTEM.newTextWriter(text);
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("longs");
+        writer.setTypeAnnotations("values");
+        writer.stepIn(IonType.LIST);
+        for (final long value : longs)
+        {
+            writer.writeInt(value);
+        }
+        writer.stepOut();
+        writer.setFieldName("ints");
+        writer.stepIn(IonType.LIST);
+        for (final long value : longs)
+        {
+            writer.writeInt((int) value);
+        }
+        writer.stepOut();
+        writer.setFieldName("shorts");
+        writer.stepIn(IonType.LIST);
+        for (final long value : longs)
+        {
+            writer.writeInt((short) value);
+        }
+        writer.stepOut();
+        writer.setFieldName("bytes");
+        writer.stepIn(IonType.LIST);
+        for (final long value : longs)
+        {
+            writer.writeInt((byte) value);
+        }
+        writer.stepOut();
+        writer.setFieldName("bools");
+        writer.stepIn(IonType.LIST);
+        for (final long value : longs)
+        {
+            writer.writeBool(value % 2 == 0);
+        }
+        writer.stepOut();
+        writer.setFieldName("strings");
+        writer.stepIn(IonType.LIST);
+        for (final long value : longs)
+        {
+            writer.writeString(Long.toString(value));
+        }
+        writer.stepOut();
+        writer.setFieldName("doubles");
+        writer.stepIn(IonType.LIST);
+        for (final double value : doubles)
+        {
+            writer.writeFloat(value);
+        }
+        writer.stepOut();
+        writer.setFieldName("floats");
+        writer.stepIn(IonType.LIST);
+        for (final double value : doubles)
+        {
+            writer.writeFloat((float) value);
+        }
+        writer.stepOut();
+        writer.stepOut();
+        writer.close();
+        return SYSTEM.getLoader().load(text.toString());
+    }
+
+    @Test
+    public void testEdgeValues() throws IOException
+    {
+        final IonDatagram expected = expected(LONGS, DOUBLES);
+        assertEquals(expected, write(IonBinaryWriterBuilder.standard(), LONGS, DOUBLES));
+        assertEquals(expected, write(IonBinaryWriterBuilder.standard().withFloatBinary32Enabled(), LONGS, DOUBLES));
+    }
+
+    @Test
+    public void testEmptyLists() throws IOException
+    {
+        assertEquals(expected(new long[0], new double[0]),
+                     write(IonBinaryWriterBuilder.standard(), new long[0], new double[0]));
+    }
+
+    @Test
+    public void testLargeLists() throws IOException
+    {
+        // larger than the scratch space the values are encoded into
+        final long[] longs = new long[5000];
+        final double[] doubles = new double[5000];
+        for (int i = 0; i < longs.length; i++)
+        {
+            longs[i] = (long) i * i * i * (i % 3 - 1);
+            doubles[i] = i / 7d;
+        }
+        assertEquals(expected(longs, doubles), write(IonBinaryWriterBuilder.standard(), longs, doubles));
+    }
+
+    @Test
+    public void testCompactEncoding() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        IonStreamUtils.writeIntList(writer, new int[] {1, 2, 3});
+        writer.close();
+        final byte[] data = out.toByteArray();
+        // the IVM followed by a list with its length in the type descriptor
+        assertEquals(4 + 7, data.length);
+        assertEquals((byte) 0xB6, data[4]);
+        final IonList list = (IonList) SYSTEM.getLoader().load(data).get(0);
+        assertEquals(3, list.size());
+    }
+}
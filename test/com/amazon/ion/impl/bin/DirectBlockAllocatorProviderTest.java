@@ -0,0 +1,149 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import org.junit.Test;
+
+public class DirectBlockAllocatorProviderTest
+{
+    @Test
+    public void testReuseBlockAfterClose()
+    {
+        final BlockAllocator allocator = new DirectBlockAllocatorProvider().vendAllocator(8);
+        final Block block = allocator.allocateBlock();
+        assertNull(block.data);
+        assertTrue(block.direct.isDirect());
+        assertEquals(8, block.capacity());
+        block.limit = 7;
+        block.close();
+        final Block blockAgain = allocator.allocateBlock();
+        assertSame(block, blockAgain);
+        assertEquals(0, blockAgain.limit);
+    }
+
+    /** Applies the same writes, patches and truncations to a buffer. */
+    private static byte[] exercise(final BlockAllocator allocator, final boolean gathering) throws IOException
+    {
+        final WriteBuffer buffer = new WriteBuffer(allocator);
+        for (int i = 0; i < 20; i++)
+        {
+            buffer.writeByte((byte) i);
+        }
+        buffer.writeBytes(new byte[] { 100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110 });
+        buffer.writeUTF8("café 中");
+        buffer.writeVarUInt(123456789L);
+        // patch earlier blocks, including across a block boundary
+        buffer.writeUInt8At(3, 0x33);
+        buffer.writeVarUIntDirect2At(7, 0x1FF);
+        buffer.writeVarUIntDirect1At(buffer.position() - 1, 5);
+        assertEquals(0x33, buffer.getUInt8At(3));
+
+        // truncate into an earlier block and keep writing
+        buffer.truncate(13);
+        buffer.writeUInt32(0xCAFEBABEL);
+        buffer.writeInt64(-2);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (gathering)
+        {
+            final GatheringOutputStream stream = GatheringOutputStream.toChannel(Channels.newChannel(out));
+            buffer.writeTo(stream);
+            buffer.writeTo(stream, 5, 17);
+            stream.flush();
+        }
+        else
+        {
+            buffer.writeTo(out);
+            buffer.writeTo(out, 5, 17);
+        }
+        buffer.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testWriteBuffer() throws IOException
+    {
+        final byte[] expected = exercise(BlockAllocatorProviders.basicProvider().vendAllocator(8), false);
+        final BlockAllocator direct = new DirectBlockAllocatorProvider().vendAllocator(8);
+        assertArrayEquals(expected, exercise(direct, false));
+        assertArrayEquals(expected, exercise(direct, true));
+    }
+
+    @Test
+    public void testCopyAfterSmallSegment() throws IOException
+    {
+        final WriteBuffer buffer = new WriteBuffer(new DirectBlockAllocatorProvider().vendAllocator(1024));
+        // the last block is staged on-heap, so the first two are copied from off-heap memory
+        buffer.writeBytes(new byte[3000]);
+        final int[] writes = new int[1];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream()
+        {
+            @Override
+            public void write(final byte[] b, final int off, final int len)
+            {
+                writes[0]++;
+                super.write(b, off, len);
+            }
+        };
+        buffer.writeTo(out, 0, 2);
+        buffer.writeTo(out);
+        // the first, tiny copy doesn't limit the size of the scratch array used by the second
+        assertEquals(1 + 3, writes[0]);
+        assertEquals(3002, out.size());
+        buffer.close();
+    }
+
+    private static byte[] write(final IonBinaryWriterBuilder builder) throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = builder.build(Channels.newChannel(out));
+        writer.stepIn(IonType.LIST);
+        for (int i = 0; i < 5000; i++)
+        {
+            writer.addTypeAnnotation("a" + (i % 10));
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("f" + (i % 100));
+            writer.writeString("value " + i);
+            writer.stepOut();
+        }
+        writer.stepOut();
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testManagedWriter() throws IOException
+    {
+        final byte[] expected = write(IonBinaryWriterBuilder.standard());
+        assertArrayEquals(expected, write(IonBinaryWriterBuilder.standard().withDirectBuffersEnabled(true)));
+        assertArrayEquals(expected, write(IonBinaryWriterBuilder.standard()
+            .withDirectBuffersEnabled(true)
+            .withSpillThreshold(1000)
+            .withSpillThreshold(0)));
+    }
+}
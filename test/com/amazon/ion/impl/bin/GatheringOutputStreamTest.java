@@ -0,0 +1,226 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import org.junit.Test;
+
+public class GatheringOutputStreamTest
+{
+    /** Records each gathering write, accepting at most 100 bytes per call. */
+    private static final class RecordingChannel implements GatheringByteChannel
+    {
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        int gatheringWrites;
+        boolean closed;
+
+        public long write(ByteBuffer[] srcs, int offset, int length)
+        {
+            gatheringWrites++;
+            long total = 0;
+            for (int i = offset; i < offset + length && total < 100; i++) {
+                total += write(srcs[i]);
+            }
+            return total;
+        }
+
+        public long write(ByteBuffer[] srcs)
+        {
+            return write(srcs, 0, srcs.length);
+        }
+
+        public int write(ByteBuffer src)
+        {
+            int count = Math.min(src.remaining(), 100);
+            for (int i = 0; i < count; i++) {
+                written.write(src.get());
+            }
+            return count;
+        }
+
+        public boolean isOpen()
+        {
+            return !closed;
+        }
+
+        public void close()
+        {
+            closed = true;
+        }
+    }
+
+    private static _Private_IonManagedBinaryWriterBuilder builder()
+    {
+        // small blocks, so that each flush spans many of them
+        return _Private_IonManagedBinaryWriterBuilder
+            .create(_Private_IonManagedBinaryWriterBuilder.AllocatorMode.BASIC)
+            .withUserBlockSize(64)
+            .withSymbolsBlockSize(64);
+    }
+
+    private static void writeData(IonWriter writer) throws IOException
+    {
+        writer.stepIn(IonType.LIST);
+        for (int i = 0; i < 100; i++) {
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("field" + i);
+            writer.writeString("a string long enough to cross block boundaries " + i);
+            writer.stepOut();
+        }
+        writer.stepOut();
+    }
+
+    private static byte[] expected() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = builder().newWriter(out);
+        writeData(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testGatheringChannel() throws IOException
+    {
+        RecordingChannel channel = new RecordingChannel();
+        IonWriter writer = builder().newWriter(channel);
+        writeData(writer);
+        writer.finish();
+        byte[] expected = expected();
+        assertArrayEquals(expected, channel.written.toByteArray());
+        // partial writes resume from the first unwritten block, without a call per block
+        assertTrue(channel.gatheringWrites <= expected.length / 100 + 1);
+
+        writer.close();
+        assertTrue(channel.closed);
+    }
+
+    @Test
+    public void testPlainChannel() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = builder().newWriter(Channels.newChannel(out));
+        writeData(writer);
+        writer.close();
+        assertArrayEquals(expected(), out.toByteArray());
+    }
+
+    @Test
+    public void testSpilledChannel() throws IOException
+    {
+        RecordingChannel channel = new RecordingChannel();
+        IonWriter writer = builder().withSpillThreshold(200).newWriter(channel);
+        writeData(writer);
+        writer.close();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer = builder().withSpillThreshold(200).newWriter(out);
+        writeData(writer);
+        writer.close();
+        assertArrayEquals(out.toByteArray(), channel.written.toByteArray());
+    }
+
+    @Test
+    public void testBuffer() throws IOException
+    {
+        byte[] expected = expected();
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10);
+        buffer.position(5);
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(buffer);
+        writeData(writer);
+        writer.close();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer = IonBinaryWriterBuilder.standard().build(out);
+        writeData(writer);
+        writer.close();
+        byte[] bytes = out.toByteArray();
+
+        assertEquals(5 + bytes.length, buffer.position());
+        byte[] actual = new byte[bytes.length];
+        buffer.position(5);
+        buffer.get(actual);
+        assertArrayEquals(bytes, actual);
+    }
+
+    @Test
+    public void testBufferOverflow() throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(buffer);
+        writeData(writer);
+        try {
+            writer.finish();
+        }
+        catch (BufferOverflowException e) {
+            assertEquals(0, buffer.position());
+            return;
+        }
+        fail("expected BufferOverflowException");
+    }
+
+    @Test
+    public void testSpilledBuffer() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = builder().withSpillThreshold(200).newWriter(out);
+        writeData(writer);
+        writer.close();
+        byte[] expected = out.toByteArray();
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+        writer = builder().withSpillThreshold(200).newWriter(buffer);
+        writeData(writer);
+        writer.close();
+        assertArrayEquals(expected, buffer.array());
+    }
+
+    @Test
+    public void testSpilledBufferOverflow() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = builder().withSpillThreshold(200).newWriter(out);
+        writeData(writer);
+        writer.close();
+
+        // room for the symbol table and the spilled bytes, but not the rest
+        ByteBuffer buffer = ByteBuffer.allocate(out.size() - 1);
+        writer = builder().withSpillThreshold(200).newWriter(buffer);
+        writeData(writer);
+        try {
+            writer.finish();
+        }
+        catch (BufferOverflowException e) {
+            assertEquals(0, buffer.position());
+            assertArrayEquals(new byte[buffer.capacity()], buffer.array());
+            return;
+        }
+        fail("expected BufferOverflowException");
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SystemSymbols;
+import com.amazon.ion.impl._Private_IonSystem;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.IonValueIndex;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class LocalSymbolTableAppendTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final IonBinaryWriterBuilder APPENDING =
+        IonBinaryWriterBuilder.standard().withLocalSymbolTableAppendEnabled(true).immutable();
+
+    private static void writeValue(final IonWriter writer, final String field, final String symbol)
+        throws IOException
+    {
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName(field);
+        writer.writeSymbol(symbol);
+        writer.stepOut();
+    }
+
+    /** Returns the system values in the data, with an IVM represented by null. */
+    private static List<IonStruct> systemValues(final byte[] data)
+    {
+        final List<IonStruct> tables = new ArrayList<IonStruct>();
+        final IonReader reader = ((_Private_IonSystem) SYSTEM).newSystemReader(data);
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            if (type == IonType.SYMBOL && reader.symbolValue().getSid() == SystemSymbols.ION_1_0_SID)
+            {
+                tables.add(null);
+            }
+            else if (type == IonType.STRUCT
+                && reader.getTypeAnnotationSymbols().length > 0
+                && reader.getTypeAnnotationSymbols()[0].getSid() == SystemSymbols.ION_SYMBOL_TABLE_SID)
+            {
+                tables.add((IonStruct) SYSTEM.newValue(reader));
+            }
+        }
+        return tables;
+    }
+
+    private static String text(final IonStruct table)
+    {
+        return table == null ? null : table.toString();
+    }
+
+    @Test
+    public void testAppendAfterFlush() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = APPENDING.build(out);
+        writeValue(writer, "a", "b");
+        writer.flush();
+        final int flushed = out.size();
+        assertTrue(flushed > 0);
+
+        writeValue(writer, "b", "c");
+        writer.flush();
+        // no new symbols, so no new table
+        writeValue(writer, "a", "c");
+        writer.flush();
+        writeValue(writer, "d", "a");
+        writer.close();
+
+        final byte[] data = out.toByteArray();
+        final IonDatagram values = SYSTEM.getLoader().load(data);
+        assertEquals(SYSTEM.getLoader().load("{a:b} {b:c} {a:c} {d:a}"), values);
+
+        final List<IonStruct> system = systemValues(data);
+        assertEquals(4, system.size());
+        assertEquals(null, system.get(0));
+        assertEquals("$ion_symbol_table::{symbols:[\"a\",\"b\"]}", text(system.get(1)));
+        assertEquals("$ion_symbol_table::{imports:$ion_symbol_table,symbols:[\"c\"]}", text(system.get(2)));
+        assertEquals("$ion_symbol_table::{imports:$ion_symbol_table,symbols:[\"d\"]}", text(system.get(3)));
+    }
+
+    @Test
+    public void testFinishStartsNewTable() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = APPENDING.build(out);
+        writer.writeInt(1);
+        writer.flush();
+        writeValue(writer, "a", "b");
+        writer.finish();
+        writeValue(writer, "a", "c");
+        writer.close();
+
+        final byte[] data = out.toByteArray();
+        assertEquals(SYSTEM.getLoader().load("1 {a:b} {a:c}"), SYSTEM.getLoader().load(data));
+        final List<IonStruct> system = systemValues(data);
+        // the first flush declared no symbols, so the table after it stands alone
+        assertEquals("$ion_symbol_table::{symbols:[\"a\",\"b\"]}", text(system.get(system.size() - 3)));
+        assertEquals(null, system.get(system.size() - 2));
+        assertEquals("$ion_symbol_table::{symbols:[\"a\",\"c\"]}", text(system.get(system.size() - 1)));
+    }
+
+    @Test
+    public void testDisabledByDefault() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writeValue(writer, "a", "b");
+        writer.flush();
+        assertEquals(0, out.size());
+        writer.close();
+    }
+
+    @Test
+    public void testIndexCheckpointsStandAlone() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonValueIndex.Recorder recorder = new IonValueIndex.Recorder();
+        final IonWriter writer = APPENDING.build(out, recorder);
+        for (int i = 0; i < 30; i++)
+        {
+            writeValue(writer, "f" + (i / 3), "s" + i);
+            if (i % 5 == 4)
+            {
+                writer.flush();
+            }
+        }
+        writer.close();
+        final byte[] data = out.toByteArray();
+        final IonValueIndex index = recorder.build();
+
+        assertEquals(30, index.size());
+        for (int i = 0; i < 30; i++)
+        {
+            final IonReader reader = index.newReader(IonReaderBuilder.standard(), data, i);
+            assertEquals(IonType.STRUCT, reader.next());
+            reader.stepIn();
+            reader.next();
+            assertEquals("f" + (i / 3), reader.getFieldName());
+            assertEquals("s" + i, reader.stringValue());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SystemSymbols;
+import com.amazon.ion.impl._Private_IonSystem;
+import com.amazon.ion.impl.bin._Private_IonManagedBinaryWriterBuilder.AllocatorMode;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Test;
+
+@SuppressWarnings("deprecation")
+public class ParallelBinaryWriterTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void teardown()
+    {
+        executor.shutdownNow();
+    }
+
+    /** A record whose symbols vary with its index, so that later batches introduce new ones. */
+    private static final class TestRecord implements _Private_IonParallelBinaryWriter.Record
+    {
+        private final int index;
+
+        TestRecord(final int index)
+        {
+            this.index = index;
+        }
+
+        public void writeTo(final IonWriter writer) throws IOException
+        {
+            writer.addTypeAnnotation("record");
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("id");
+            writer.writeInt(index);
+            writer.setFieldName("field" + (index % 50));
+            writer.writeSymbol("sym" + (index / 7));
+            writer.setFieldName("shared");
+            writer.writeSymbol("name");
+            writer.stepOut();
+        }
+    }
+
+    private static _Private_IonManagedBinaryWriterBuilder builder()
+    {
+        return _Private_IonManagedBinaryWriterBuilder.create(AllocatorMode.POOLED).withUserBlockSize(256);
+    }
+
+    private byte[] writeParallel(final _Private_IonManagedBinaryWriterBuilder builder, final int count)
+        throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final _Private_IonParallelBinaryWriter writer = builder.newParallelWriter(out, executor, 16, 4);
+        for (int i = 0; i < count; i++)
+        {
+            writer.write(new TestRecord(i));
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] writeSequential(final _Private_IonManagedBinaryWriterBuilder builder, final int count)
+        throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = builder.newWriter(out);
+        for (int i = 0; i < count; i++)
+        {
+            new TestRecord(i).writeTo(writer);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSameValuesAsSequentialWriter() throws IOException
+    {
+        final IonDatagram expected = SYSTEM.getLoader().load(writeSequential(builder(), 1000));
+        final IonDatagram actual = SYSTEM.getLoader().load(writeParallel(builder(), 1000));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSymbolTableAppends() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final _Private_IonParallelBinaryWriter writer = builder().newParallelWriter(out, executor, 16, 4);
+        for (int i = 0; i < 200; i++)
+        {
+            writer.write(new TestRecord(i));
+        }
+        writer.close();
+
+        // one table, extended as new symbols appear, and never reset
+        final IonReader reader = ((_Private_IonSystem) SYSTEM).newSystemReader(out.toByteArray());
+        int tables = 0;
+        int markers = 0;
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            if (type == IonType.STRUCT && reader.getTypeAnnotationSymbols()[0].getSid() == SystemSymbols.ION_SYMBOL_TABLE_SID)
+            {
+                tables++;
+            }
+            else if (type == IonType.SYMBOL)
+            {
+                markers++;
+            }
+        }
+        assertEquals(1, markers);
+        assertTrue(tables > 1);
+        final SymbolTable symbols = writer.getSymbolTable();
+        assertEquals("record", symbols.findKnownSymbol(symbols.findSymbol("record")));
+    }
+
+    @Test
+    public void testImports() throws IOException
+    {
+        final SymbolTable shared = SYSTEM.newSharedSymbolTable("test", 1, Arrays.asList("record", "id").iterator());
+        final _Private_IonManagedBinaryWriterBuilder builder = builder().withImports(shared);
+        final SimpleCatalog catalog = new SimpleCatalog();
+        catalog.putTable(shared);
+        final IonSystem system = IonSystemBuilder.standard().withCatalog(catalog).build();
+        final IonDatagram actual = system.getLoader().load(writeParallel(builder, 100));
+        assertEquals(system.getLoader().load(writeSequential(builder, 100)), actual);
+        assertEquals(10, actual.get(0).getSymbolTable().findSymbol("record"));
+    }
+
+    @Test
+    public void testEmpty() throws IOException
+    {
+        assertEquals(0, writeParallel(builder(), 0).length);
+    }
+
+    @Test
+    public void testRecordFailure() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final _Private_IonParallelBinaryWriter writer = builder().newParallelWriter(out, executor, 4, 2);
+        for (int i = 0; i < 10; i++)
+        {
+            writer.write(new TestRecord(i));
+        }
+        writer.write(new _Private_IonParallelBinaryWriter.Record()
+        {
+            public void writeTo(final IonWriter writer) throws IOException
+            {
+                writer.stepIn(IonType.LIST);
+            }
+        });
+        try
+        {
+            writer.flush();
+            fail();
+        }
+        catch (final IllegalStateException e)
+        {
+            // expected
+        }
+        writer.close();
+    }
+}
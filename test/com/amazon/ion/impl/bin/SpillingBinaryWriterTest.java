@@ -0,0 +1,231 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.IonValueIndex;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import org.junit.Test;
+
+public class SpillingBinaryWriterTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final int THRESHOLD = 100;
+
+    /**
+     * Writes values that exercise side patches, annotation wrappers and
+     * containers at several depths, both below and above the threshold.
+     */
+    private static void writeData(IonWriter writer) throws IOException
+    {
+        writer.writeInt(1);
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("small");
+        writer.writeString("value");
+        writer.stepOut();
+        for (int n = 0; n < 3; n++) {
+            writer.addTypeAnnotation("outer" + n);
+            writer.stepIn(IonType.LIST);
+            for (int i = 0; i < 200; i++) {
+                writer.addTypeAnnotation("inner");
+                writer.stepIn(IonType.STRUCT);
+                writer.setFieldName("id");
+                writer.writeInt(i);
+                writer.setFieldName("sym" + i);
+                writer.writeSymbol("new" + i);
+                writer.setFieldName("text");
+                writer.writeString(i % 20 == 0 ? longText(i) : "text" + i);
+                writer.setFieldName("amount");
+                writer.writeDecimal(new BigDecimal("12345678901234567890.5"));
+                writer.setFieldName("nested");
+                writer.stepIn(IonType.SEXP);
+                for (int j = 0; j < i % 30; j++) {
+                    writer.writeInt(j);
+                }
+                writer.stepOut();
+                writer.stepOut();
+            }
+            writer.stepOut();
+            writer.writeString("after" + n);
+        }
+    }
+
+    private static String longText(int seed)
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            text.append((char) ('a' + (seed + i) % 26));
+        }
+        return text.toString();
+    }
+
+    private static byte[] write(IonBinaryWriterBuilder builder) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = builder.build(out);
+        writeData(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void checkSpilledData(_Private_IonManagedBinaryWriterBuilder builder) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = builder.withSpillThreshold(THRESHOLD).newWriter(out);
+        writeData(writer);
+        writer.close();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        writer = builder.withSpillThreshold(0).newWriter(expected);
+        writeData(writer);
+        writer.close();
+
+        IonDatagram loaded = SYSTEM.getLoader().load(out.toByteArray());
+        assertEquals(SYSTEM.getLoader().load(expected.toByteArray()), loaded);
+    }
+
+    @Test
+    public void testSpilledDataMatches() throws IOException
+    {
+        byte[] spilled = write(IonBinaryWriterBuilder.standard().withSpillThreshold(THRESHOLD));
+        byte[] buffered = write(IonBinaryWriterBuilder.standard());
+        IonDatagram loaded = SYSTEM.getLoader().load(spilled);
+        assertEquals(SYSTEM.getLoader().load(buffered), loaded);
+        assertEquals(8, loaded.size());
+    }
+
+    @Test
+    public void testPreallocationModes() throws IOException
+    {
+        for (int pad = 0; pad <= 2; pad++) {
+            checkSpilledData(_Private_IonManagedBinaryWriterBuilder
+                .create(_Private_IonManagedBinaryWriterBuilder.AllocatorMode.BASIC)
+                .withPaddedLengthPreallocation(pad));
+        }
+    }
+
+    @Test
+    public void testBufferStaysBounded() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = _Private_IonManagedBinaryWriterBuilder
+            .create(_Private_IonManagedBinaryWriterBuilder.AllocatorMode.BASIC)
+            .withSpillThreshold(THRESHOLD)
+            .newWriter(out);
+        IonRawBinaryWriter raw = (IonRawBinaryWriter) ((_Private_IonManagedWriter) writer).getRawWriter();
+        writer.stepIn(IonType.LIST);
+        for (int i = 0; i < 10000; i++) {
+            writer.stepIn(IonType.LIST);
+            writer.writeInt(i);
+            writer.writeString("element");
+            writer.stepOut();
+            assertTrue(raw.position() < 2 * THRESHOLD);
+        }
+        writer.stepOut();
+        assertEquals(0, out.size());
+        writer.close();
+
+        IonReader reader = SYSTEM.newReader(out.toByteArray());
+        assertEquals(IonType.LIST, reader.next());
+        reader.stepIn();
+        int count = 0;
+        while (reader.next() != null) {
+            reader.stepIn();
+            reader.next();
+            assertEquals(count++, reader.intValue());
+            reader.stepOut();
+        }
+        assertEquals(10000, count);
+    }
+
+    @Test
+    public void testSymbolTablesAreNotSpilled() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().withSpillThreshold(10).build(out);
+        writer.setTypeAnnotations("$ion_symbol_table");
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("symbols");
+        writer.stepIn(IonType.LIST);
+        for (int i = 0; i < 100; i++) {
+            writer.writeString("declared" + i);
+        }
+        writer.stepOut();
+        writer.stepOut();
+        writer.stepIn(IonType.LIST);
+        for (int i = 0; i < 100; i++) {
+            writer.stepIn(IonType.LIST);
+            writer.writeSymbol("declared" + i);
+            writer.stepOut();
+        }
+        writer.stepOut();
+        writer.close();
+
+        IonReader reader = SYSTEM.newReader(out.toByteArray());
+        assertEquals(IonType.LIST, reader.next());
+        reader.stepIn();
+        for (int i = 0; i < 100; i++) {
+            reader.next();
+            reader.stepIn();
+            reader.next();
+            assertEquals("declared" + i, reader.stringValue());
+            reader.stepOut();
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testValueIndex() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonValueIndex.Recorder recorder = new IonValueIndex.Recorder();
+        IonWriter writer = IonBinaryWriterBuilder.standard()
+            .withSpillThreshold(THRESHOLD)
+            .build(out, recorder);
+        writeData(writer);
+        writer.close();
+        byte[] data = out.toByteArray();
+        IonValueIndex index = recorder.build();
+
+        IonDatagram expected = SYSTEM.getLoader().load(data);
+        assertEquals(expected.size(), index.size());
+        for (int i = 0; i < index.size(); i++) {
+            IonReader reader = index.newReader(IonReaderBuilder.standard(), data, i);
+            reader.next();
+            assertEquals(expected.get(i), SYSTEM.newValue(reader));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThreshold()
+    {
+        IonBinaryWriterBuilder.standard().setSpillThreshold(-1);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+public class SymbolRemappingCopyTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String FIRST =
+        "{name:\"first\", kind:alpha, tags:[alpha, beta], nested:{kind:beta, n:12.5}} " +
+        "annot::{kind:gamma, at:2019-01-01T, data:{{aGVsbG8=}}, nil:null.symbol}";
+
+    private static final String SECOND =
+        "{zeta:omega, kind:beta, when:(omega alpha 1 -2e0), s:outer::{kind:inner::x::\"y\"}} " +
+        "omega::alpha::42 delta";
+
+    private static byte[] copy(final boolean optimized, final byte[]... inputs) throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer =
+            IonBinaryWriterBuilder.standard().withStreamCopyOptimized(optimized).build(out);
+        for (final byte[] input : inputs)
+        {
+            final IonReader reader = SYSTEM.newReader(input);
+            writer.writeValues(reader);
+            reader.close();
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static IonDatagram load(final String... texts)
+    {
+        final StringBuilder text = new StringBuilder();
+        for (final String value : texts)
+        {
+            text.append(value).append(' ');
+        }
+        return SYSTEM.getLoader().load(text.toString());
+    }
+
+    @Test
+    public void testMergeDifferingSymbolTables() throws IOException
+    {
+        final byte[] first = load(FIRST).getBytes();
+        final byte[] second = load(SECOND).getBytes();
+
+        final byte[] merged = copy(true, first, second);
+        assertEquals(load(FIRST, SECOND), SYSTEM.getLoader().load(merged));
+        // splicing produces the same encoding as re-encoding every value
+        assertArrayEquals(copy(false, first, second), merged);
+    }
+
+    @Test
+    public void testNestedValues() throws IOException
+    {
+        final byte[] first = load(FIRST).getBytes();
+        final byte[] second = load(SECOND).getBytes();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer =
+            IonBinaryWriterBuilder.standard().withStreamCopyOptimized(true).build(out);
+        writer.writeValues(SYSTEM.newReader(first));
+
+        // copy the fields of a struct one at a time, under a field name and annotation of our own
+        final IonReader reader = SYSTEM.newReader(second);
+        reader.next();
+        reader.stepIn();
+        writer.stepIn(IonType.STRUCT);
+        while (reader.next() != null)
+        {
+            writer.writeValue(reader);
+        }
+        writer.setFieldName("extra");
+        writer.setTypeAnnotations("mine");
+        reader.stepOut();
+        reader.next();
+        writer.writeValue(reader);
+        writer.stepOut();
+        writer.close();
+
+        final IonDatagram expected = load(FIRST,
+            "{zeta:omega, kind:beta, when:(omega alpha 1 -2e0), s:outer::{kind:inner::x::\"y\"}, " +
+            "extra:omega::alpha::42}");
+        assertEquals(expected, SYSTEM.getLoader().load(out.toByteArray()));
+    }
+
+    @Test
+    public void testPaddingAndOrderedStruct() throws IOException
+    {
+        // $ion_symbol_table::{symbols:["a", "b"]} followed by an ordered struct {a:b} with NOP padding in a
+        // field named "b" and in a list
+        final byte[] data = {
+            (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+            (byte) 0xE9, (byte) 0x81, (byte) 0x83,
+            (byte) 0xD6, (byte) 0x87, (byte) 0xB4, (byte) 0x81, 'a', (byte) 0x81, 'b',
+            (byte) 0xD1, (byte) 0x8B,
+            (byte) 0x8A, 0x71, 0x0B,
+            (byte) 0x8B, 0x01, 0x00,
+            (byte) 0x8A, (byte) 0xB3, 0x00, 0x71, 0x0A,
+        };
+        final byte[] copied = copy(true, load("other::symbols").getBytes(), data);
+        assertEquals(load("other::symbols {a:b, a:[a]}"), SYSTEM.getLoader().load(copied));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.system.IonSystemBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeferredCloneTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private IonStruct myTemplate;
+
+    @Before
+    public void setUp()
+    {
+        StringBuilder data = new StringBuilder("{");
+        for (int i = 0; i < 20; i++) {
+            data.append("f").append(i).append(":[{a:").append(i).append("}],");
+        }
+        data.append("ann:x::{b:[1, 2]}}");
+        myTemplate = (IonStruct) SYSTEM.singleValue(data.toString());
+        myTemplate.makeReadOnly();
+    }
+
+    private static boolean isMaterialized(Object value)
+    {
+        return ((IonContainerLite) value).isMaterialized();
+    }
+
+    @Test
+    public void testCopiesOnlyVisitedPaths()
+    {
+        IonStruct clone = myTemplate.clone();
+        assertFalse(clone.isReadOnly());
+        assertFalse(isMaterialized(clone));
+
+        IonList f3 = (IonList) clone.get("f3");
+        assertTrue(isMaterialized(clone));
+        assertFalse(isMaterialized(f3));
+        assertFalse(isMaterialized(clone.get("f4")));
+
+        ((IonStruct) f3.get(0)).put("a").newInt(99);
+        assertTrue(isMaterialized(f3));
+        assertFalse(isMaterialized(clone.get("f4")));
+
+        assertEquals(SYSTEM.newInt(3),
+                     ((IonStruct) ((IonList) myTemplate.get("f3")).get(0)).get("a"));
+        assertEquals(SYSTEM.newInt(99), ((IonStruct) f3.get(0)).get("a"));
+        assertSame(clone, f3.getContainer());
+        assertEquals("f3", f3.getFieldName());
+    }
+
+    @Test
+    public void testEquality()
+    {
+        IonStruct clone = myTemplate.clone();
+        assertEquals(myTemplate, clone);
+        assertEquals(myTemplate.hashCode(), clone.hashCode());
+        assertEquals("x", clone.get("ann").getTypeAnnotations()[0]);
+
+        IonStruct cloneOfClone = clone.clone();
+        assertEquals(myTemplate, cloneOfClone);
+        cloneOfClone.remove("f0");
+        assertNotEquals(myTemplate, cloneOfClone);
+        assertEquals(myTemplate, clone);
+    }
+
+    @Test
+    public void testCloneOfUnmaterializedClone()
+    {
+        IonStruct clone = myTemplate.clone();
+        IonStruct cloneOfClone = clone.clone();
+        assertFalse(isMaterialized(cloneOfClone));
+        cloneOfClone.put("f1", SYSTEM.newNull());
+        assertFalse(isMaterialized(clone));
+        assertEquals(myTemplate, clone);
+    }
+
+    @Test
+    public void testMakeReadOnlyCopiesEverything()
+    {
+        IonStruct clone = myTemplate.clone();
+        clone.makeReadOnly();
+        assertTrue(isMaterialized(clone));
+        assertTrue(isMaterialized(clone.get("f7")));
+        assertTrue(isMaterialized(((IonList) clone.get("f7")).get(0)));
+        assertEquals(myTemplate, clone);
+    }
+
+    @Test
+    public void testMutableSourceIsCopiedEagerly()
+    {
+        IonStruct mutable = myTemplate.clone();
+        mutable.add("extra").newInt(1);
+        IonStruct clone = mutable.clone();
+        assertTrue(isMaterialized(clone));
+        mutable.remove("extra");
+        assertEquals(SYSTEM.newInt(1), clone.get("extra"));
+    }
+}
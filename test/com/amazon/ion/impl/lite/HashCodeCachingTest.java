@@ -0,0 +1,139 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonString;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class HashCodeCachingTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String DATA =
+        "{a:[1, (b c), {d:\"e\"}], f:g::{h:2.5e0}}";
+
+    @Test
+    public void testReadOnlyHashMatchesMutable()
+    {
+        IonStruct frozen = (IonStruct) SYSTEM.singleValue(DATA);
+        IonStruct mutable = frozen.clone();
+        int expected = mutable.hashCode();
+        frozen.makeReadOnly();
+
+        assertEquals(expected, frozen.hashCode());
+        assertEquals(mutable.get("a").hashCode(), frozen.get("a").hashCode());
+
+        Set<IonStruct> set = new HashSet<IonStruct>();
+        set.add(frozen);
+        assertEquals(true, set.contains(mutable));
+    }
+
+    private static Field hashCodeField()
+        throws Exception
+    {
+        Field field = IonContainerLite.class.getDeclaredField("_hash_code");
+        field.setAccessible(true);
+        return field;
+    }
+
+    /** Plants a bogus hash code that only a cache hit would return. */
+    private static void plantHashCode(IonContainerLite container, int hash)
+        throws Exception
+    {
+        hashCodeField().setInt(container, hash);
+    }
+
+    @Test
+    public void testCachedHashIsReused()
+        throws Exception
+    {
+        IonStruct mutable = (IonStruct) SYSTEM.singleValue(DATA);
+        IonList list = (IonList) mutable.get("a");
+        int expected = list.hashCode();
+        mutable.hashCode();
+        // hashing the struct cached the hashes of the containers in it
+        assertEquals(expected, hashCodeField().getInt(list));
+        plantHashCode((IonContainerLite) list, 54321);
+        assertEquals(54321, list.hashCode());
+
+        IonStruct frozen = (IonStruct) SYSTEM.singleValue(DATA);
+        frozen.makeReadOnly();
+        frozen.hashCode();
+        plantHashCode((IonContainerLite) frozen, 12345);
+        assertEquals(12345, frozen.hashCode());
+    }
+
+    @Test
+    public void testMutationClearsCache()
+        throws Exception
+    {
+        IonStruct struct = (IonStruct) SYSTEM.singleValue(DATA);
+        IonList list = (IonList) struct.get("a");
+        IonStruct nested = (IonStruct) list.get(2);
+        int expected = struct.hashCode();
+        plantHashCode((IonContainerLite) struct, 12345);
+        plantHashCode((IonContainerLite) list, 12345);
+        plantHashCode((IonContainerLite) nested, 12345);
+
+        // a scalar change clears every container around it
+        ((IonString) nested.get("d")).setValue("e");
+        assertEquals(expected, struct.hashCode());
+        assertEquals(expected, struct.clone().hashCode());
+        assertNotEquals(12345, list.hashCode());
+        assertNotEquals(12345, nested.hashCode());
+
+        // and so do annotation changes
+        int before = struct.hashCode();
+        nested.addTypeAnnotation("x");
+        assertNotEquals(before, struct.hashCode());
+        nested.clearTypeAnnotations();
+        assertEquals(before, struct.hashCode());
+    }
+
+    @Test
+    public void testMutableHashFollowsChanges()
+    {
+        IonStruct struct = (IonStruct) SYSTEM.singleValue(DATA);
+        int before = struct.hashCode();
+        IonStruct nested = (IonStruct) ((IonList) struct.get("a")).get(2);
+        nested.put("d").newString("changed");
+        assertNotEquals(before, struct.hashCode());
+
+        nested.put("d").newString("e");
+        assertEquals(before, struct.hashCode());
+    }
+
+    @Test
+    public void testReadOnlyDatagram()
+    {
+        IonDatagram dg = SYSTEM.getLoader().load(DATA + " " + DATA);
+        int expected = dg.hashCode();
+        dg.makeReadOnly();
+        assertEquals(expected, dg.hashCode());
+        assertEquals(dg.get(0).hashCode(), dg.get(1).hashCode());
+    }
+}
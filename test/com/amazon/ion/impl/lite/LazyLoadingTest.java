@@ -0,0 +1,143 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonInt;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonString;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.ReadOnlyValueException;
+import com.amazon.ion.system.IonSystemBuilder;
+import org.junit.Test;
+
+public class LazyLoadingTest
+{
+    private static final IonSystem EAGER = IonSystemBuilder.standard().build();
+    private static final IonSystem LAZY =
+        IonSystemBuilder.standard().withLazyLoadingEnabled(true).build();
+
+    private static final String DATA =
+        "{a:1, b:{c:[1, 2, 3], d:\"four\"}, e:ann::(f g)} [5, {h:6}] null.struct 7";
+
+    private static IonDatagram loadLazily(String text)
+    {
+        byte[] bytes = EAGER.getLoader().load(text).getBytes();
+        return LAZY.getLoader().load(bytes);
+    }
+
+    @Test
+    public void testContainersMaterializeOnAccess()
+    {
+        IonDatagram dg = loadLazily(DATA);
+        assertEquals(4, dg.size());
+
+        IonStructLite struct = (IonStructLite) dg.get(0);
+        assertFalse(struct.isMaterialized());
+        assertEquals(3, struct.size());
+        assertTrue(struct.isMaterialized());
+
+        IonStructLite nested = (IonStructLite) struct.get("b");
+        assertFalse(nested.isMaterialized());
+        assertEquals("four", ((IonString) nested.get("d")).stringValue());
+        assertTrue(nested.isMaterialized());
+
+        IonListLite list = (IonListLite) nested.get("c");
+        assertFalse(list.isMaterialized());
+        assertEquals(3, ((IonInt) list.get(2)).intValue());
+        assertEquals("ann", struct.get("e").getTypeAnnotations()[0]);
+
+        assertTrue(dg.get(2).isNullValue());
+        assertEquals(0, ((IonStruct) dg.get(2)).size());
+    }
+
+    @Test
+    public void testEquivalentToEagerLoad()
+    {
+        IonDatagram lazy = loadLazily(DATA);
+        IonDatagram eager = EAGER.getLoader().load(DATA);
+        assertEquals(eager, lazy);
+        assertEquals(eager.get(0).hashCode(), lazy.get(0).hashCode());
+        assertEquals(eager.toString(), lazy.toString());
+    }
+
+    @Test
+    public void testEncodeWithoutMaterializing()
+    {
+        IonDatagram dg = loadLazily(DATA);
+        IonDatagram reloaded = EAGER.getLoader().load(dg.getBytes());
+        assertEquals(EAGER.getLoader().load(DATA), reloaded);
+    }
+
+    @Test
+    public void testCloneSharesSource()
+    {
+        IonDatagram dg = loadLazily(DATA);
+        IonList list = (IonList) dg.get(1);
+        IonList copy = list.clone();
+        assertFalse(((IonListLite) copy).isMaterialized());
+        copy.add(LAZY.newInt(8));
+        assertEquals(3, copy.size());
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    public void testClearSkipsMaterialization()
+    {
+        IonDatagram dg = loadLazily(DATA);
+        IonStructLite struct = (IonStructLite) dg.get(0);
+        struct.clear();
+        assertTrue(struct.isEmpty());
+        assertNull(struct.get("a"));
+    }
+
+    @Test
+    public void testReadOnlyMaterialization()
+    {
+        IonDatagram dg = loadLazily(DATA);
+        IonStruct struct = (IonStruct) dg.get(0);
+        struct.makeReadOnly();
+        // everything is loaded up front, so readers needn't synchronize
+        assertTrue(((IonContainerLite) struct).isMaterialized());
+        IonStruct nested = (IonStruct) struct.get("b");
+        assertTrue(((IonContainerLite) nested).isMaterialized());
+        assertTrue(nested.isReadOnly());
+        IonValue d = nested.get("d");
+        assertTrue(d.isReadOnly());
+        try {
+            nested.remove(d);
+            fail("Expected ReadOnlyValueException");
+        }
+        catch (ReadOnlyValueException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTextIsLoadedEagerly()
+    {
+        IonDatagram dg = LAZY.getLoader().load(DATA);
+        assertTrue(((IonContainerLite) dg.get(0)).isMaterialized());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.system.IonSystemBuilder;
+import org.junit.Test;
+
+public class ReadOnlyCompactionTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String DATA =
+        "[{name:a::1, kind:x}, {name:a::b::2, kind:y}, []]";
+
+    @Test
+    public void testSharesFieldNamesAndAnnotations()
+    {
+        IonList list = (IonList) SYSTEM.singleValue(DATA);
+        IonList copy = list.clone();
+        list.makeReadOnly();
+        assertEquals(copy, list);
+
+        IonStruct first = (IonStruct) list.get(0);
+        IonStruct second = (IonStruct) list.get(1);
+        assertSame(first.get("name").getFieldName(),
+                   second.get("name").getFieldName());
+        assertSame(first.get("kind").getFieldName(),
+                   second.get("kind").getFieldName());
+
+        SymbolToken[] a1 = first.get("name").getTypeAnnotationSymbols();
+        SymbolToken[] a2 = second.get("name").getTypeAnnotationSymbols();
+        assertEquals(1, a1.length);
+        assertEquals(2, a2.length);
+        assertSame(a1[0], a2[0]);
+    }
+
+    @Test
+    public void testTrimsChildArrays()
+    {
+        IonList list = (IonList) SYSTEM.singleValue(DATA);
+        list.add().newInt(3);
+        list.makeReadOnly();
+
+        assertEquals(4, ((IonListLite) list)._children.length);
+        assertEquals(2, ((IonStructLite) list.get(0))._children.length);
+        assertNull(((IonListLite) list.get(2))._children);
+        assertEquals(0, ((IonList) list.get(2)).size());
+    }
+
+    @Test
+    public void testDatagram()
+    {
+        IonDatagram dg = SYSTEM.getLoader().load(DATA + " {name:c}");
+        IonDatagram copy = SYSTEM.getLoader().load(DATA + " {name:c}");
+        dg.makeReadOnly();
+
+        assertEquals(2, ((IonDatagramLite) dg)._children.length);
+        IonStruct first = (IonStruct) ((IonList) dg.get(0)).get(0);
+        assertSame(first.get("name").getFieldName(),
+                   ((IonStruct) dg.get(1)).get("name").getFieldName());
+        assertEquals(copy.get(0), dg.get(0));
+        assertEquals(copy.get(1), dg.get(1));
+    }
+}
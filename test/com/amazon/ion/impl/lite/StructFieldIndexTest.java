@@ -0,0 +1,186 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.amazon.ion.IonInt;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.impl._Private_Utils;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class StructFieldIndexTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    // few enough that most names are duplicated
+    private static final int NAMES = 40;
+
+    private final List<String> myNames = new ArrayList<String>();
+    private final List<Integer> myValues = new ArrayList<Integer>();
+
+    private static String name(int i)
+    {
+        return "f" + i;
+    }
+
+    private void add(IonStruct struct, String name, int value)
+    {
+        struct.add(name, SYSTEM.newInt(value));
+        myNames.add(name);
+        myValues.add(value);
+    }
+
+    private void removeExpected(int i)
+    {
+        myNames.remove(i);
+        myValues.remove(i);
+    }
+
+    private int lastIndexOf(String name)
+    {
+        return myNames.lastIndexOf(name);
+    }
+
+    private void check(IonStruct struct)
+    {
+        assertNull(((IonStructLite) struct).validate());
+        assertEquals(myNames.size(), struct.size());
+        for (int i = 0; i < NAMES; i++) {
+            IonValue field = struct.get(name(i));
+            int expected = lastIndexOf(name(i));
+            if (expected < 0) {
+                assertNull(field);
+            }
+            else {
+                assertEquals(myValues.get(expected).intValue(),
+                             ((IonInt) field).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void testRandomEdits()
+    {
+        Random random = new Random(42);
+        IonStruct struct = SYSTEM.newEmptyStruct();
+        for (int i = 0; i < 100; i++) {
+            add(struct, name(random.nextInt(NAMES)), i);
+        }
+        check(struct);
+
+        for (int i = 100; i < 2000; i++) {
+            String name = name(random.nextInt(NAMES));
+            switch (random.nextInt(5)) {
+                case 0:
+                    add(struct, name, i);
+                    break;
+                case 1:
+                    struct.put(name, SYSTEM.newInt(i));
+                    for (int j; (j = lastIndexOf(name)) >= 0; ) {
+                        removeExpected(j);
+                    }
+                    myNames.add(name);
+                    myValues.add(i);
+                    break;
+                case 2: {
+                    int expected = lastIndexOf(name);
+                    IonValue removed = struct.remove(name);
+                    if (expected < 0) {
+                        assertNull(removed);
+                    }
+                    else {
+                        assertEquals(myValues.get(expected).intValue(),
+                                     ((IonInt) removed).intValue());
+                        removeExpected(expected);
+                    }
+                    break;
+                }
+                case 3:
+                    if (struct.size() > 0) {
+                        int j = random.nextInt(struct.size());
+                        Iterator<IonValue> it = struct.iterator();
+                        for (int k = 0; k <= j; k++) {
+                            it.next();
+                        }
+                        it.remove();
+                        removeExpected(j);
+                    }
+                    break;
+                default:
+                    // keep the struct large enough to stay indexed
+                    if (struct.size() > 60) {
+                        int j = random.nextInt(struct.size());
+                        IonValue field = ((IonStructLite) struct).get_child(j);
+                        struct.remove(field);
+                        removeExpected(j);
+                    }
+                    break;
+            }
+            check(struct);
+        }
+    }
+
+    @Test
+    public void testCloneAndClear()
+    {
+        IonStruct struct = SYSTEM.newEmptyStruct();
+        for (int i = 0; i < 50; i++) {
+            add(struct, name(i % NAMES), i);
+        }
+        IonStruct copy = struct.clone();
+        check(copy);
+        assertEquals(struct, copy);
+
+        // the copy has its own index
+        copy.remove(name(3));
+        assertEquals(43, ((IonInt) struct.get(name(3))).intValue());
+        assertNull(((IonStructLite) struct).validate());
+        assertNull(((IonStructLite) copy).validate());
+
+        struct.clear();
+        assertNull(struct.get(name(0)));
+        myNames.clear();
+        myValues.clear();
+        for (int i = 0; i < 50; i++) {
+            add(struct, name(i), i);
+        }
+        check(struct);
+    }
+
+    @Test
+    public void testUnknownFieldNames()
+    {
+        IonStruct struct = SYSTEM.newEmptyStruct();
+        struct.add(_Private_Utils.newSymbolToken(99), SYSTEM.newInt(-1));
+        for (int i = 0; i < 50; i++) {
+            struct.add(name(i), SYSTEM.newInt(i));
+        }
+        assertEquals(7, ((IonInt) struct.get(name(7))).intValue());
+        struct.remove(name(0));
+        assertNull(((IonStructLite) struct).validate());
+        assertSame(((IonStructLite) struct).get_child(7), struct.get(name(7)));
+    }
+}
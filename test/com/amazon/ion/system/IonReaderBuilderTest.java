@@ -17,6 +17,7 @@ package com.amazon.ion.system;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 import com.amazon.ion.IonCatalog;
@@ -26,6 +27,8 @@ import com.amazon.ion.IonWriter;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPOutputStream;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -111,4 +114,69 @@ public class IonReaderBuilderTest
         assertEquals(42, reader.intValue());
     }
 
+    private static byte[] binaryInts(int... values) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = _Private_IonBinaryWriterBuilder.standard().build(out);
+        for (int value : values) {
+            writer.writeInt(value);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static void assertInts(IonReader reader, int... expected)
+    {
+        for (int value : expected) {
+            assertEquals(IonType.INT, reader.next());
+            assertEquals(value, reader.intValue());
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testBuildFromHeapByteBuffer() throws IOException
+    {
+        byte[] data = binaryInts(1, 2, 3);
+        byte[] padded = new byte[data.length + 10];
+        System.arraycopy(data, 0, padded, 5, data.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded, 5, data.length).slice();
+        IonReader reader = IonReaderBuilder.standard().build(buffer);
+        assertInts(reader, 1, 2, 3);
+        assertEquals(0, buffer.position());
+        assertEquals(data.length, buffer.limit());
+    }
+
+    @Test
+    public void testBuildFromDirectByteBuffer() throws IOException
+    {
+        byte[] data = binaryInts(4, 5, 6);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length + 3);
+        buffer.put(new byte[3]).put(data).flip();
+        buffer.position(3);
+        IonReader reader = IonReaderBuilder.standard().build(buffer);
+        assertInts(reader, 4, 5, 6);
+        assertEquals(3, buffer.position());
+    }
+
+    @Test
+    public void testBuildFromGzippedDirectByteBuffer() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+        gzip.write("7 8 9".getBytes("UTF-8"));
+        gzip.close();
+        byte[] data = bytes.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+        assertInts(IonReaderBuilder.standard().build(buffer), 7, 8, 9);
+    }
+
+    @Test
+    public void testBuildFromReadOnlyByteBuffer() throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(binaryInts(10, 11)).asReadOnlyBuffer();
+        assertInts(IonReaderBuilder.standard().build(buffer), 10, 11);
+    }
+
 }
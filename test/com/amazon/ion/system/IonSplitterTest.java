@@ -0,0 +1,171 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+public class IonSplitterTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+    private static final int VALUE_COUNT = 1000;
+
+    private static final IonSplitter.SplitProcessor<List<String>> COLLECT_NAMES =
+        new IonSplitter.SplitProcessor<List<String>>()
+        {
+            public List<String> process(IonReader reader)
+            {
+                List<String> names = new ArrayList<String>();
+                while (reader.next() != null) {
+                    reader.stepIn();
+                    reader.next();
+                    names.add(reader.getFieldName() + "=" + reader.stringValue());
+                    reader.stepOut();
+                }
+                return names;
+            }
+        };
+
+    /**
+     * Writes the values as several concatenated streams, so that the data
+     * holds many different local symbol tables.
+     */
+    private static byte[] binaryData() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < VALUE_COUNT; i += 100) {
+            IonWriter writer = SYSTEM.newBinaryWriter(out);
+            for (int j = i; j < i + 100; j++) {
+                writer.stepIn(IonType.STRUCT);
+                writer.setFieldName("field" + (j / 100));
+                writer.writeSymbol("sym" + j);
+                writer.stepOut();
+            }
+            writer.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static List<String> expectedNames()
+    {
+        List<String> names = new ArrayList<String>();
+        for (int j = 0; j < VALUE_COUNT; j++) {
+            names.add("field" + (j / 100) + "=sym" + j);
+        }
+        return names;
+    }
+
+    private static List<String> readAll(List<IonSplitter.Split> splits)
+        throws Exception
+    {
+        List<String> names = new ArrayList<String>();
+        for (IonSplitter.Split split : splits) {
+            names.addAll(COLLECT_NAMES.process(split.newReader()));
+        }
+        return names;
+    }
+
+    @Test
+    public void testSplitsCarrySymbolTables() throws Exception
+    {
+        IonSplitter splitter = new IonSplitter(IonReaderBuilder.standard(), 100);
+        List<IonSplitter.Split> splits = splitter.split(binaryData());
+        assertTrue(splits.size() > 10);
+
+        long previousFinish = 0;
+        for (IonSplitter.Split split : splits) {
+            assertTrue(split.getStartOffset() >= previousFinish);
+            previousFinish = split.getFinishOffset();
+        }
+        assertEquals(expectedNames(), readAll(splits));
+    }
+
+    @Test
+    public void testSingleSplit() throws Exception
+    {
+        IonSplitter splitter =
+            new IonSplitter(IonReaderBuilder.standard(), Long.MAX_VALUE);
+        List<IonSplitter.Split> splits = splitter.split(binaryData());
+        assertEquals(1, splits.size());
+        assertEquals(expectedNames(), readAll(splits));
+    }
+
+    @Test
+    public void testSplitPartOfArray() throws Exception
+    {
+        byte[] data = binaryData();
+        byte[] padded = new byte[data.length + 20];
+        System.arraycopy(data, 0, padded, 10, data.length);
+        IonSplitter splitter = new IonSplitter(IonReaderBuilder.standard(), 300);
+        assertEquals(expectedNames(),
+                     readAll(splitter.split(padded, 10, data.length)));
+    }
+
+    @Test
+    public void testProcessFileInParallel() throws Exception
+    {
+        File file = File.createTempFile("IonSplitterTest", ".10n");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            out.write(binaryData());
+            out.close();
+
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                IonSplitter splitter =
+                    new IonSplitter(IonReaderBuilder.standard(), 1000);
+                List<List<String>> results =
+                    IonSplitter.processAll(splitter.split(raf.getChannel()),
+                                           executor, COLLECT_NAMES);
+                List<String> names = new ArrayList<String>();
+                for (List<String> result : results) {
+                    names.addAll(result);
+                }
+                assertEquals(expectedNames(), names);
+            }
+            finally {
+                raf.close();
+            }
+        }
+        finally {
+            executor.shutdown();
+            file.delete();
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testTextCannotBeSplit() throws Exception
+    {
+        IonSplitter splitter = new IonSplitter(IonReaderBuilder.standard(), 10);
+        splitter.split("{a:b} {c:d}".getBytes("UTF-8"));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IonValueIndexTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+    private static final int VALUE_COUNT = 500;
+
+    private byte[] myData;
+    private IonValueIndex myIndex;
+
+    /**
+     * Writes values in several flushed segments, each introducing new
+     * symbols, so the data holds many symbol table checkpoints.
+     */
+    @Before
+    public void writeData() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonValueIndex.Recorder recorder = new IonValueIndex.Recorder();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out, recorder);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            writeValue(writer, i);
+            if (i % 50 == 49) {
+                writer.finish();
+            }
+            else if (i % 10 == 9) {
+                writer.flush();
+            }
+        }
+        writer.close();
+        myData = out.toByteArray();
+        myIndex = recorder.build();
+    }
+
+    private static void writeValue(IonWriter writer, int i) throws IOException
+    {
+        if (i % 7 == 3) {
+            writer.writeInt(i);
+            return;
+        }
+        writer.addTypeAnnotation("ann" + (i / 50));
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("field" + (i / 10));
+        writer.writeSymbol("sym" + i);
+        writer.stepOut();
+    }
+
+    private static void checkValue(IonReader reader, int i)
+    {
+        if (i % 7 == 3) {
+            assertEquals(IonType.INT, reader.next());
+            assertEquals(i, reader.intValue());
+            return;
+        }
+        assertEquals(IonType.STRUCT, reader.next());
+        assertEquals("ann" + (i / 50), reader.getTypeAnnotations()[0]);
+        reader.stepIn();
+        reader.next();
+        assertEquals("field" + (i / 10), reader.getFieldName());
+        assertEquals("sym" + i, reader.symbolValue().getText());
+        reader.stepOut();
+    }
+
+    @Test
+    public void testOffsetsMatchSequentialRead()
+    {
+        assertEquals(VALUE_COUNT, myIndex.size());
+        IonReader reader = IonReaderBuilder.standard().build(myData);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            checkValue(reader, i);
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testOpenAtEveryValue() throws IOException
+    {
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            IonReader reader =
+                myIndex.newReader(IonReaderBuilder.standard(), myData, i);
+            checkValue(reader, i);
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testReaderContinuesToEnd() throws IOException
+    {
+        IonReader reader =
+            myIndex.newReader(IonReaderBuilder.standard(), myData, 123);
+        for (int i = 123; i < VALUE_COUNT; i++) {
+            checkValue(reader, i);
+        }
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testOpenPartOfArray() throws IOException
+    {
+        byte[] padded = new byte[myData.length + 20];
+        System.arraycopy(myData, 0, padded, 10, myData.length);
+        IonReader reader = myIndex.newReader(IonReaderBuilder.standard(),
+                                             padded, 10, myData.length, 321);
+        checkValue(reader, 321);
+        reader.close();
+    }
+
+    @Test
+    public void testOpenFile() throws IOException
+    {
+        File file = File.createTempFile("IonValueIndexTest", ".10n");
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            out.write(myData);
+            out.close();
+
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                IonReader reader = myIndex.newReader(IonReaderBuilder.standard(),
+                                                     raf.getChannel(), 499);
+                checkValue(reader, 499);
+                assertNull(reader.next());
+                reader.close();
+            }
+            finally {
+                raf.close();
+            }
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testSidecarRoundTrip() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = SYSTEM.newBinaryWriter(out);
+        myIndex.writeTo(writer);
+        writer.close();
+
+        IonValueIndex loaded =
+            IonValueIndex.read(SYSTEM.newReader(out.toByteArray()));
+        assertEquals(myIndex.size(), loaded.size());
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            assertEquals(myIndex.getValueOffset(i), loaded.getValueOffset(i));
+            IonReader reader =
+                loaded.newReader(IonReaderBuilder.standard(), myData, i);
+            checkValue(reader, i);
+            reader.close();
+        }
+    }
+
+    @Test(expected = IonException.class)
+    public void testReadMalformedIndex()
+    {
+        IonValueIndex.read(SYSTEM.newReader("ion_value_index::{version:1}"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds()
+    {
+        myIndex.newReader(IonReaderBuilder.standard(), myData, VALUE_COUNT);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class SharedSymbolTableInferrerTest
+{
+    private final SimpleCatalog myCatalog = new SimpleCatalog();
+    private final IonSystem mySystem =
+        IonSystemBuilder.standard().withCatalog(myCatalog).build();
+
+    /** Writes a stream of records; "rare" is used once, "$ion_symbol_table" is a system symbol. */
+    private static void writeStream(IonWriter writer, int stream)
+        throws IOException
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            writer.setTypeAnnotations("event");
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("timestamp");
+            writer.writeInt(i);
+            writer.setFieldName("status");
+            writer.writeSymbol(i % 3 == 0 ? "failure" : "success");
+            writer.setFieldName("tags");
+            writer.stepIn(IonType.LIST);
+            writer.writeSymbol("tag" + (i % 5));
+            writer.stepOut();
+            if (i == 0 && stream == 0)
+            {
+                writer.setFieldName("rare");
+                writer.writeSymbol("$ion_symbol_table");
+            }
+            writer.stepOut();
+        }
+    }
+
+    private List<byte[]> sample(IonBinaryWriterBuilder builder)
+        throws IOException
+    {
+        List<byte[]> streams = new ArrayList<byte[]>();
+        for (int s = 0; s < 10; s++)
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IonWriter writer = builder.build(out);
+            writeStream(writer, s);
+            writer.close();
+            streams.add(out.toByteArray());
+        }
+        return streams;
+    }
+
+    private SharedSymbolTableInferrer scan(List<byte[]> streams)
+    {
+        SharedSymbolTableInferrer inferrer = new SharedSymbolTableInferrer();
+        for (byte[] stream : streams)
+        {
+            inferrer.scan(mySystem.newReader(stream));
+        }
+        return inferrer;
+    }
+
+    @Test
+    public void testRanksByFrequency()
+        throws IOException
+    {
+        SharedSymbolTableInferrer inferrer =
+            scan(sample(IonBinaryWriterBuilder.standard()));
+        assertEquals(10, inferrer.getStreamCount());
+
+        SymbolTable table =
+            inferrer.infer(mySystem, "test", 1).getSymbolTable();
+        assertTrue(table.isSharedTable());
+        assertEquals("test", table.getName());
+        assertEquals(1, table.getVersion());
+        // event, timestamp, status and tags occur in every record
+        assertEquals("event", table.findKnownSymbol(1));
+        assertEquals("status", table.findKnownSymbol(2));
+        assertEquals("tags", table.findKnownSymbol(3));
+        assertEquals("timestamp", table.findKnownSymbol(4));
+        assertEquals("success", table.findKnownSymbol(5));
+        assertEquals("failure", table.findKnownSymbol(6));
+        // rare occurs once, and system symbols are never included
+        assertEquals(SymbolTable.UNKNOWN_SYMBOL_ID, table.findSymbol("rare"));
+        assertEquals(SymbolTable.UNKNOWN_SYMBOL_ID, table.findSymbol("$ion_symbol_table"));
+        assertEquals(11, table.getMaxId());
+
+        SymbolTable limited =
+            inferrer.infer(mySystem, "test", 1, 2, 1).getSymbolTable();
+        assertEquals(2, limited.getMaxId());
+        assertEquals(12, inferrer.infer(mySystem, "test", 1, 100, 1).getSymbolTable().getMaxId());
+    }
+
+    @Test
+    public void testEstimatedSavings()
+        throws IOException
+    {
+        IonBinaryWriterBuilder plain = IonBinaryWriterBuilder.standard();
+        List<byte[]> streams = sample(plain);
+        SharedSymbolTableInferrer.Inference inference =
+            scan(streams).infer(mySystem, "test", 1);
+        myCatalog.putTable(inference.getSymbolTable());
+
+        List<byte[]> imported = sample(plain.withCatalog(myCatalog)
+                                            .withImports(inference.getSymbolTable()));
+        long actual = 0;
+        for (int i = 0; i < streams.size(); i++)
+        {
+            actual += streams.get(i).length - imported.get(i).length;
+            // the data is unchanged
+            assertEquals(mySystem.getLoader().load(streams.get(i)),
+                         mySystem.getLoader().load(imported.get(i)));
+        }
+        long estimate = inference.getEstimatedBytesSaved();
+        assertTrue(actual > 0);
+        assertTrue("estimate " + estimate + " actual " + actual,
+                   Math.abs(estimate - actual) <= actual / 5);
+    }
+
+    @Test
+    public void testNewVersionKeepsPriorSymbols()
+        throws IOException
+    {
+        SymbolTable prior = mySystem.newSharedSymbolTable(
+            "test", 1, Arrays.asList("legacy", "status").iterator());
+        myCatalog.putTable(prior);
+
+        SymbolTable table = scan(sample(IonBinaryWriterBuilder.standard()))
+            .infer(mySystem, "test", 2).getSymbolTable();
+        assertEquals(2, table.getVersion());
+        assertEquals(1, table.findSymbol("legacy"));
+        assertEquals(2, table.findSymbol("status"));
+        assertEquals(3, table.findSymbol("event"));
+        assertEquals(12, table.getMaxId());
+    }
+
+    @Test
+    public void testPriorSymbolsDontCountAgainstLimit()
+        throws IOException
+    {
+        // the prior version already has the three most frequent symbols
+        SymbolTable prior = mySystem.newSharedSymbolTable(
+            "test", 1, Arrays.asList("event", "status", "tags").iterator());
+        myCatalog.putTable(prior);
+
+        SymbolTable table = scan(sample(IonBinaryWriterBuilder.standard()))
+            .infer(mySystem, "test", 2, 2, 1).getSymbolTable();
+        assertEquals(5, table.getMaxId());
+        assertEquals("timestamp", table.findKnownSymbol(4));
+        assertEquals("success", table.findKnownSymbol(5));
+    }
+}